@@ -0,0 +1,127 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProcessFlow;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.events.BenchHelpers;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Measures the cost of moving entities along an EntityConveyor that carries a fixed number of
+ * entities. The conveyor sends each entity back to its own start, so that one entity arrives
+ * and one departs every simulated second. Each operation is one departure and arrival.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BenchConveyor {
+	static final int NUM_OPS = 10000;
+
+	@Param({"10", "1000", "10000"})
+	int size;
+
+	JaamSimModel model;
+	EventManager evt;
+	EntityConveyor conveyor;
+	long targetTick;
+	long ticksPerOp;
+
+	@Setup
+	public void setup() {
+		model = new JaamSimModel("BenchConveyor");
+		evt = model.getEventManager();
+		JaamSimModel.setThreadModel(model);
+		try {
+			InputAgent.readResource("<res>/inputs/autoload.cfg");
+			conveyor = InputAgent.defineEntityWithUniqueName(EntityConveyor.class, "Conveyor", "_", true);
+			InputAgent.applyArgs(conveyor, "TravelTime", Integer.toString(size), "s");
+			InputAgent.applyArgs(conveyor, "NextComponent", conveyor.getName());
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+		}
+
+		// Add one entity to the conveyor every second until it is full
+		evt.clear();
+		ticksPerOp = evt.secondsToNearestTick(1.0d);
+		evt.scheduleProcessExternal(0, 0, false, new InitTarget(), null);
+		for (int i = 0; i < size; i++) {
+			DisplayEntity ent = InputAgent.generateEntityWithName(SimEntity.class, "Ent_" + i);
+			evt.scheduleProcessExternal(i * ticksPerOp, 1, false, new AddTarget(ent), null);
+		}
+		targetTick = (size - 1) * ticksPerOp;
+		BenchHelpers.runEvents(evt, targetTick);
+	}
+
+	@TearDown
+	public void tearDown() {
+		model.close();
+	}
+
+	class InitTarget extends ProcessTarget {
+		@Override
+		public String getDescription() {
+			return "Init";
+		}
+
+		@Override
+		public void process() {
+			conveyor.earlyInit();
+		}
+	}
+
+	class AddTarget extends ProcessTarget {
+		final DisplayEntity ent;
+
+		AddTarget(DisplayEntity ent) {
+			this.ent = ent;
+		}
+
+		@Override
+		public String getDescription() {
+			return "Add";
+		}
+
+		@Override
+		public void process() {
+			conveyor.addEntity(ent);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OPS)
+	public void convey() {
+		targetTick += NUM_OPS * ticksPerOp;
+		BenchHelpers.runEvents(evt, targetTick);
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProcessFlow;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Measures the time and memory used to generate an entity from a prototype, in the same way
+ * as an EntityGenerator. The allocation per operation is the memory needed by each entity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BenchGenerate {
+
+	JaamSimModel model;
+	SimEntity proto;
+	long numberGenerated;
+
+	@Setup
+	public void setup() {
+		model = new JaamSimModel("BenchGenerate");
+		JaamSimModel.setThreadModel(model);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+
+		proto = InputAgent.defineEntityWithUniqueName(SimEntity.class, "Proto", "_", true);
+		InputAgent.applyArgs(proto, "AttributeDefinitionList", "{", "a", "1", "}", "{", "b", "2", "}");
+		InputAgent.applyArgs(proto, "DefaultStateList", "Working");
+	}
+
+	@TearDown
+	public void tearDown() {
+		JaamSimModel.setThreadModel(null);
+		model.close();
+	}
+
+	@Benchmark
+	public DisplayEntity generate() {
+		numberGenerated++;
+		DisplayEntity ent = InputAgent.generateEntity(proto, "Gen", "_", numberGenerated);
+		ent.earlyInit();
+		ent.kill();
+		return ent;
+	}
+}
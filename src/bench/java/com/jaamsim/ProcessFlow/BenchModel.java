@@ -0,0 +1,171 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProcessFlow;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.jaamsim.ProbabilityDistributions.ExponentialDistribution;
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.events.BenchHelpers;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Runs a generator-queue-server-sink model without the user interface, in the same way as a
+ * batch run. The score is the number of simulation runs per second and the 'events' counter
+ * gives the number of events per second executed by the runs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BenchModel {
+	static final double RUN_DURATION = 10000.0d; // simulated seconds for each run
+
+	@Param({"false", "true"})
+	public boolean recycle;
+
+	JaamSimModel model;
+	EventManager evt;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class EventCounter {
+		public long events;
+
+		@Setup(Level.Iteration)
+		public void clear() {
+			events = 0;
+		}
+	}
+
+	@Setup
+	public void setup() {
+		model = new JaamSimModel("BenchModel");
+		evt = model.getEventManager();
+		JaamSimModel.setThreadModel(model);
+		try {
+			InputAgent.readResource("<res>/inputs/autoload.cfg");
+
+			ExponentialDistribution arr = define(ExponentialDistribution.class, "Arr");
+			InputAgent.applyArgs(arr, "UnitType", "TimeUnit");
+			InputAgent.applyArgs(arr, "Mean", "1", "s");
+			InputAgent.applyArgs(arr, "RandomSeed", "1");
+
+			ExponentialDistribution svc = define(ExponentialDistribution.class, "Svc");
+			InputAgent.applyArgs(svc, "UnitType", "TimeUnit");
+			InputAgent.applyArgs(svc, "Mean", "0.8", "s");
+			InputAgent.applyArgs(svc, "RandomSeed", "2");
+
+			SimEntity proto = define(SimEntity.class, "Proto");
+			EntityGenerator gen = define(EntityGenerator.class, "Gen");
+			Queue queue = define(Queue.class, "Que");
+			Server srv = define(Server.class, "Srv");
+			EntitySink sink = define(EntitySink.class, "Sink");
+
+			InputAgent.applyArgs(gen, "InterArrivalTime", arr.getName());
+			InputAgent.applyArgs(gen, "PrototypeEntity", proto.getName());
+			InputAgent.applyArgs(gen, "NextComponent", srv.getName());
+			InputAgent.applyArgs(gen, "RecycleEntities", Boolean.toString(recycle).toUpperCase());
+			InputAgent.applyArgs(srv, "WaitQueue", queue.getName());
+			InputAgent.applyArgs(srv, "ServiceTime", svc.getName());
+			InputAgent.applyArgs(srv, "NextComponent", sink.getName());
+
+			for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
+				each.validate();
+			}
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+		}
+	}
+
+	static <T extends Entity> T define(Class<T> klass, String name) {
+		return InputAgent.defineEntityWithUniqueName(klass, name, "_", true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		model.close();
+	}
+
+	static class InitTarget extends ProcessTarget {
+		@Override
+		public String getDescription() {
+			return "BenchModelInit";
+		}
+
+		@Override
+		public void process() {
+			// Destroy the entities that were generated by the previous run
+			for (Entity ent : Entity.getAll()) {
+				if (ent.testFlag(Entity.FLAG_GENERATED) && !ent.testFlag(Entity.FLAG_DEAD))
+					ent.kill();
+			}
+
+			for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
+				each.earlyInit();
+			}
+			for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
+				each.lateInit();
+			}
+			for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
+				EventManager.scheduleTicks(0, 0, true, new StartUpTarget(each), null);
+			}
+		}
+	}
+
+	static class StartUpTarget extends ProcessTarget {
+		final Entity ent;
+
+		StartUpTarget(Entity ent) {
+			this.ent = ent;
+		}
+
+		@Override
+		public String getDescription() {
+			return ent.getName() + ".startUp";
+		}
+
+		@Override
+		public void process() {
+			ent.startUp();
+		}
+	}
+
+	@Benchmark
+	public long run(EventCounter counter) {
+		evt.clear();
+		evt.scheduleProcessExternal(0, 0, false, new InitTarget(), null);
+		BenchHelpers.runEvents(evt, evt.secondsToNearestTick(RUN_DURATION));
+		counter.events += evt.getEventCount();
+		return evt.getEventCount();
+	}
+}
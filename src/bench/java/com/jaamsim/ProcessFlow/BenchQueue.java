@@ -0,0 +1,160 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProcessFlow;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.events.BenchHelpers;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Measures the cost of adding entities to and removing them from a Queue that holds a fixed
+ * number of entities, and of finding an entity's position in the queue. Each add and remove
+ * operation removes one entity and adds it back to the end of the queue.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BenchQueue {
+	static final int NUM_OPS = 10000;
+
+	@Param({"10", "1000", "10000"})
+	int size;
+
+	JaamSimModel model;
+	EventManager evt;
+	Queue queue;
+	DisplayEntity[] ents;
+	int[] picks;
+
+	@Setup
+	public void setup() {
+		model = new JaamSimModel("BenchQueue");
+		evt = model.getEventManager();
+		JaamSimModel.setThreadModel(model);
+		try {
+			queue = InputAgent.defineEntityWithUniqueName(Queue.class, "Queue", "_", true);
+			ents = new DisplayEntity[size];
+			for (int i = 0; i < size; i++) {
+				ents[i] = InputAgent.generateEntityWithName(SimEntity.class, "Ent_" + i);
+			}
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+		}
+		Random rand = new Random(1);
+		picks = new int[NUM_OPS];
+		for (int i = 0; i < NUM_OPS; i++) {
+			picks[i] = rand.nextInt(size);
+		}
+		run(new FillTarget());
+	}
+
+	@TearDown
+	public void tearDown() {
+		model.close();
+	}
+
+	private void run(ProcessTarget t) {
+		evt.clear();
+		evt.scheduleProcessExternal(0, 0, false, t, null);
+		BenchHelpers.runEvents(evt);
+	}
+
+	class FillTarget extends ProcessTarget {
+		@Override
+		public String getDescription() {
+			return "Fill";
+		}
+
+		@Override
+		public void process() {
+			queue.earlyInit();
+			for (DisplayEntity ent : ents) {
+				queue.addEntity(ent);
+			}
+		}
+	}
+
+	class RemoveFirstTarget extends ProcessTarget {
+		@Override
+		public String getDescription() {
+			return "RemoveFirst";
+		}
+
+		@Override
+		public void process() {
+			for (int i = 0; i < NUM_OPS; i++) {
+				queue.addEntity(queue.removeFirst());
+			}
+		}
+	}
+
+	class RemoveEntityTarget extends ProcessTarget {
+		@Override
+		public String getDescription() {
+			return "RemoveEntity";
+		}
+
+		@Override
+		public void process() {
+			// Remove entities from random positions in the queue, as done when an entity
+			// reneges or is selected by its match value
+			for (int i = 0; i < NUM_OPS; i++) {
+				queue.addEntity(queue.removeEntity(ents[picks[i]]));
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OPS)
+	public int getPosition() {
+		int ret = 0;
+		for (int i = 0; i < NUM_OPS; i++) {
+			ret += queue.getPosition(ents[picks[i]]);
+		}
+		return ret;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OPS)
+	public void removeFirst() {
+		run(new RemoveFirstTarget());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OPS)
+	public void removeEntity() {
+		run(new RemoveEntityTarget());
+	}
+}
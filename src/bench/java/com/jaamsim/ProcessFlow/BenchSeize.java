@@ -0,0 +1,156 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProcessFlow;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.jaamsim.ProbabilityDistributions.ExponentialDistribution;
+import com.jaamsim.ProbabilityDistributions.UniformDistribution;
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.events.BenchHelpers;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Runs a model in which the entities are spread over a number of Seize objects that compete
+ * for a shared Resource and for one of several machine Resources. Each Release triggers a
+ * search of the waiting Seize objects, so the cost of a run grows with the number of Seize
+ * objects. The score is the number of simulation runs per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BenchSeize {
+	static final double RUN_DURATION = 10000.0d; // simulated seconds for each run
+	static final int NUM_MACHINES = 4;
+
+	@Param({"10", "100", "500"})
+	public int seizes;
+
+	JaamSimModel model;
+	EventManager evt;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class EventCounter {
+		public long events;
+
+		@Setup(Level.Iteration)
+		public void clear() {
+			events = 0;
+		}
+	}
+
+	@Setup
+	public void setup() {
+		model = new JaamSimModel("BenchSeize");
+		evt = model.getEventManager();
+		JaamSimModel.setThreadModel(model);
+		try {
+			InputAgent.readResource("<res>/inputs/autoload.cfg");
+
+			ExponentialDistribution arr = BenchModel.define(ExponentialDistribution.class, "Arr");
+			InputAgent.applyArgs(arr, "UnitType", "TimeUnit");
+			InputAgent.applyArgs(arr, "Mean", "1", "s");
+			InputAgent.applyArgs(arr, "RandomSeed", "1");
+
+			ExponentialDistribution svc = BenchModel.define(ExponentialDistribution.class, "Svc");
+			InputAgent.applyArgs(svc, "UnitType", "TimeUnit");
+			InputAgent.applyArgs(svc, "Mean", "3.6", "s");
+			InputAgent.applyArgs(svc, "RandomSeed", "2");
+
+			UniformDistribution choice = BenchModel.define(UniformDistribution.class, "Choice");
+			InputAgent.applyArgs(choice, "UnitType", "DimensionlessUnit");
+			InputAgent.applyArgs(choice, "MinValue", "1");
+			InputAgent.applyArgs(choice, "MaxValue", Integer.toString(seizes + 1));
+			InputAgent.applyArgs(choice, "RandomSeed", "3");
+
+			SimEntity proto = BenchModel.define(SimEntity.class, "Proto");
+			EntityGenerator gen = BenchModel.define(EntityGenerator.class, "Gen");
+			Branch branch = BenchModel.define(Branch.class, "Branch");
+			EntitySink sink = BenchModel.define(EntitySink.class, "Sink");
+
+			Resource labour = BenchModel.define(Resource.class, "Labour");
+			InputAgent.applyArgs(labour, "Capacity", "4");
+			Resource[] machines = new Resource[NUM_MACHINES];
+			for (int i = 0; i < NUM_MACHINES; i++) {
+				machines[i] = BenchModel.define(Resource.class, "Machine" + i);
+				InputAgent.applyArgs(machines[i], "Capacity", "2");
+			}
+
+			String[] queueNames = new String[seizes];
+			for (int i = 0; i < seizes; i++) {
+				Queue queue = BenchModel.define(Queue.class, "Que" + i);
+				Seize seize = BenchModel.define(Seize.class, "Seize" + i);
+				EntityDelay delay = BenchModel.define(EntityDelay.class, "Delay" + i);
+				Release release = BenchModel.define(Release.class, "Release" + i);
+				String resources = labour.getName() + " " + machines[i % NUM_MACHINES].getName();
+
+				InputAgent.applyArgs(seize, "WaitQueue", queue.getName());
+				InputAgent.applyArgs(seize, "ResourceList", resources.split(" "));
+				InputAgent.applyArgs(seize, "NumberOfUnits", "{", "1", "}", "{", "1", "}");
+				InputAgent.applyArgs(seize, "NextComponent", delay.getName());
+				InputAgent.applyArgs(delay, "Duration", svc.getName());
+				InputAgent.applyArgs(delay, "NextComponent", release.getName());
+				InputAgent.applyArgs(release, "ResourceList", resources.split(" "));
+				InputAgent.applyArgs(release, "NumberOfUnits", "{", "1", "}", "{", "1", "}");
+				InputAgent.applyArgs(release, "NextComponent", sink.getName());
+				queueNames[i] = queue.getName();
+			}
+
+			InputAgent.applyArgs(gen, "InterArrivalTime", arr.getName());
+			InputAgent.applyArgs(gen, "PrototypeEntity", proto.getName());
+			InputAgent.applyArgs(gen, "NextComponent", branch.getName());
+			InputAgent.applyArgs(branch, "NextComponentList", queueNames);
+			InputAgent.applyArgs(branch, "Choice", choice.getName());
+
+			for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
+				each.validate();
+			}
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		model.close();
+	}
+
+	@Benchmark
+	public long run(EventCounter counter) {
+		evt.clear();
+		evt.scheduleProcessExternal(0, 0, false, new BenchModel.InitTarget(), null);
+		BenchHelpers.runEvents(evt, evt.secondsToNearestTick(RUN_DURATION));
+		counter.events += evt.getEventCount();
+		return evt.getEventCount();
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Measures the time to loop over the instances of a class that has a few instances, such as
+ * the Resources or Controllers in a model, while many generated entities are alive, and the
+ * time to loop over every entity in the model.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BenchEntityIterator {
+
+	public static class ModelEnt extends Entity {}
+	public static class ModelSubEnt extends ModelEnt {}
+	public static class GeneratedEnt extends Entity {}
+
+	@Param({"0", "10000", "100000"})
+	int numGenerated;
+
+	JaamSimModel model;
+
+	@Setup
+	public void setup() {
+		model = new JaamSimModel("BenchEntityIterator");
+		JaamSimModel.setThreadModel(model);
+		for (int i = 0; i < 100; i++) {
+			InputAgent.defineEntityWithUniqueName(Entity.class, "Ent", "_", true);
+			if (i % 10 == 0) {
+				InputAgent.defineEntityWithUniqueName(ModelEnt.class, "ModelEnt", "_", true);
+				InputAgent.defineEntityWithUniqueName(ModelSubEnt.class, "ModelSubEnt", "_", true);
+			}
+		}
+		for (int i = 0; i < numGenerated; i++) {
+			InputAgent.generateEntityWithName(GeneratedEnt.class, "Gen_" + i);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		JaamSimModel.setThreadModel(null);
+		model.close();
+	}
+
+	@Benchmark
+	public int clonesOf() {
+		int n = 0;
+		for (ModelEnt each : Entity.getClonesOfIterator(ModelEnt.class)) {
+			n++;
+		}
+		return n;
+	}
+
+	@Benchmark
+	public int clonesOfEntity() {
+		int n = 0;
+		for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
+			n++;
+		}
+		return n;
+	}
+
+	@Benchmark
+	public int instancesOf() {
+		int n = 0;
+		for (ModelEnt each : Entity.getInstanceIterator(ModelEnt.class)) {
+			n++;
+		}
+		return n;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Generates and kills entities in the same way as an EntityGenerator feeding an EntitySink.
+ * The work in process sets the number of generated entities that are alive at any time and
+ * the score is the time taken to generate and kill all the entities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class BenchEntityRegistry {
+
+	@Param({"10000000"})
+	int numEntities;
+
+	@Param({"10", "1000", "100000"})
+	int wip;
+
+	JaamSimModel model;
+
+	@Setup
+	public void setup() {
+		model = new JaamSimModel("BenchEntityRegistry");
+		JaamSimModel.setThreadModel(model);
+
+		// Entities that make up the model itself
+		for (int i = 0; i < 1000; i++) {
+			InputAgent.defineEntityWithUniqueName(Entity.class, "Ent", "_", true);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		JaamSimModel.setThreadModel(null);
+		model.close();
+	}
+
+	@Benchmark
+	public int generateAndKill() {
+		ArrayDeque<Entity> inProcess = new ArrayDeque<>(wip);
+		for (int i = 0; i < numEntities; i++) {
+			if (inProcess.size() == wip)
+				inProcess.removeFirst().kill();
+			inProcess.addLast(InputAgent.generateEntityWithName(Entity.class, "Gen_" + i));
+		}
+		while (!inProcess.isEmpty()) {
+			inProcess.removeFirst().kill();
+		}
+		return model.getEntityCount();
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Classic hold-model comparison of the future event list implementations. The list is filled
+ * with a fixed number of nodes and each hold operation removes the earliest node and schedules
+ * a new one at a random increment past it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BenchEventList {
+	static final int NUM_HOLDS = 10000;
+
+	@Param({"RED_BLACK_TREE", "CALENDAR_QUEUE"})
+	EventListType type;
+
+	@Param({"100", "10000", "1000000"})
+	int size;
+
+	/**
+	 * Distribution of the increments, scaled so that most nodes have a distinct time.
+	 * exp: exponential with a mean of 'size' ticks
+	 * bimodal: 90% uniform up to 'size' ticks and 10% uniform between 100 and 200 times 'size'
+	 */
+	@Param({"exp", "bimodal"})
+	String dist;
+
+	EventList list;
+	long[] increments;
+	int pos;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(1);
+		increments = new long[1 << 16];
+		for (int i = 0; i < increments.length; i++) {
+			if (dist.equals("exp"))
+				increments[i] = (long)(-size * Math.log(1.0d - rand.nextDouble()));
+			else if (rand.nextDouble() < 0.9d)
+				increments[i] = (long)(rand.nextDouble() * size);
+			else
+				increments[i] = (long)((100.0d + rand.nextDouble() * 100.0d) * size);
+		}
+
+		list = type.newEventList();
+		for (int i = 0; i < size; i++) {
+			list.createOrFindNode(nextIncrement(), i % 5);
+		}
+	}
+
+	private long nextIncrement() {
+		pos = (pos + 1) & (increments.length - 1);
+		return increments[pos];
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_HOLDS)
+	public EventNode hold() {
+		EventNode next = null;
+		for (int i = 0; i < NUM_HOLDS; i++) {
+			next = list.getNextNode();
+			long tick = next.schedTick;
+			int prio = next.priority;
+			list.removeNode(tick, prio);
+			list.createOrFindNode(tick + nextIncrement(), prio);
+		}
+		return next;
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the events per second scheduled and executed by the EventManager when each event
+ * schedules its successor, as done by an EntityGenerator. The number of chains sets the number
+ * of events held in the future event list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BenchEventManager {
+	static final int NUM_EVENTS = 100000;
+
+	@Param({"1", "100", "10000"})
+	int numChains;
+
+	@Param({"RED_BLACK_TREE", "CALENDAR_QUEUE"})
+	EventListType type;
+
+	EventManager evt;
+
+	@Setup
+	public void setup() {
+		evt = new EventManager("BenchEventManager");
+		evt.setEventListType(type);
+	}
+
+	static class Chain extends ProcessTarget {
+		final int offset;
+		int remaining;
+
+		Chain(int n, int off) {
+			remaining = n;
+			offset = off;
+		}
+
+		@Override
+		public String getDescription() {
+			return "Chain";
+		}
+
+		@Override
+		public void process() {
+			remaining--;
+			if (remaining > 0)
+				EventManager.scheduleTicks(1 + (remaining + offset) % 97, 5, true, this, null);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_EVENTS)
+	public long scheduleTicks() {
+		evt.clear();
+		int n = NUM_EVENTS / numChains;
+		for (int i = 0; i < numChains; i++) {
+			evt.scheduleProcessExternal(i % 97, 5, true, new Chain(n, i), null);
+		}
+		BenchHelpers.runEvents(evt);
+		return evt.getEventCount();
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.concurrent.CountDownLatch;
+
+public class BenchHelpers {
+
+	/**
+	 * Executes the events held by the EventManager until none are left.
+	 */
+	public static void runEvents(EventManager evt) {
+		runEvents(evt, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Executes the events held by the EventManager until none are left or the specified
+	 * simulation tick has been reached.
+	 */
+	public static void runEvents(EventManager evt, long targetTick) {
+		StopListener l = new StopListener();
+		evt.setTimeListener(l);
+		evt.resume(targetTick);
+		try {
+			l.stopped.await();
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		evt.setTimeListener(null);
+	}
+
+	private static class StopListener implements EventTimeListener {
+		final CountDownLatch stopped = new CountDownLatch(1);
+
+		@Override
+		public void tickUpdate(long tick) {}
+
+		@Override
+		public void timeRunning(boolean running) {
+			if (!running)
+				stopped.countDown();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Schedules a batch of events at the same time and priority and then cancels them, as happens
+ * when many renege timers or downtime handles are killed together. The events are cancelled
+ * starting with the most recently scheduled one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BenchKillEvent {
+
+	@Param({"100", "1000", "10000"})
+	int batchSize;
+
+	EventManager evt;
+	EventHandle[] handles;
+
+	@Setup
+	public void setup() {
+		evt = new EventManager("BenchKillEvent");
+		handles = new EventHandle[batchSize];
+		for (int i = 0; i < batchSize; i++) {
+			handles[i] = new EventHandle();
+		}
+	}
+
+	static class NoopTarget extends ProcessTarget {
+		@Override
+		public String getDescription() {
+			return "Noop";
+		}
+
+		@Override
+		public void process() {}
+	}
+
+	class ScheduleAndKill extends ProcessTarget {
+		@Override
+		public String getDescription() {
+			return "ScheduleAndKill";
+		}
+
+		@Override
+		public void process() {
+			NoopTarget t = new NoopTarget();
+			for (int i = 0; i < batchSize; i++) {
+				EventManager.scheduleTicks(10, 5, true, t, handles[i]);
+			}
+			for (int i = batchSize - 1; i >= 0; i--) {
+				EventManager.killEvent(handles[i]);
+			}
+		}
+	}
+
+	@Benchmark
+	public void killBatch() {
+		evt.clear();
+		evt.scheduleProcessExternal(0, 0, false, new ScheduleAndKill(), null);
+		BenchHelpers.runEvents(evt);
+	}
+}
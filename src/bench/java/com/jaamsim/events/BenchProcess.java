@@ -0,0 +1,84 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the events per second executed by Processes that repeatedly wait for a delay, in
+ * the same way as a Server that uses simWait for its service time. Every event hands control
+ * from the event loop to the waiting Process and back again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BenchProcess {
+	static final int NUM_EVENTS = 100000;
+
+	@Param({"1", "10", "100", "1000"})
+	int numProcesses;
+
+	EventManager evt;
+
+	@Setup
+	public void setup() {
+		evt = new EventManager("BenchProcess");
+	}
+
+	static class WaitLoop extends ProcessTarget {
+		final int numWaits;
+		final int offset;
+
+		WaitLoop(int n, int off) {
+			numWaits = n;
+			offset = off;
+		}
+
+		@Override
+		public String getDescription() {
+			return "WaitLoop";
+		}
+
+		@Override
+		public void process() {
+			for (int i = 0; i < numWaits; i++) {
+				EventManager.waitTicks(1 + (i + offset) % 7, 5, true, null);
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_EVENTS)
+	public void waitTicks() {
+		evt.clear();
+		int n = NUM_EVENTS / numProcesses;
+		for (int i = 0; i < numProcesses; i++) {
+			evt.scheduleProcessExternal(0, 0, false, new WaitLoop(n, i), null);
+		}
+		BenchHelpers.runEvents(evt);
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.jaamsim.ProcessFlow.SimEntity;
+import com.jaamsim.basicsim.JaamSimModel;
+
+/**
+ * Measures the expressions that read and assign the attributes of the entities generated from
+ * a prototype, such as 'this.obj.Count' for the entity being processed by an Assign object.
+ * Each operation moves to the next of the generated entities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BenchAttribute {
+
+	private static final int NUM_ENTITIES = 64;
+
+	JaamSimModel model;
+	SimEntity holder;
+	ExpResult[] ents;
+	ExpParser.Expression read;
+	ExpParser.Expression assign;
+	int next;
+
+	@Setup
+	public void setup() throws ExpError {
+		model = new JaamSimModel("BenchAttribute");
+		JaamSimModel.setThreadModel(model);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+
+		SimEntity proto = InputAgent.defineEntityWithUniqueName(SimEntity.class, "Proto", "_", true);
+		InputAgent.applyArgs(proto, "AttributeDefinitionList", "{", "Count", "0", "}",
+				"{", "Length", "2", "m", "}", "{", "Label", "\"abc\"", "}");
+
+		ents = new ExpResult[NUM_ENTITIES];
+		for (int i = 0; i < NUM_ENTITIES; i++) {
+			ents[i] = ExpResult.makeEntityResult(InputAgent.generateEntity(proto, "Gen", "_", i + 1));
+		}
+
+		holder = InputAgent.defineEntityWithUniqueName(SimEntity.class, "Holder", "_", true);
+		InputAgent.applyArgs(holder, "AttributeDefinitionList", "{", "obj", "[Proto]", "}");
+
+		String src = "this.obj.Count + this.obj.Length/1[m]";
+		read = ExpParser.parseExpression(ExpEvaluator.getParseContext(holder, src), src);
+		src = "this.obj.Count = this.obj.Count + 1";
+		assign = ExpParser.parseAssignment(ExpEvaluator.getParseContext(holder, src), src);
+	}
+
+	@TearDown
+	public void tearDown() {
+		JaamSimModel.setThreadModel(null);
+		model.close();
+	}
+
+	private void nextEntity() {
+		next = (next + 1) % NUM_ENTITIES;
+		holder.setAttribute("obj", null, ents[next]);
+	}
+
+	@Benchmark
+	public double readAttribute() throws ExpError {
+		nextEntity();
+		return ExpEvaluator.evaluateExpression(read, 0.0d).value;
+	}
+
+	@Benchmark
+	public double assignAttribute() throws ExpError {
+		nextEntity();
+		return ExpEvaluator.evaluateExpression(assign, 0.0d).value;
+	}
+}
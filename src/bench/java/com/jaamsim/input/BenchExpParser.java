@@ -0,0 +1,138 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.jaamsim.input.ExpParser.Assigner;
+import com.jaamsim.input.ExpParser.EvalContext;
+import com.jaamsim.input.ExpParser.OutputResolver;
+import com.jaamsim.input.ExpParser.UnitData;
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.Unit;
+
+/**
+ * Measures the evaluation of expressions taken from TestExpParser, with and without compiling
+ * the parts of each expression that return numbers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BenchExpParser {
+
+	@Param({"2*5 + 3*5*(3-1)+2",
+	        "1 + 2^2*4 + 2*[foo].foo",
+	        "[foo].foo > 3 && [bar].bar < 5 ? max([foo].foo, [bar].bar, 2) : -1",
+	        "size({1, 2, [foo].foo}) + [bar].bar",
+	        "([foo].foo*[bar].bar + [foo].foo/[bar].bar - [foo].foo%3) * [bar].bar^2 + abs([foo].foo - 2*[bar].bar)"})
+	String source;
+
+	@Param({"true", "false"})
+	boolean compile;
+
+	ExpParser.Expression exp;
+	EC ec;
+
+	// Returns a different number for each evaluation so that the result cannot be folded
+	private static class NumResolver implements ExpParser.NumOutputResolver {
+		private final double offset;
+		NumResolver(String name) {
+			offset = name.equals("foo") ? 4 : 3;
+		}
+
+		@Override
+		public ExpResult resolve(EvalContext ec, ExpResult ent) throws ExpError {
+			return ExpResult.makeNumResult(resolveNumber(ec, ent), DimensionlessUnit.class);
+		}
+
+		@Override
+		public double resolveNumber(EvalContext ec, ExpResult ent) throws ExpError {
+			return offset + ((EC)ec).count;
+		}
+
+		@Override
+		public ExpValResult validate(ExpValResult entValRes) {
+			return ExpValResult.makeValidRes(ExpResType.NUMBER, DimensionlessUnit.class);
+		}
+	}
+
+	private static class PC extends ExpParser.ParseContext {
+		PC() {
+			super(new HashMap<String, ExpResult>());
+		}
+		@Override
+		public UnitData getUnitByName(String name) {
+			return null;
+		}
+		@Override
+		public Class<? extends Unit> multUnitTypes(Class<? extends Unit> a, Class<? extends Unit> b) {
+			return DimensionlessUnit.class;
+		}
+		@Override
+		public Class<? extends Unit> divUnitTypes(Class<? extends Unit> num, Class<? extends Unit> denom) {
+			return DimensionlessUnit.class;
+		}
+		@Override
+		public ExpResult getValFromLitName(String name, String source, int pos) throws ExpError {
+			return ExpResult.makeNumResult(1, DimensionlessUnit.class);
+		}
+		@Override
+		public OutputResolver getOutputResolver(String name) throws ExpError {
+			return new NumResolver(name);
+		}
+		@Override
+		public OutputResolver getConstOutputResolver(ExpResult constEnt, String name) throws ExpError {
+			return new NumResolver(name);
+		}
+		@Override
+		public Assigner getAssigner(String attribName) throws ExpError {
+			throw new ExpError(null, 0, "Assign not supported");
+		}
+		@Override
+		public Assigner getConstAssigner(ExpResult constEnt, String attribName) throws ExpError {
+			throw new ExpError(null, 0, "Assign not supported");
+		}
+	}
+
+	private static class EC extends ExpParser.EvalContext {
+		int count;
+	}
+
+	@Setup
+	public void setup() throws ExpError {
+		ExpParser.setCompileNumbers(compile);
+		exp = ExpParser.parseExpression(new PC(), source);
+		ExpParser.setCompileNumbers(true);
+		ec = new EC();
+	}
+
+	@Benchmark
+	public double evaluate() throws ExpError {
+		ec.count = (ec.count + 1) & 0xff;
+		return exp.evaluate(ec).value;
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.jaamsim.ProcessFlow.SimEntity;
+import com.jaamsim.basicsim.JaamSimModel;
+
+/**
+ * Measures the common pattern of recording the simulation time in a history array held by an
+ * attribute of each entity, as done by an Assign object. The array is appended to either by
+ * adding the time to the array or by assigning the element following the last one. An entity's
+ * history is cleared when it reaches the given length, so the average length is half of it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BenchHistory {
+
+	private static final int NUM_ENTITIES = 64;
+
+	@Param({"100", "1000", "10000"})
+	int historyLength;
+
+	JaamSimModel model;
+	SimEntity holder;
+	SimEntity[] ents;
+	ExpResult[] entResults;
+	ExpResult emptyHistory;
+	ExpParser.Expression appendAdd;
+	ExpParser.Expression appendIndex;
+	int next;
+	double simTime;
+
+	@Setup
+	public void setup() throws ExpError {
+		model = new JaamSimModel("BenchHistory");
+		JaamSimModel.setThreadModel(model);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+
+		SimEntity proto = InputAgent.defineEntityWithUniqueName(SimEntity.class, "Proto", "_", true);
+		InputAgent.applyArgs(proto, "AttributeDefinitionList", "{", "History", "{}", "}");
+		emptyHistory = proto.getOutputHandle("History").getValue(0.0d, ExpResult.class);
+
+		ents = new SimEntity[NUM_ENTITIES];
+		entResults = new ExpResult[NUM_ENTITIES];
+		for (int i = 0; i < NUM_ENTITIES; i++) {
+			ents[i] = InputAgent.generateEntity(proto, "Gen", "_", i + 1);
+			entResults[i] = ExpResult.makeEntityResult(ents[i]);
+		}
+
+		holder = InputAgent.defineEntityWithUniqueName(SimEntity.class, "Holder", "_", true);
+		InputAgent.applyArgs(holder, "AttributeDefinitionList", "{", "obj", "[Proto]", "}");
+
+		String src = "this.obj.History = this.obj.History + this.SimTime";
+		appendAdd = ExpParser.parseAssignment(ExpEvaluator.getParseContext(holder, src), src);
+		src = "this.obj.History(size(this.obj.History) + 1) = this.SimTime";
+		appendIndex = ExpParser.parseAssignment(ExpEvaluator.getParseContext(holder, src), src);
+	}
+
+	@TearDown
+	public void tearDown() {
+		JaamSimModel.setThreadModel(null);
+		model.close();
+	}
+
+	private void nextEntity() {
+		next = (next + 1) % NUM_ENTITIES;
+		SimEntity ent = ents[next];
+		ExpResult history = ent.getOutputHandle("History").getValue(0.0d, ExpResult.class);
+		if (history.colVal.getSize() >= historyLength)
+			ent.setAttribute("History", null, emptyHistory);
+		holder.setAttribute("obj", null, entResults[next]);
+		simTime += 1.0d;
+	}
+
+	@Benchmark
+	public ExpResult appendAdd() throws ExpError {
+		nextEntity();
+		return ExpEvaluator.evaluateExpression(appendAdd, simTime);
+	}
+
+	@Benchmark
+	public ExpResult appendIndex() throws ExpError {
+		nextEntity();
+		return ExpEvaluator.evaluateExpression(appendIndex, simTime);
+	}
+}
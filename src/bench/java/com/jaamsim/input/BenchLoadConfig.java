@@ -0,0 +1,116 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaamsim.basicsim.JaamSimModel;
+
+/**
+ * Loads a generated configuration file in the same way as a batch run. Each entity is given
+ * several keywords on separate records, and the score is the time taken to load the file into
+ * a new model that has already read autoload.cfg. A configuration file is loaded once by each
+ * JVM, so each fork measures a single load without warm-up.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(5)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class BenchLoadConfig {
+
+	@Param({"10000", "100000"})
+	int numEntities;
+
+	File dir;
+	File cfg;
+	JaamSimModel model;
+
+	@Setup
+	public void setup() throws IOException {
+		dir = File.createTempFile("BenchLoadConfig", "");
+		dir.delete();
+		dir.mkdir();
+		cfg = new File(dir, "model.cfg");
+
+		try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(cfg)))) {
+			for (int i = 0; i < numEntities; i += 100) {
+				out.print("Define DisplayEntity {");
+				for (int j = i; j < Math.min(i + 100, numEntities); j++)
+					out.print(" Ent" + j);
+				out.println(" }");
+			}
+			out.println();
+			for (int i = 0; i < numEntities; i++) {
+				out.format("Ent%d Position { %d %d 0 m }  Size { 0.5 0.5 0 m }%n", i, i % 100, i / 100);
+				out.format("Ent%d Description { 'Entity number %d' }  DisplayModel { Cube }%n", i, i);
+				out.format("Ent%d AttributeDefinitionList { { Count 0 } { Length %d m } }%n", i, i);
+			}
+		}
+		InputAgent.setBatch(true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		for (File each : dir.listFiles())
+			each.delete();
+		dir.delete();
+	}
+
+	@Setup(Level.Iteration)
+	public void setupModel() {
+		InputAgent.clear();
+		model = new JaamSimModel("BenchLoadConfig");
+		JaamSimModel.setThreadModel(model);
+		InputAgent.setRecordEdits(false);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDownModel() {
+		InputAgent.closeLogFile();
+		JaamSimModel.setThreadModel(null);
+		model.close();
+	}
+
+	@Benchmark
+	public int load() throws URISyntaxException {
+		InputAgent.loadConfigurationFile(cfg);
+		return InputAgent.numErrors();
+	}
+}
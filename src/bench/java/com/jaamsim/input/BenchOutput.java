@@ -0,0 +1,113 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.units.DimensionlessUnit;
+
+/**
+ * Measures the output reads per second made through an OutputHandle, as done by the expression
+ * evaluator, the loggers and the graphs, and the cost of looking up the handles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BenchOutput {
+
+	public static class OutputEntity extends Entity {
+		private int count = 3;
+
+		@Output(name = "DoubleValue",
+		 description = "A double output.",
+		    unitType = DimensionlessUnit.class)
+		public double getDoubleValue(double simTime) {
+			return simTime * 0.5d;
+		}
+
+		@Output(name = "IntValue",
+		 description = "An int output.",
+		    unitType = DimensionlessUnit.class)
+		public int getIntValue(double simTime) {
+			return count;
+		}
+
+		@Output(name = "StringValue",
+		 description = "A String output.")
+		public String getStringValue(double simTime) {
+			return "abc";
+		}
+	}
+
+	OutputEntity ent;
+	OutputHandle doubleOut;
+	OutputHandle intOut;
+	OutputHandle stringOut;
+	double simTime;
+
+	@Setup
+	public void setup() {
+		ent = new OutputEntity();
+		doubleOut = ent.getOutputHandle("DoubleValue");
+		intOut = ent.getOutputHandle("IntValue");
+		stringOut = ent.getOutputHandle("StringValue");
+	}
+
+	@Benchmark
+	public double readDouble() {
+		simTime += 1.0d;
+		return doubleOut.getValueAsDouble(simTime, 0.0d);
+	}
+
+	@Benchmark
+	public double readInt() {
+		simTime += 1.0d;
+		return intOut.getValueAsDouble(simTime, 0.0d);
+	}
+
+	@Benchmark
+	public Object readObject() {
+		simTime += 1.0d;
+		return stringOut.getValue(simTime, String.class);
+	}
+
+	@Benchmark
+	public Object readDoubleBoxed() {
+		simTime += 1.0d;
+		return doubleOut.getValue(simTime, Double.class);
+	}
+
+	@Benchmark
+	public OutputHandle lookupHandle() {
+		return ent.getOutputHandleInterned("DoubleValue");
+	}
+
+	@Benchmark
+	public ArrayList<OutputHandle> lookupHandleList() {
+		return OutputHandle.getOutputHandleList(ent);
+	}
+}
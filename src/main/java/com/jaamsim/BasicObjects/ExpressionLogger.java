@@ -19,6 +19,8 @@ package com.jaamsim.BasicObjects;
 
 import java.util.ArrayList;
 
+import com.jaamsim.Samples.SampleConstant;
+import com.jaamsim.Samples.SampleExpression;
 import com.jaamsim.Samples.SampleListInput;
 import com.jaamsim.Samples.SampleProvider;
 import com.jaamsim.basicsim.EntityTarget;
@@ -29,6 +31,7 @@ import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.EntityListInput;
 import com.jaamsim.input.Input;
+import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.IntegerListInput;
 import com.jaamsim.input.Keyword;
@@ -260,6 +263,18 @@ public class ExpressionLogger extends Logger implements StateEntityListener {
 		this.recordLogEntry(getSimTime());
 	}
 
+	/**
+	 * Returns true if the traced values are calculated only from expressions and constants, so
+	 * that a change can be detected from the model state read by the expressions.
+	 */
+	final boolean isValueTraceTracked() {
+		for (SampleProvider samp : valueTraceList.getValue()) {
+			if (!(samp instanceof SampleExpression) && !(samp instanceof SampleConstant))
+				return false;
+		}
+		return true;
+	}
+
 	/**
 	 * Returns true if any of the traced expressions have changed their values.
 	 */
@@ -306,8 +321,14 @@ public class ExpressionLogger extends Logger implements StateEntityListener {
 		}
 		@Override
 		public boolean evaluate() {
+			EventManager.trackDependency(InputAgent.getInputTracker());
 			return ent.valueChanged();
 		}
+
+		@Override
+		public boolean isTracked() {
+			return ent.isValueTraceTracked();
+		}
 	}
 	private final Conditional valueChanged = new ValueChangedConditional(this);
 
@@ -64,6 +64,7 @@ public class EntityProvExpression<T extends Entity> implements EntityProvider<T>
 			if (result.type != ExpResType.ENTITY) {
 				thisEnt.error(BAD_RESULT_TYPE, exp.source, result.type, "ENTITY");
 			}
+			result.checkEntityGeneration();
 
 			if (!entClass.isAssignableFrom(result.entVal.getClass())) {
 				thisEnt.error(BAD_RESULT_CLASS, exp.source,
@@ -297,6 +297,15 @@ public class DisplayEntity extends Entity {
 		this.resetGraphics();
 	}
 
+	@Override
+	public void recycle() {
+		super.recycle();
+
+		// An entity that is re-used starts without the tags set during its previous use
+		if (this.testFlag(FLAG_POOLED))
+			tagMap.clear();
+	}
+
 	@Override
 	public void kill() {
 
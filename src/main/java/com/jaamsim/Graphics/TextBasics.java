@@ -184,19 +184,33 @@ public abstract class TextBasics extends DisplayEntity {
 		numSelected = start - end;
 	}
 
+	/**
+	 * Reads and writes the system clipboard. The AWT classes it uses are loaded only when the
+	 * clipboard is accessed, and not each time a TextBasics object is created.
+	 */
+	private static class SystemClipboard {
+		static void setText(String str) {
+			Clipboard clpbrd = Toolkit.getDefaultToolkit().getSystemClipboard();
+			clpbrd.setContents(new StringSelection(str), null);
+		}
+
+		static String getText() throws Exception {
+			Clipboard clpbrd = Toolkit.getDefaultToolkit().getSystemClipboard();
+			return (String)clpbrd.getData(DataFlavor.stringFlavor);
+		}
+	}
+
 	private void copyToClipboard() {
-		Clipboard clpbrd = Toolkit.getDefaultToolkit().getSystemClipboard();
 		int start = Math.min(insertPos, insertPos+numSelected);
 		int end = Math.max(insertPos, insertPos+numSelected);
 		StringBuilder sb = new StringBuilder(editText);
 		String copiedText = sb.substring(start, end).toString();
-		clpbrd.setContents(new StringSelection(copiedText), null);
+		SystemClipboard.setText(copiedText);
 	}
 
 	private void pasteFromClipboard() {
-		Clipboard clpbrd = Toolkit.getDefaultToolkit().getSystemClipboard();
 		try {
-			String newText = (String)clpbrd.getData(DataFlavor.stringFlavor);
+			String newText = SystemClipboard.getText();
 			StringBuilder sb = new StringBuilder(editText);
 			editText = sb.insert(insertPos, newText).toString();
 			insertPos += newText.length();
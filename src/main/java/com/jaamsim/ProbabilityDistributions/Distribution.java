@@ -31,7 +31,6 @@ import com.jaamsim.input.IntegerInput;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.UnitTypeInput;
-import com.jaamsim.ui.FrameBox;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
@@ -135,7 +134,7 @@ implements SampleProvider {
 
 		if (in == unitType) {
 			setUnitType(getUnitType());
-			FrameBox.reSelectEntity();  // Update the units in the Output Viewer
+			this.updateGUI();  // Update the units in the Output Viewer
 			return;
 		}
 	}
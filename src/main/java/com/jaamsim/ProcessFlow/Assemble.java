@@ -23,7 +23,6 @@ import com.jaamsim.Commands.KeywordCommand;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
-import com.jaamsim.basicsim.Entity;
 import com.jaamsim.datatypes.IntegerVector;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.EntityInput;
@@ -157,12 +156,9 @@ public class Assemble extends LinkedService {
 		// Create the entity representing the assembled part
 		numberGenerated++;
 		DisplayEntity proto = prototypeEntity.getValue();
-		StringBuilder sb = new StringBuilder();
-		sb.append(this.getName()).append("_").append(numberGenerated);
 
 		// Create the new entity
-		assembledEntity = InputAgent.generateEntityWithName(proto.getClass(), sb.toString());
-		Entity.fastCopyInputs(proto, assembledEntity);
+		assembledEntity = InputAgent.generateEntity(proto, this.getName(), "_", numberGenerated);
 		assembledEntity.earlyInit();
 
 		// Set the obj output to the assembled part
@@ -52,10 +52,7 @@ public class Duplicate extends LinkedComponent {
 		for (Linkable target : targetComponentList.getValue()) {
 
 			// Create the duplicated entity
-			StringBuilder sb = new StringBuilder();
-			sb.append(ent.getName()).append("_Dup").append(n);
-			DisplayEntity dup = InputAgent.generateEntityWithName(ent.getClass(), sb.toString());
-			Entity.fastCopyInputs(ent, dup);
+			DisplayEntity dup = InputAgent.generateEntity(ent, ent.getName(), "_Dup", n);
 
 			// Set the state for the duplicated entity
 			if (dup instanceof SimEntity) {
@@ -49,9 +49,19 @@ public class EntityConveyor extends LinkedService {
 	         exampleList = {"red"})
 	private final ColourInput colorInput;
 
-	private final ArrayList<ConveyorEntry> entryList;  // List of the entities being conveyed
+	// Entities being conveyed, held in a ring buffer in the order they were added. Each entity's
+	// position is the conveyor's total distance less the total distance when it was added, so that
+	// the conveyor's movement does not need to be applied to each entity.
+	private DisplayEntity[] entities;
+	private double[] startDistances;
+	private int firstEntry;  // index of the entity that was added first
+	private int numEntries;
+	private double totalDistance;  // conveyor lengths travelled since the conveyor was last empty
 	private double presentTravelTime;
 
+	// Total distance at which the start distances are reduced to preserve their precision
+	private static final double MAX_TOTAL_DISTANCE = 1000.0d;
+
 	{
 		operatingThresholdList.setHidden(true);
 		waitQueue.setHidden(true);
@@ -77,13 +87,14 @@ public class EntityConveyor extends LinkedService {
 	}
 
 	public EntityConveyor() {
-		entryList = new ArrayList<>();
+		entities = new DisplayEntity[16];
+		startDistances = new double[16];
 	}
 
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		entryList.clear();
+		this.clearEntries();
 		presentTravelTime = 0.0d;
 	}
 
@@ -93,19 +104,66 @@ public class EntityConveyor extends LinkedService {
 		presentTravelTime = travelTimeInput.getValue().getNextSample(0.0);
 	}
 
-	private static class ConveyorEntry {
-		final DisplayEntity entity;
-		double position;
+	private void clearEntries() {
+		for (int i = 0; i < numEntries; i++) {
+			entities[(firstEntry + i) & (entities.length - 1)] = null;
+		}
+		firstEntry = 0;
+		numEntries = 0;
+		totalDistance = 0.0d;
+	}
+
+	private void addEntry(DisplayEntity ent) {
 
-		public ConveyorEntry(DisplayEntity ent, double pos) {
-			entity = ent;
-			position = pos;
+		// Measure the distances from zero whenever the conveyor is empty
+		if (numEntries == 0)
+			totalDistance = 0.0d;
+
+		// Double the size of the ring buffer when it is full
+		if (numEntries == entities.length) {
+			int len = entities.length;
+			DisplayEntity[] ents = new DisplayEntity[len * 2];
+			double[] dists = new double[len * 2];
+			for (int i = 0; i < len; i++) {
+				ents[i] = entities[(firstEntry + i) & (len - 1)];
+				dists[i] = startDistances[(firstEntry + i) & (len - 1)];
+			}
+			startDistances = dists;
+			entities = ents;
+			firstEntry = 0;
 		}
 
-		@Override
-		public String toString() {
-			return String.format("(%s, %.6f)", entity, position);
+		int index = (firstEntry + numEntries) & (entities.length - 1);
+		entities[index] = ent;
+		startDistances[index] = totalDistance;
+		numEntries++;
+	}
+
+	private DisplayEntity removeFirstEntry() {
+		DisplayEntity ent = entities[firstEntry];
+		entities[firstEntry] = null;
+		firstEntry = (firstEntry + 1) & (entities.length - 1);
+		numEntries--;
+		return ent;
+	}
+
+	/**
+	 * Returns the fraction of the conveyor's length that the i-th entity has travelled.
+	 */
+	private double getEntryPosition(int i) {
+		return totalDistance - startDistances[(firstEntry + i) & (startDistances.length - 1)];
+	}
+
+	private String getEntriesString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < numEntries; i++) {
+			if (i > 0)
+				sb.append(", ");
+			DisplayEntity ent = entities[(firstEntry + i) & (entities.length - 1)];
+			sb.append(String.format("(%s, %.6f)", ent, getEntryPosition(i)));
 		}
+		sb.append("]");
+		return sb.toString();
 	}
 
 	@Override
@@ -120,8 +178,7 @@ public class EntityConveyor extends LinkedService {
 		this.updateTravelTime(simTime);
 
 		// Add the entity to the conveyor
-		ConveyorEntry entry = new ConveyorEntry(ent, 0.0d);
-		entryList.add(entry);
+		this.addEntry(ent);
 
 		// If necessary, wake up the conveyor
 		this.startStep();
@@ -129,14 +186,14 @@ public class EntityConveyor extends LinkedService {
 
 	@Override
 	protected boolean startProcessing(double simTime) {
-		return !entryList.isEmpty();
+		return numEntries > 0;
 	}
 
 	@Override
 	protected boolean processStep(double simTime) {
 
 		// Remove the entity from the conveyor
-		DisplayEntity ent = entryList.remove(0).entity;
+		DisplayEntity ent = this.removeFirstEntry();
 
 		// Update the travel time
 		this.updateTravelTime(simTime);
@@ -152,7 +209,7 @@ public class EntityConveyor extends LinkedService {
 
 		// Calculate the time for the first entity to reach the end of the conveyor
 		double dt = simTime - this.getLastUpdateTime();
-		double dur = (1.0d - entryList.get(0).position)*presentTravelTime - dt;
+		double dur = (1.0d - this.getEntryPosition(0))*presentTravelTime - dt;
 		dur = Math.max(dur, 0);  // Round-off to the nearest tick can cause a negative value
 		if (isTraceFlag()) trace(1, "getProcessingTime = %.6f", dur);
 		return dur;
@@ -170,11 +227,18 @@ public class EntityConveyor extends LinkedService {
 			return;
 
 		// Increment the positions of the entities on the conveyor
-		if (isTraceFlag()) traceLine(2, "BEFORE - entryList=%s", entryList);
-		for (ConveyorEntry entry : entryList) {
-			entry.position += frac;
+		if (isTraceFlag()) traceLine(2, "BEFORE - entryList=%s", getEntriesString());
+		totalDistance += frac;
+		if (isTraceFlag()) traceLine(2, "AFTER - entryList=%s", getEntriesString());
+
+		// Measure the distances from the first entity once the total becomes large
+		if (totalDistance > MAX_TOTAL_DISTANCE && numEntries > 0) {
+			double offset = startDistances[firstEntry];
+			for (int i = 0; i < numEntries; i++) {
+				startDistances[(firstEntry + i) & (startDistances.length - 1)] -= offset;
+			}
+			totalDistance -= offset;
 		}
-		if (isTraceFlag()) traceLine(2, "AFTER - entryList=%s", entryList);
 	}
 
 	private void updateTravelTime(double simTime) {
@@ -219,11 +283,20 @@ public class EntityConveyor extends LinkedService {
 			return;
 
 		// Move each entity on the conveyor to its present position
-		double frac = (simTime - this.getLastUpdateTime())/presentTravelTime;
-		for (int i=0; i<entryList.size(); i++) {
-			ConveyorEntry entry = entryList.get(i);
-			Vec3d localPos = PolylineInfo.getPositionOnPolyline(getCurvePoints(), entry.position + frac);
-			entry.entity.setGlobalPosition(this.getGlobalPosition(localPos));
+		// The entries are read without synchronisation, so an entity that is added or removed
+		// while this loop runs can be skipped or positioned using a stale distance
+		double dist = totalDistance + (simTime - this.getLastUpdateTime())/presentTravelTime;
+		DisplayEntity[] ents = entities;
+		double[] dists = startDistances;
+		int mask = Math.min(ents.length, dists.length) - 1;
+		int first = firstEntry;
+		int num = Math.min(numEntries, mask + 1);
+		for (int i = 0; i < num; i++) {
+			DisplayEntity ent = ents[(first + i) & mask];
+			if (ent == null)
+				continue;
+			Vec3d localPos = PolylineInfo.getPositionOnPolyline(getCurvePoints(), dist - dists[(first + i) & mask]);
+			ent.setGlobalPosition(this.getGlobalPosition(localPos));
 		}
 	}
 
@@ -27,6 +27,7 @@ import com.jaamsim.Graphics.TextBasics;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.Keyword;
@@ -61,6 +62,12 @@ public class EntityGenerator extends LinkedService {
 	         exampleList = {"3", "InputValue1", "[InputValue1].Value"})
 	private final SampleInput maxNumber;
 
+	@Keyword(description = "If TRUE, the generated entities that reach an EntitySink are re-used "
+	                     + "as new entities. A reference to an entity that is used after it has "
+	                     + "been re-used generates an error.",
+	         exampleList = {"TRUE"})
+	private final BooleanInput recycleEntities;
+
 	private int numberGenerated = 0;  // Number of entities generated so far
 	private double presentIAT;
 
@@ -104,6 +111,9 @@ public class EntityGenerator extends LinkedService {
 		maxNumber.setValidRange(1, Double.POSITIVE_INFINITY);
 		maxNumber.setDefaultText(Input.POSITIVE_INFINITY);
 		this.addInput(maxNumber);
+
+		recycleEntities = new BooleanInput("RecycleEntities", "Key Inputs", false);
+		this.addInput(recycleEntities);
 	}
 
 	public EntityGenerator() {}
@@ -158,10 +168,8 @@ public class EntityGenerator extends LinkedService {
 		for (int i=0; i<num; i++) {
 			numberGenerated++;
 			DisplayEntity proto = prototypeEntity.getValue().getNextEntity(simTime);
-			StringBuilder sb = new StringBuilder();
-			sb.append(this.getName()).append("_").append(numberGenerated);
-			DisplayEntity ent = InputAgent.generateEntityWithName(proto.getClass(), sb.toString());
-			Entity.fastCopyInputs(proto, ent);
+			DisplayEntity ent = InputAgent.generateEntity(proto, this.getName(), "_", numberGenerated,
+					recycleEntities.getValue());
 			ent.earlyInit();
 
 
@@ -66,10 +66,7 @@ public class EntityLauncher extends GameEntity implements LinkDisplayable {
 		// Create a new entity
 		numberGenerated++;
 		DisplayEntity proto = prototypeEntity.getValue().getNextEntity(0.0d);
-		StringBuilder sb = new StringBuilder();
-		sb.append(this.getName()).append("_").append(numberGenerated);
-		DisplayEntity ent = InputAgent.generateEntityWithName(proto.getClass(), sb.toString());
-		Entity.fastCopyInputs(proto, ent);
+		DisplayEntity ent = InputAgent.generateEntity(proto, this.getName(), "_", numberGenerated);
 		ent.earlyInit();
 
 		// Send the entity to the next element in the chain
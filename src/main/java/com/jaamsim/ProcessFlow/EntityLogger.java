@@ -45,6 +45,7 @@ public class EntityLogger extends Logger implements Linkable, LinkDisplayable {
 	}
 
 	private DisplayEntity receivedEntity;
+	private int receivedGeneration; // generation of the received entity when it arrived
 
 	public EntityLogger() {}
 
@@ -58,6 +59,7 @@ public class EntityLogger extends Logger implements Linkable, LinkDisplayable {
 	public void addEntity(DisplayEntity ent) {
 
 		receivedEntity = ent;
+		receivedGeneration = ent.getGeneration();
 
 		// Record the entry in the log
 		this.recordLogEntry(getSimTime());
@@ -129,6 +131,8 @@ public class EntityLogger extends Logger implements Linkable, LinkDisplayable {
 	 description = "The entity that was received most recently.",
 	    sequence = 0)
 	public DisplayEntity getReceivedEntity(double simTime) {
+		if (receivedEntity != null)
+			receivedEntity.checkGeneration(receivedGeneration);
 		return receivedEntity;
 	}
 
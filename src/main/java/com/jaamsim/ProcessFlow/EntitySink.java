@@ -17,6 +17,7 @@
 package com.jaamsim.ProcessFlow;
 
 import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.basicsim.Entity;
 
 /**
  * EntitySink kills the DisplayEntities sent to it.
@@ -36,8 +37,12 @@ public class EntitySink extends LinkedComponent {
 		// Only increments the number process when there is no next entity
 		this.sendToNextComponent(ent);
 
-		// Kill the added entity
-		ent.kill();
+		// Kill the added entity, keeping it for re-use if its generator recycles entities
+		ent.recycle();
+
+		// A recycled entity is no longer reported as the one received by the sink
+		if (ent.testFlag(Entity.FLAG_POOLED))
+			this.setReceivedEntity(null);
 	}
 
 }
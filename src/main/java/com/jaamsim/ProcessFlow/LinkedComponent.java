@@ -67,6 +67,9 @@ public abstract class LinkedComponent extends StateEntity implements Linkable, L
 	private long initialNumberAdded;     // Number of entities added to this component from upstream during initialisation
 	private long initialNumberProcessed; // Number of entities processed by this component during initialisation
 	private DisplayEntity receivedEntity; // Entity most recently received by this component
+	private int receivedGeneration;       // generation of the received entity when it arrived
+	private DisplayEntity savedEntity;    // received entity replaced by setTemporaryEntity
+	private int savedGeneration;
 	private double releaseTime = Double.NaN;
 
 	{
@@ -90,7 +93,7 @@ public abstract class LinkedComponent extends StateEntity implements Linkable, L
 		super.updateForInput(in);
 
 		if (in == defaultEntity) {
-			receivedEntity = defaultEntity.getValue();
+			this.setReceivedEntity(defaultEntity.getValue());
 			return;
 		}
 	}
@@ -114,7 +117,7 @@ public abstract class LinkedComponent extends StateEntity implements Linkable, L
 		numberProcessed = 0;
 		initialNumberAdded = 0;
 		initialNumberProcessed = 0;
-		receivedEntity = defaultEntity.getValue();
+		this.setReceivedEntity(defaultEntity.getValue());
 		releaseTime = Double.NaN;
 	}
 
@@ -135,7 +138,12 @@ public abstract class LinkedComponent extends StateEntity implements Linkable, L
 
 	protected void registerEntity(DisplayEntity ent) {
 
-		receivedEntity = ent;
+		// A recycled entity can only be used again after it has been re-generated
+		if (ent.testFlag(Entity.FLAG_POOLED))
+			error("Entity %s was sent to a sink and recycled, but is still in use.",
+					ent.getEntityNumber());
+
+		this.setReceivedEntity(ent);
 		numberAdded++;
 
 		// Assign a new state to the received entity
@@ -145,6 +153,28 @@ public abstract class LinkedComponent extends StateEntity implements Linkable, L
 
 	protected void setReceivedEntity(DisplayEntity ent) {
 		receivedEntity = ent;
+		receivedGeneration = (ent == null) ? 0 : ent.getGeneration();
+	}
+
+	/**
+	 * Sets the entity returned by the 'obj' output while an expression is evaluated for an
+	 * entity other than the one received most recently. The previous entity is restored by
+	 * restoreReceivedEntity.
+	 * @param ent - entity for which the expression is evaluated
+	 */
+	final void setTemporaryEntity(DisplayEntity ent) {
+		savedEntity = receivedEntity;
+		savedGeneration = receivedGeneration;
+		this.setReceivedEntity(ent);
+	}
+
+	/**
+	 * Restores the entity that was replaced by setTemporaryEntity.
+	 */
+	final void restoreReceivedEntity() {
+		receivedEntity = savedEntity;
+		receivedGeneration = savedGeneration;
+		savedEntity = null;
 	}
 
 	/**
@@ -255,6 +285,8 @@ public abstract class LinkedComponent extends StateEntity implements Linkable, L
 	 description = "The entity that was received most recently.",
 	    sequence = 0)
 	public DisplayEntity getReceivedEntity(double simTime) {
+		if (receivedEntity != null)
+			receivedEntity.checkGeneration(receivedGeneration);
 		return receivedEntity;
 	}
 
@@ -163,6 +163,9 @@ public abstract class LinkedService extends LinkedDevice implements QueueUser {
 		this.startStep();
 	}
 
+	@Override
+	public void queueHeadChanged() {}
+
 	// ********************************************************************************************
 	// DEVICE METHODS
 	// ********************************************************************************************
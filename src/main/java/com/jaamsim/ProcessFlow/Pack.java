@@ -20,7 +20,6 @@ package com.jaamsim.ProcessFlow;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
-import com.jaamsim.basicsim.Entity;
 import com.jaamsim.input.EntityInput;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.Keyword;
@@ -82,10 +81,7 @@ public class Pack extends LinkedService {
 	protected EntityContainer getNextContainer() {
 		numberGenerated++;
 		EntityContainer proto = prototypeEntityContainer.getValue();
-		StringBuilder sb = new StringBuilder();
-		sb.append(this.getName()).append("_").append(numberGenerated);
-		EntityContainer ret = InputAgent.generateEntityWithName(proto.getClass(), sb.toString());
-		Entity.fastCopyInputs(proto, ret);
+		EntityContainer ret = InputAgent.generateEntity(proto, this.getName(), "_", numberGenerated);
 		ret.earlyInit();
 		return ret;
 	}
@@ -18,7 +18,9 @@
 package com.jaamsim.ProcessFlow;
 
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.TreeSet;
@@ -30,6 +32,7 @@ import com.jaamsim.StringProviders.StringProvInput;
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.EntityTarget;
 import com.jaamsim.datatypes.DoubleVector;
+import com.jaamsim.datatypes.IndexedTreeSet;
 import com.jaamsim.datatypes.IntegerVector;
 import com.jaamsim.events.EventHandle;
 import com.jaamsim.events.EventManager;
@@ -98,7 +101,13 @@ public class Queue extends LinkedComponent {
 			exampleList = {"4"})
 	protected final IntegerInput maxPerLine; // maximum items per sub line-up of queue
 
-	private final TreeSet<QueueEntry> itemSet;  // contains all the entities in queue order
+	private final IndexedTreeSet<QueueEntry> itemSet;  // contains all the entities in queue order
+	private IdentityHashMap<DisplayEntity, QueueEntry> entryMap;  // entry for each entity in the queue, built when first needed
+	private int itemVersion;  // incremented each time an entity is added or removed
+
+	// Entries in queue order for updateGraphics, rebuilt only when the queue has changed
+	private ArrayList<QueueEntry> renderList;
+	private int renderVersion;
 	private final HashMap<String, TreeSet<QueueEntry>> matchMap; // each TreeSet contains the queued entities for a given match value
 
 	private String matchForMaxCount;  // match value with the largest number of entities
@@ -160,7 +169,9 @@ public class Queue extends LinkedComponent {
 	}
 
 	public Queue() {
-		itemSet = new TreeSet<>();
+		itemSet = new IndexedTreeSet<>();
+		renderList = new ArrayList<>();
+		renderVersion = -1;
 		queueLengthDist = new DoubleVector(10,10);
 		userList = new ArrayList<>();
 		matchMap = new HashMap<>();
@@ -183,7 +194,9 @@ public class Queue extends LinkedComponent {
 
 		// Clear the entries in the queue
 		itemSet.clear();
+		entryMap = null;
 		matchMap.clear();
+		itemVersion++;
 
 		matchForMaxCount = null;
 		maxCount = -1;
@@ -200,12 +213,10 @@ public class Queue extends LinkedComponent {
 
 		// Identify the objects that use this queue
 		userList.clear();
-		for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
-			if (each instanceof QueueUser) {
-				QueueUser u = (QueueUser)each;
-				if (u.getQueues().contains(this))
-					userList.add(u);
-			}
+		for (Entity each : Entity.getClonesOfIterator(Entity.class, QueueUser.class)) {
+			QueueUser u = (QueueUser)each;
+			if (u.getQueues().contains(this))
+				userList.add(u);
 		}
 	}
 
@@ -292,10 +303,16 @@ public class Queue extends LinkedComponent {
 
 		QueueEntry entry = new QueueEntry(ent, n, pri, m, getSimTime(), ent.getOrientation(), rh);
 
-		// Add the entity to the TreeSet of all the entities in the queue
-		boolean bool = itemSet.add(entry);
-		if (!bool)
-			error("Entity %s is already present in the queue.", ent);
+		// Add the entity to the set of all the entities in the queue
+		if (entryMap != null) {
+			QueueEntry oldEntry = entryMap.put(ent, entry);
+			if (oldEntry != null) {
+				entryMap.put(ent, oldEntry);
+				error("Entity %s is already present in the queue.", ent);
+			}
+		}
+		itemSet.add(entry);
+		itemVersion++;
 
 		// Does the entry have a match value?
 		if (entry.match != null) {
@@ -324,6 +341,8 @@ public class Queue extends LinkedComponent {
 		}
 
 		// Notify the users of this queue
+		if (itemSet.first() == entry)
+			this.notifyHeadChanged();
 		if (!userUpdateHandle.isScheduled())
 			EventManager.scheduleTicks(0, 2, false, userUpdate, userUpdateHandle);
 
@@ -354,12 +373,11 @@ public class Queue extends LinkedComponent {
 
 		// Temporarily set the obj entity to the one that might renege
 		double simTime = this.getSimTime();
-		DisplayEntity oldEnt = this.getReceivedEntity(simTime);
-		this.setReceivedEntity(entry.entity);
+		this.setTemporaryEntity(entry.entity);
 
 		// Check the condition for reneging
 		boolean bool = (renegeCondition.getValue().getNextSample(simTime) == 0.0d);
-		this.setReceivedEntity(oldEnt);
+		this.restoreReceivedEntity();
 		if (bool) {
 			return;
 		}
@@ -382,10 +400,14 @@ public class Queue extends LinkedComponent {
 		int queueSize = itemSet.size();  // present number of entities in the queue
 		this.updateStatistics(queueSize, queueSize-1);
 
-		// Remove the entity from the TreeSet of all entities in the queue
+		// Remove the entity from the set of all entities in the queue
+		boolean first = (itemSet.first() == entry);
 		boolean found = itemSet.remove(entry);
 		if (!found)
 			error("Cannot find the entry in itemSet.");
+		if (entryMap != null)
+			entryMap.remove(entry.entity);
+		itemVersion++;
 
 		// Kill the renege event
 		if (entry.renegeHandle != null)
@@ -417,17 +439,28 @@ public class Queue extends LinkedComponent {
 		entry.entity.setOrientation(entry.orientation);
 
 		this.incrementNumberProcessed();
+		if (first)
+			this.notifyHeadChanged();
 		return entry.entity;
 	}
 
+	private void notifyHeadChanged() {
+		for (QueueUser each : userList)
+			each.queueHeadChanged();
+	}
+
 	private QueueEntry getQueueEntry(DisplayEntity ent) {
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			QueueEntry entry = itr.next();
-			if (entry.entity == ent)
-				return entry;
+
+		// Index the entries only once an entity is looked up, so that a queue that is only
+		// used in queue order does not pay for the index
+		if (entryMap == null) {
+			entryMap = new IdentityHashMap<>(Math.max(16, itemSet.size() * 2));
+			for (QueueEntry entry : itemSet) {
+				if (entryMap.put(entry.entity, entry) != null)
+					error("Entity %s is present in the queue more than once.", entry.entity);
+			}
 		}
-		return null;
+		return entryMap.get(ent);
 	}
 
 	/**
@@ -437,15 +470,10 @@ public class Queue extends LinkedComponent {
 	 * @return index of the entity in the queue.
 	 */
 	public int getPosition(DisplayEntity ent) {
-		int ret = 0;
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			if (itr.next().entity == ent)
-				return ret;
-
-			ret++;
-		}
-		return -1;
+		QueueEntry entry = this.getQueueEntry(ent);
+		if (entry == null)
+			return -1;
+		return itemSet.indexOf(entry);
 	}
 
 	/**
@@ -486,6 +514,13 @@ public class Queue extends LinkedComponent {
 		return this.getSimTime() - itemSet.first().timeAdded;
 	}
 
+	/**
+	 * Returns the simulation time at which the first object in the queue was added
+	 */
+	public double getFirstTimeAdded() {
+		return itemSet.first().timeAdded;
+	}
+
 	/**
 	 * Returns the priority value for the first object in the queue
 	 */
@@ -654,22 +689,30 @@ public class Queue extends LinkedComponent {
 		double distanceY = 0;
 		double maxWidth = 0;
 
-		// Copy the item set to avoid some concurrent modification exceptions
-		TreeSet<QueueEntry> itemSetCopy = new TreeSet<>(itemSet);
+		// Copy the item set only when it has changed. The copy is discarded if the set is
+		// changed while it is being copied, and is tried again on the next update.
+		ArrayList<QueueEntry> itemList = renderList;
+		int ver = itemVersion;
+		if (ver != renderVersion) {
+			try {
+				itemList = itemSet.toList();
+				renderList = itemList;
+				renderVersion = ver;
+			}
+			catch (ConcurrentModificationException e) {}
+		}
 
 		// find widest vessel
-		if (itemSetCopy.size() >  maxPerLine.getValue()){
-			Iterator<QueueEntry> itr = itemSetCopy.iterator();
-			while (itr.hasNext()) {
-				 maxWidth = Math.max(maxWidth, itr.next().entity.getSize().y);
+		if (itemList.size() >  maxPerLine.getValue()){
+			for (QueueEntry entry : itemList) {
+				 maxWidth = Math.max(maxWidth, entry.entity.getSize().y);
 			 }
 		}
 
 		// update item locations
 		int i = 0;
-		Iterator<QueueEntry> itr = itemSetCopy.iterator();
-		while (itr.hasNext()) {
-			DisplayEntity item = itr.next().entity;
+		for (QueueEntry entry : itemList) {
+			DisplayEntity item = entry.entity;
 
 			// if new row is required, set reset distanceX and move distanceY up one row
 			if( i > 0 && i % maxPerLine.getValue() == 0 ){
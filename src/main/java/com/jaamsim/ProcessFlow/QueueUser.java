@@ -32,4 +32,10 @@ public interface QueueUser {
 	 */
 	public abstract void queueChanged();
 
+	/**
+	 * Called immediately whenever a different entity becomes the first one
+	 * in one of the Queues used by this object, or that Queue becomes empty.
+	 */
+	public abstract void queueHeadChanged();
+
 }
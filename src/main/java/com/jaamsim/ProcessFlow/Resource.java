@@ -18,12 +18,12 @@
 package com.jaamsim.ProcessFlow;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.TreeSet;
 
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.ProbabilityDistributions.Distribution;
 import com.jaamsim.Samples.SampleConstant;
+import com.jaamsim.Samples.SampleExpression;
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.Samples.TimeSeries;
 import com.jaamsim.basicsim.Entity;
@@ -32,6 +32,7 @@ import com.jaamsim.events.Conditional;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.BooleanInput;
+import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
@@ -62,6 +63,7 @@ public class Resource extends DisplayEntity {
 
 	private int unitsInUse;  // number of resource units that are being used at present
 	private ArrayList<Seize> seizeList;  // Seize objects that require this resource
+	private final TreeSet<SeizeEntry> waitingSet;  // Seize objects with waiting entities, in the order they are served
 	private int lastCapacity; // capacity for the resource
 
 	//	Statistics
@@ -91,6 +93,7 @@ public class Resource extends DisplayEntity {
 	public Resource() {
 		unitsInUseDist = new DoubleVector();
 		seizeList = new ArrayList<>();
+		waitingSet = new TreeSet<>();
 	}
 
 	@Override
@@ -132,6 +135,7 @@ public class Resource extends DisplayEntity {
 			if( ent.requiresResource(this) )
 				seizeList.add(ent);
 		}
+		waitingSet.clear();
 	}
 
 	@Override
@@ -176,23 +180,14 @@ public class Resource extends DisplayEntity {
 		if (cap <= unitsInUse)
 			return;
 
-		// Prepare a sorted list of the Seize objects that have a waiting entity
-		ArrayList<Seize> list = new ArrayList<>(seizeList.size());
-		for (Seize s : seizeList) {
-			if (!s.getQueue().isEmpty()) {
-				list.add(s);
-			}
-		}
-		Collections.sort(list, seizeCompare);
-
 		// Find the Seize object(s) that can use the released units
 		while (true) {
 
 			// Find the first Seize object that can seize the Resource
 			Seize selection = null;
-			for (Seize s : list) {
-				if (s.isReadyToStart()) {
-					selection = s;
+			for (SeizeEntry entry : waitingSet) {
+				if (entry.seize.isReadyToStart()) {
+					selection = entry.seize;
 					break;
 				}
 
@@ -207,44 +202,60 @@ public class Resource extends DisplayEntity {
 				return;
 
 			// Seize the resource
+			// (the Seize object's entry in the waiting set is updated as its queue changes)
 			selection.startProcessing(getSimTime());
 
 			// Is additional capacity available?
 			if (cap <= unitsInUse)
 				return;
-
-			// If the selected Seize object has no more entities, remove it from the list
-			if (selection.getQueue().isEmpty()) {
-				list.remove(selection);
-			}
-			// If it does have more entities, re-sort the list to account for the next entity
-			else {
-				Collections.sort(list, seizeCompare);
-			}
 		}
 	}
 
 	/**
-	 * Sorts the Seize objects by the priority and waiting time of the first entity in each queue
+	 * Replaces the entry for a Seize object in the set of Seize objects with waiting entities.
+	 * @param oldEntry - entry for the previous first entity in the Seize object's queue, or null.
+	 * @param newEntry - entry for the present first entity in the queue, or null if it is empty.
 	 */
-	private static class SeizeCompare implements Comparator<Seize> {
+	void updateWaitingSeize(SeizeEntry oldEntry, SeizeEntry newEntry) {
+		if (oldEntry != null)
+			waitingSet.remove(oldEntry);
+		if (newEntry != null)
+			waitingSet.add(newEntry);
+	}
+
+	/**
+	 * Orders the Seize objects by the priority and waiting time of the first entity in each queue.
+	 * An entry is immutable, so a new one replaces it whenever the first entity changes.
+	 */
+	static final class SeizeEntry implements Comparable<SeizeEntry> {
+		final Seize seize;
+		final int priority;
+		final double timeAdded;
+
+		SeizeEntry(Seize s, int pri, double t) {
+			seize = s;
+			priority = pri;
+			timeAdded = t;
+		}
+
 		@Override
-		public int compare(Seize s1, Seize s2) {
+		public int compareTo(SeizeEntry entry) {
 
 			// Chose the Seize object whose Queue contains the highest priority entity
 			// (lowest numerical value, i.e. 1 is higher priority than 2)
-			Queue que1 = s1.getQueue();
-			Queue que2 = s2.getQueue();
-			int ret = Integer.compare(que1.getFirstPriority(), que2.getFirstPriority());
+			int ret = Integer.compare(this.priority, entry.priority);
+			if (ret != 0)
+				return ret;
 
 			// If the priorities are the same, choose the one with the longest waiting time
-			if (ret == 0) {
-				return Double.compare(que2.getQueueTime(), que1.getQueueTime());
-			}
-			return ret;
+			ret = Double.compare(this.timeAdded, entry.timeAdded);
+			if (ret != 0)
+				return ret;
+
+			// Otherwise, choose the Seize object that was defined first
+			return Long.compare(this.seize.getEntityNumber(), entry.seize.getEntityNumber());
 		}
 	}
-	private SeizeCompare seizeCompare = new SeizeCompare();
 
 	/**
 	 * Returns true if the saved capacity differs from the present capacity
@@ -293,8 +304,14 @@ public class Resource extends DisplayEntity {
 	class CapacityChangeConditional extends Conditional {
 		@Override
 		public boolean evaluate() {
+			EventManager.trackDependency(InputAgent.getInputTracker());
 			return Resource.this.isCapacityChanged();
 		}
+
+		@Override
+		public boolean isTracked() {
+			return capacity.getValue() instanceof SampleExpression;
+		}
 	}
 	private final Conditional capacityChangeConditional = new CapacityChangeConditional();
 
@@ -42,6 +42,7 @@ public class Seize extends LinkedService {
 	private final SampleListInput numberOfUnitsList;
 
 	private int[] seizedUnits = new int[1];  // resource units seized by the last entity
+	private Resource.SeizeEntry waitEntry;  // entry held by each Resource for the first waiting entity
 
 	{
 		processPosition.setHidden(true);
@@ -78,6 +79,7 @@ public class Seize extends LinkedService {
 	public void earlyInit() {
 		super.earlyInit();
 		seizedUnits = new int[resourceList.getListSize()];
+		waitEntry = null;
 	}
 
 	@Override
@@ -85,6 +87,21 @@ public class Seize extends LinkedService {
 		this.startProcessing(getSimTime());
 	}
 
+	@Override
+	public void queueHeadChanged() {
+
+		// Replace the entry for the previous first entity in the queue by one for the new entity
+		Queue que = this.getQueue();
+		Resource.SeizeEntry entry = null;
+		if (!que.isEmpty())
+			entry = new Resource.SeizeEntry(this, que.getFirstPriority(), que.getFirstTimeAdded());
+
+		for (Resource res : resourceList.getValue()) {
+			res.updateWaitingSeize(waitEntry, entry);
+		}
+		waitEntry = entry;
+	}
+
 	@Override
 	protected boolean startProcessing(double simTime) {
 
@@ -128,14 +145,13 @@ public class Seize extends LinkedService {
 		double simTime = this.getSimTime();
 
 		// Temporarily set the obj entity to the first one in the queue
-		DisplayEntity oldEnt = this.getReceivedEntity(simTime);
-		this.setReceivedEntity(waitQueue.getValue().getFirst());
+		this.setTemporaryEntity(waitQueue.getValue().getFirst());
 
 		ArrayList<Resource> resList = resourceList.getValue();
 		ArrayList<SampleProvider> numberList = numberOfUnitsList.getValue();
 		for (int i=0; i<resList.size(); i++) {
 			if (resList.get(i).getAvailableUnits(simTime) < (int) numberList.get(i).getNextSample(simTime)) {
-				this.setReceivedEntity(oldEnt);
+				this.restoreReceivedEntity();
 				return false;
 			}
 		}
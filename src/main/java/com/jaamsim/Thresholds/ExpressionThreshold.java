@@ -29,6 +29,7 @@ import com.jaamsim.input.ExpError;
 import com.jaamsim.input.ExpEvaluator;
 import com.jaamsim.input.ExpressionInput;
 import com.jaamsim.input.Input;
+import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.math.Color4d;
@@ -218,8 +219,15 @@ public class ExpressionThreshold extends Threshold {
 	class OpenChangedConditional extends Conditional {
 		@Override
 		public boolean evaluate() {
+			EventManager.trackDependency(InputAgent.getInputTracker());
+			EventManager.trackDependency(ExpressionThreshold.this.getOpenTracker());
 			return ExpressionThreshold.this.openStateChanged();
 		}
+
+		@Override
+		public boolean isTracked() {
+			return true;
+		}
 	}
 	private final Conditional openChanged = new OpenChangedConditional();
 
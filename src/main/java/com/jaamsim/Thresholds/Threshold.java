@@ -20,6 +20,7 @@ import java.util.ArrayList;
 
 import com.jaamsim.DisplayModels.ShapeModel;
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.events.ChangeTracker;
 import com.jaamsim.events.EventHandle;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
@@ -51,6 +52,7 @@ public class Threshold extends StateEntity {
 
 	private final ArrayList<ThresholdUser> userList;
 	private boolean open;
+	private final ChangeTracker openTracker = new ChangeTracker(); // counts the changes in state
 	private boolean initialOpenValue;
 	private long openCount;
 	private long closedCount;
@@ -145,6 +147,13 @@ public class Threshold extends StateEntity {
 		return open;
 	}
 
+	/**
+	 * Returns the ChangeTracker for the open/closed state of the Threshold.
+	 */
+	public final ChangeTracker getOpenTracker() {
+		return openTracker;
+	}
+
 	public final void setOpen(boolean bool) {
 		// If setting to the same value as current, return
 		if (open == bool)
@@ -153,6 +162,7 @@ public class Threshold extends StateEntity {
 		if (isTraceFlag()) trace(0, "setOpen(%s)", bool);
 
 		open = bool;
+		openTracker.changed();
 		if (open) {
 			setPresentState("Open");
 			openCount++;
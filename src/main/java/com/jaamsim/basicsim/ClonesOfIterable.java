@@ -26,4 +26,9 @@ public class ClonesOfIterable<T extends Entity> extends EntityIterator<T> {
 	public boolean matches(Class<?> entklass) {
 		return entClass.isAssignableFrom(entklass);
 	}
+
+	@Override
+	EntityList[] getClassLists(JaamSimModel simModel) {
+		return simModel.getClonesOfLists(this);
+	}
 }
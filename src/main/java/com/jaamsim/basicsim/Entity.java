@@ -21,15 +21,18 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.datatypes.DoubleVector;
+import com.jaamsim.events.ChangeTracker;
 import com.jaamsim.events.Conditional;
 import com.jaamsim.events.EventHandle;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.AttributeDefinitionListInput;
 import com.jaamsim.input.AttributeHandle;
+import com.jaamsim.input.AttributeLayout;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.ExpError;
 import com.jaamsim.input.ExpResType;
@@ -46,11 +49,9 @@ import com.jaamsim.input.Output;
 import com.jaamsim.input.OutputHandle;
 import com.jaamsim.input.StringInput;
 import com.jaamsim.input.SynonymInput;
-import com.jaamsim.ui.FrameBox;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
-import com.jaamsim.units.UserSpecifiedUnit;
 
 /**
  * Abstract class that encapsulates the methods and data needed to create a
@@ -58,10 +59,44 @@ import com.jaamsim.units.UserSpecifiedUnit;
  * event execution.
  */
 public class Entity {
-	private static final JaamSimModel sim = new JaamSimModel();
+	private final JaamSimModel simModel;
 
-	String entityName;
-	private final long entityNumber;
+	volatile String entityName;
+	volatile GeneratedName generatedName; // a generated entity's name, built when first used
+
+	/**
+	 * The parts of a generated entity's name. The name is built when it is first requested and
+	 * is kept for later requests. A String is immutable, so two threads that build the name at
+	 * the same time obtain equal values.
+	 */
+	static final class GeneratedName {
+		private final String prefix;
+		private final String separator;
+		private final long index;
+		private String name;
+
+		GeneratedName(String prefix, String separator, long index) {
+			this.prefix = prefix;
+			this.separator = separator;
+			this.index = index;
+		}
+
+		@Override
+		public String toString() {
+			String ret = name;
+			if (ret == null) {
+				ret = prefix + separator + index;
+				name = ret;
+			}
+			return ret;
+		}
+	}
+	private long entityNumber;  // replaced by a new number when the entity is re-used from a pool
+	int generation;  // incremented each time the entity is re-used from a pool
+	Entity poolProto; // prototype whose pool receives this entity when it is recycled
+	volatile boolean hasPool; // true if recycled copies of this entity are being kept
+	int entitySlot; // position in the list of the model's entities
+	int classSlot;  // position in the list of the model's entities of this class
 
 	private static final int FLAG_TRACE = 0x01;
 	//public static final int FLAG_TRACEREQUIRED = 0x02;
@@ -72,12 +107,31 @@ public class Entity {
 	public static final int FLAG_EDITED = 0x40;
 	public static final int FLAG_GENERATED = 0x80;
 	public static final int FLAG_DEAD = 0x0100;
+	public static final int FLAG_POOLED = 0x0200;
 	private int flags;
 
 	private final ArrayList<Input<?>> inpList = new ArrayList<>();
 
-	private final HashMap<String, AttributeHandle> attributeMap = new LinkedHashMap<>();
-	private final HashMap<String, ExpressionHandle> customOutputMap = new LinkedHashMap<>();
+	// Position of each keyword in inpList for each entity class. The inputs are added by the
+	// constructors, so each instance of a class has the same keywords in the same positions.
+	// An entity that has added inputs of its own keeps a separate index.
+	private static final ConcurrentHashMap<Class<?>, InputIndex> keywordIndex = new ConcurrentHashMap<>();
+	private InputIndex ownKeywordIndex;
+
+	// Attribute layout and the present values of the attributes, indexed by their slots in the
+	// layout. The pair is replaced as a whole, so a thread that reads the field never sees a
+	// layout with the values for a different layout. The trackers are created when first needed.
+	private volatile AttributeValues attribs = AttributeValues.NONE;
+	private ChangeTracker[] attribTrackers;
+
+	// Created when the first custom output is defined
+	private HashMap<String, ExpressionHandle> customOutputMap;
+
+	// OutputHandles returned by getOutputHandle(), created when first requested and discarded
+	// when the attributes or custom outputs are redefined. The cache is read and filled by the
+	// event, GUI and rendering threads. It is created when the first handle is cached, so that
+	// generated entities whose outputs are never requested do not allocate it.
+	private volatile ConcurrentHashMap<String, OutputHandle> outputHandleCache;
 
 	@Keyword(description = "Provides the programmer with a detailed trace of the logic executed "
 	                     + "by the entity. Trace information is sent to standard out.",
@@ -118,7 +172,7 @@ public class Entity {
 		this.addInput(desc);
 
 		attributeDefinitionList = new AttributeDefinitionListInput(this, "AttributeDefinitionList",
-				"Key Inputs", new ArrayList<AttributeHandle>());
+				"Key Inputs", AttributeLayout.EMPTY);
 		attributeDefinitionList.setHidden(false);
 		this.addInput(attributeDefinitionList);
 
@@ -133,13 +187,37 @@ public class Entity {
 	 * Constructor for entity initializing members.
 	 */
 	public Entity() {
-		entityNumber = sim.getNextEntityID();
-		sim.addInstance(this);
+		this(JaamSimModel.getJaamSimModel());
+	}
+
+	/**
+	 * Constructor for an entity that belongs to the specified model.
+	 */
+	Entity(JaamSimModel model) {
+		simModel = model;
+		entityNumber = simModel.getNextEntityID();
+		simModel.addInstance(this);
 		flags = 0;
 	}
 
+	/**
+	 * Returns the model that contains this entity.
+	 */
+	public final JaamSimModel getJaamSimModel() {
+		return simModel;
+	}
+
+	/**
+	 * Refreshes the values shown by the user interface, if there is one.
+	 */
+	protected final void updateGUI() {
+		GUIListener gui = simModel.getGUIListener();
+		if (gui != null)
+			gui.updateAll();
+	}
+
 	public static ArrayList<? extends Entity> getAll() {
-		return sim.getEntities();
+		return JaamSimModel.getJaamSimModel().getEntities();
 	}
 
 	/**
@@ -177,7 +255,7 @@ public class Entity {
 	}
 
 	public static Entity idToEntity(long id) {
-		return sim.idToEntity(id);
+		return JaamSimModel.getJaamSimModel().idToEntity(id);
 	}
 
 	public void validate() throws InputErrorException {
@@ -195,9 +273,7 @@ public class Entity {
 	public void earlyInit() {
 
 		// Reset the attributes to their initial values
-		for (AttributeHandle h : attributeMap.values()) {
-			h.setValue(h.getInitialValue());
-		}
+		this.resetAttributes();
 	}
 
 	/**
@@ -228,7 +304,35 @@ public class Entity {
 
 
 	public void kill() {
-		sim.removeInstance(this);
+		simModel.removeInstance(this);
+	}
+
+	/**
+	 * Kills the entity and, if it was generated with recycling enabled, keeps it for re-use as
+	 * a copy of the same prototype.
+	 */
+	public void recycle() {
+		this.kill();
+		simModel.poolEntity(this);
+	}
+
+	/**
+	 * Returns the number of times the entity has been re-used from a pool. An object that keeps
+	 * a reference to a generated entity records its generation with the reference.
+	 */
+	public final int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Throws an error if the entity has been recycled and re-used since a reference to it was
+	 * recorded with the specified generation.
+	 * @param gen - generation of the entity when the reference was recorded
+	 */
+	public final void checkGeneration(int gen) {
+		if (gen != generation)
+			throw new ErrorException("Entity %s has been recycled and re-used since it was "
+					+ "referenced.", this);
 	}
 
 	/**
@@ -236,7 +340,7 @@ public class Entity {
 	 * @param name - entity's name before it was deleted
 	 */
 	public void restore(String name) {
-		sim.restoreInstance(this);
+		simModel.restoreInstance(this);
 		this.setName(name);
 		this.clearFlag(Entity.FLAG_DEAD);
 	}
@@ -247,7 +351,7 @@ public class Entity {
 	public void doEnd() {}
 
 	public static long getEntitySequence() {
-		return sim.getEntitySequence();
+		return JaamSimModel.getJaamSimModel().getEntitySequence();
 	}
 
 	/**
@@ -274,18 +378,50 @@ public class Entity {
 		inpList.add(new SynonymInput(synonym, in));
 	}
 
+	/**
+	 * The position in inpList of each keyword for a list with the given number of inputs.
+	 * Inputs are only ever added to the end of the list, so an entity whose list is the same
+	 * size as the one that was indexed has the same keywords in the same positions.
+	 */
+	private static final class InputIndex {
+		final int numInputs;
+		final HashMap<String, Integer> positions;
+
+		InputIndex(ArrayList<Input<?>> inputs) {
+			numInputs = inputs.size();
+			positions = new HashMap<>(numInputs * 2);
+			for (int i = numInputs - 1; i >= 0; i--) {
+				positions.put(inputs.get(i).getKeyword(), i);
+			}
+		}
+	}
+
 	public final Input<?> getInput(String key) {
-		for (int i = 0; i < inpList.size(); i++) {
-			Input<?> in = inpList.get(i);
-			if (key.equals(in.getKeyword())) {
-				if (in.isSynonym())
-					return ((SynonymInput)in).input;
-				else
-					return in;
+		InputIndex index = keywordIndex.get(getClass());
+		if (index == null) {
+			index = new InputIndex(inpList);
+			keywordIndex.putIfAbsent(getClass(), index);
+		}
+
+		// Use the entity's own index if its inputs differ from those that were indexed
+		if (index.numInputs != inpList.size()) {
+			index = ownKeywordIndex;
+			if (index == null || index.numInputs != inpList.size()) {
+				index = new InputIndex(inpList);
+				ownKeywordIndex = index;
 			}
 		}
 
-		return null;
+		Integer pos = index.positions.get(key);
+		if (pos == null)
+			return null;
+		return resolveSynonym(inpList.get(pos));
+	}
+
+	private static Input<?> resolveSynonym(Input<?> in) {
+		if (in.isSynonym())
+			return ((SynonymInput)in).input;
+		return in;
 	}
 
 	/**
@@ -370,7 +506,16 @@ public class Entity {
 	 * Note that the name of the entity may not be the unique identifier used in the namedEntityHashMap; see Entity.toString()
 	 */
 	public final String getName() {
-		return entityName;
+		String ret = entityName;
+		if (ret != null)
+			return ret;
+
+		// A rename clears the generated name after setting entityName, so entityName is read
+		// again if the generated name has been cleared
+		GeneratedName gen = generatedName;
+		if (gen == null)
+			return entityName;
+		return gen.toString();
 	}
 
 	/**
@@ -381,6 +526,10 @@ public class Entity {
 		return entityNumber;
 	}
 
+	final void setEntityNumber(long num) {
+		entityNumber = num;
+	}
+
 	/**
 	 * Method to return the unique identifier of the entity. Used when building Edit tree labels
 	 * @return entityName
@@ -391,14 +540,28 @@ public class Entity {
 	}
 
 	public static Entity getNamedEntity(String name) {
-		return sim.getNamedEntity(name);
+		return JaamSimModel.getJaamSimModel().getNamedEntity(name);
 	}
 
 	/**
 	 * Method to set the input name of the entity.
 	 */
 	public void setName(String newName) {
-		sim.renameEntity(this, newName);
+		simModel.renameEntity(this, newName);
+	}
+
+	/**
+	 * Sets the name of a generated entity to the prefix followed by the separator and the index.
+	 * The name is not built until it is first requested.
+	 */
+	public void setGeneratedName(String prefix, String sep, long index) {
+		if (!this.testFlag(FLAG_GENERATED))
+			throw new ErrorException("Only a generated entity can be given a generated name: %s", this);
+
+		// The new generated name is set before the old name is cleared, so that another thread
+		// calling getName() sees one or the other
+		generatedName = new GeneratedName(prefix, sep, index);
+		entityName = null;
 	}
 
 	/**
@@ -416,17 +579,16 @@ public class Entity {
 		}
 
 		if (in == attributeDefinitionList) {
-			attributeMap.clear();
-			for (AttributeHandle h : attributeDefinitionList.getValue()) {
-				this.addAttribute(h.getName(), h);
-			}
+			outputHandleCache = null;
+			this.setAttributeLayout(attributeDefinitionList.getValue());
 
 			// Update the OutputBox
-			FrameBox.reSelectEntity();
+			this.updateGUI();
 			return;
 		}
 		if (in == namedExpressionInput) {
-			customOutputMap.clear();
+			outputHandleCache = null;
+			customOutputMap = new LinkedHashMap<>();
 			for (NamedExpression ne : namedExpressionInput.getValue()) {
 				ExpressionHandle eh = new ExpressionHandle(this, ne.getExpression(), ne.getName());
 				eh.setUnitType(ne.getUnitType());
@@ -434,7 +596,7 @@ public class Entity {
 			}
 
 			// Update the OutputBox
-			FrameBox.reSelectEntity();
+			this.updateGUI();
 			return;
 		}
 
@@ -587,19 +749,18 @@ public class Entity {
 
 
 	public final OutputHandle getOutputHandle(String outputName) {
-		if (hasAttribute(outputName))
-			return attributeMap.get(outputName);
+		OutputHandle ret = getCachedOutputHandle(outputName);
+		if (ret != null)
+			return ret;
 
-		if (customOutputMap.containsKey(outputName))
-			return customOutputMap.get(outputName);
+		if (hasAttribute(outputName))
+			return cacheOutputHandle(outputName, new AttributeHandle(this, outputName));
 
-		if (hasOutput(outputName)) {
-			OutputHandle ret = new OutputHandle(this, outputName);
-			if (ret.getUnitType() == UserSpecifiedUnit.class)
-				ret.setUnitType(getUserUnitType());
+		if (customOutputMap != null && customOutputMap.containsKey(outputName))
+			return cacheOutputHandle(outputName, customOutputMap.get(outputName));
 
-			return ret;
-		}
+		if (hasOutput(outputName))
+			return cacheOutputHandle(outputName, new OutputHandle(this, outputName));
 
 		return null;
 	}
@@ -610,29 +771,53 @@ public class Entity {
 	 * @return
 	 */
 	public final OutputHandle getOutputHandleInterned(String outputName) {
-		if (hasAttribute(outputName))
-			return attributeMap.get(outputName);
+		OutputHandle ret = getCachedOutputHandle(outputName);
+		if (ret != null)
+			return ret;
 
-		if (customOutputMap.containsKey(outputName))
-			return customOutputMap.get(outputName);
+		if (hasAttribute(outputName))
+			return cacheOutputHandle(outputName, new AttributeHandle(this, outputName));
 
-		if (OutputHandle.hasOutputInterned(this.getClass(), outputName)) {
-			OutputHandle ret = new OutputHandle(this, outputName);
-			if (ret.getUnitType() == UserSpecifiedUnit.class)
-				ret.setUnitType(getUserUnitType());
+		if (customOutputMap != null && customOutputMap.containsKey(outputName))
+			return cacheOutputHandle(outputName, customOutputMap.get(outputName));
 
-			return ret;
-		}
+		if (OutputHandle.hasOutputInterned(this.getClass(), outputName))
+			return cacheOutputHandle(outputName, new OutputHandle(this, outputName));
 
 		return null;
 	}
 
+	private OutputHandle getCachedOutputHandle(String outputName) {
+		ConcurrentHashMap<String, OutputHandle> cache = outputHandleCache;
+		if (cache == null)
+			return null;
+		return cache.get(outputName);
+	}
+
+	// Returns the handle that was cached first if another thread has cached one for the same name
+	private OutputHandle cacheOutputHandle(String outputName, OutputHandle h) {
+		ConcurrentHashMap<String, OutputHandle> cache = outputHandleCache;
+		if (cache == null) {
+			synchronized (this) {
+				cache = outputHandleCache;
+				if (cache == null) {
+					cache = new ConcurrentHashMap<>();
+					outputHandleCache = cache;
+				}
+			}
+		}
+		OutputHandle prev = cache.putIfAbsent(outputName, h);
+		if (prev != null)
+			return prev;
+		return h;
+	}
+
 	public boolean hasOutput(String outputName) {
 		if (OutputHandle.hasOutput(this.getClass(), outputName))
 			return true;
-		if (attributeMap.containsKey(outputName))
+		if (hasAttribute(outputName))
 			return true;
-		if (customOutputMap.containsKey(outputName))
+		if (customOutputMap != null && customOutputMap.containsKey(outputName))
 			return true;
 
 		return false;
@@ -748,57 +933,153 @@ public class Entity {
 		return desc.getValue();
 	}
 
-	private void addAttribute(String name, AttributeHandle h) {
-		attributeMap.put(name, h);
+	/**
+	 * An attribute layout together with the array that holds the values for its slots.
+	 */
+	private static final class AttributeValues {
+		static final AttributeValues NONE = new AttributeValues(AttributeLayout.EMPTY);
+
+		final AttributeLayout layout;
+		final ExpResult[] vals;
+
+		AttributeValues(AttributeLayout layout) {
+			this.layout = layout;
+			vals = new ExpResult[layout.size()];
+			for (int i = 0; i < vals.length; i++) {
+				vals[i] = layout.getInitialValue(i);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the attribute layout, and sets each attribute to its initial value.
+	 */
+	private void setAttributeLayout(AttributeLayout layout) {
+		// Any Conditional that depends on the old attributes must be evaluated again
+		if (attribTrackers != null) {
+			for (ChangeTracker t : attribTrackers) {
+				if (t != null)
+					t.changed();
+			}
+		}
+
+		attribTrackers = null;
+		attribs = new AttributeValues(layout);
+	}
+
+	private void resetAttributes() {
+		AttributeLayout layout = attribs.layout;
+		for (int i = 0; i < layout.size(); i++) {
+			this.setAttributeValue(i, layout.getInitialValue(i));
+		}
+	}
+
+	private void setAttributeValue(int slot, ExpResult value) {
+		attribs.vals[slot] = value;
+		if (attribTrackers != null && attribTrackers[slot] != null)
+			attribTrackers[slot].changed();
+	}
+
+	/**
+	 * Returns the layout that assigns a slot to each of this entity's attributes.
+	 */
+	public final AttributeLayout getAttributeLayout() {
+		return attribs.layout;
 	}
 
 	public boolean hasAttribute(String name) {
-		return attributeMap.containsKey(name);
+		return attribs.layout.getSlot(name) >= 0;
 	}
 
 	public Class<? extends Unit> getAttributeUnitType(String name) {
-		AttributeHandle h = attributeMap.get(name);
-		if (h == null)
+		AttributeLayout layout = attribs.layout;
+		int slot = layout.getSlot(name);
+		if (slot < 0)
+			return null;
+		return layout.getUnitType(slot);
+	}
+
+	/**
+	 * Returns the present value of the attribute with the given slot in the attribute layout.
+	 */
+	public final ExpResult getAttribute(int slot) {
+		return attribs.vals[slot];
+	}
+
+	/**
+	 * Returns the present value of the attribute with the given name, or null if there is no
+	 * such attribute.
+	 */
+	public ExpResult getAttribute(String name) {
+		AttributeValues av = attribs;
+		int slot = av.layout.getSlot(name);
+		if (slot < 0)
 			return null;
-		return h.getUnitType();
+		return av.vals[slot];
+	}
+
+	/**
+	 * Reports the attribute with the given slot as a dependency of the Conditional that is being
+	 * evaluated.
+	 */
+	public final void trackAttribute(int slot) {
+		if (!EventManager.isTrackingDependencies())
+			return;
+
+		if (attribTrackers == null)
+			attribTrackers = new ChangeTracker[attribs.layout.size()];
+		if (attribTrackers[slot] == null)
+			attribTrackers[slot] = new ChangeTracker();
+		EventManager.trackDependency(attribTrackers[slot]);
 	}
 
 	public void setAttribute(String name, ExpResult index, ExpResult value) {
-		AttributeHandle h = attributeMap.get(name);
-		if (h == null)
+		int slot = attribs.layout.getSlot(name);
+		if (slot < 0)
 			this.error("Invalid attribute name: %s", name);
 
+		this.setAttribute(slot, index, value);
+	}
+
+	/**
+	 * Assigns a new value to the attribute with the given slot in the attribute layout.
+	 * @param slot - position of the attribute in the layout
+	 * @param index - index of the collection element to be assigned, or null for the attribute
+	 * @param value - new value for the attribute or element
+	 */
+	public final void setAttribute(int slot, ExpResult index, ExpResult value) {
+		AttributeValues av = attribs;
 		if (index != null) {
-			ExpResult attribValue = h.getValue(getSimTime(), ExpResult.class);
+			ExpResult attribValue = av.vals[slot];
 			if (attribValue.type != ExpResType.COLLECTION) {
-				this.error("Trying to set attribute: %s with an index, but it is not a collection", name);
+				this.error("Trying to set attribute: %s with an index, but it is not a collection",
+						av.layout.getName(slot));
 			}
 			try {
 				ExpResult.Collection newCol = attribValue.colVal.assign(index, value.getCopy());
-				h.setValue(ExpResult.makeCollectionResult(newCol));
+				this.setAttributeValue(slot, ExpResult.makeCollectionResult(newCol));
 			} catch (ExpError err) {
 				this.error("Error during assignment: %s", err.getMessage());
 			}
 			return;
 		}
 
-		if (value.type == ExpResType.NUMBER && h.getUnitType() != value.unitType)
+		Class<? extends Unit> ut = av.layout.getUnitType(slot);
+		if (value.type == ExpResType.NUMBER && ut != value.unitType)
 			this.error("Invalid unit returned by an expression. Received: %s, expected: %s",
-					value.unitType.getSimpleName(), h.getUnitType().getSimpleName(), "");
+					value.unitType.getSimpleName(), ut.getSimpleName(), "");
 
-		h.setValue(value.getCopy());
+		this.setAttributeValue(slot, value.getCopy());
 	}
 
 	public ArrayList<String> getAttributeNames(){
-		ArrayList<String> ret = new ArrayList<>();
-		for (String name : attributeMap.keySet()) {
-			ret.add(name);
-		}
-		return ret;
+		return attribs.layout.getNames();
 	}
 
 	public ArrayList<String> getCustomOutputNames(){
 		ArrayList<String> ret = new ArrayList<>();
+		if (customOutputMap == null)
+			return ret;
 		for (String name : customOutputMap.keySet()) {
 			ret.add(name);
 		}
@@ -16,59 +16,106 @@
  */
 package com.jaamsim.basicsim;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 
 public abstract class EntityIterator<T extends Entity> implements Iterable<T>, Iterator<T> {
-	private final ArrayList<? extends Entity> allInstances = Entity.getAll();
+	private final JaamSimModel model = JaamSimModel.getJaamSimModel();
 	protected final Class<T> entClass;
-	private int curPos;
-	private int nextPos;
+	private int classVersion;     // model's class version for which lists is valid
+	private EntityList[] lists;   // entities of each class accepted by the iterator
+	private int[] nextSlots;      // next slot in each list to be tested
+	private int[] slotVersions;   // slot version of each list for which nextSlots is valid
+	private long lastNum;         // entity number of the last entity found
+	private T nextEnt;
 
 	public EntityIterator(Class<T> aClass) {
 		entClass = aClass;
-		curPos = -1;
-		nextPos = -1;
+		classVersion = -1;
+		lastNum = 0;
+		nextEnt = null;
 	}
 
 	abstract boolean matches(Class<?> entklass);
 
+	/**
+	 * Returns the model's lists of entities for the classes accepted by the iterator.
+	 */
+	EntityList[] getClassLists(JaamSimModel simModel) {
+		return simModel.getClassLists(this);
+	}
+
+	private void updateLists() {
+		classVersion = model.getClassVersion();
+		lists = getClassLists(model);
+		nextSlots = new int[lists.length];
+		slotVersions = new int[lists.length];
+		for (int i = 0; i < lists.length; i++) {
+			slotVersions[i] = lists[i].getSlotVersion();
+			if (lastNum > 0)
+				nextSlots[i] = model.getSlotAfter(lists[i], lastNum);
+		}
+	}
+
 	private void updatePos() {
-		if (nextPos >= allInstances.size())
+		if (nextEnt != null)
 			return;
 
-		while (++nextPos < allInstances.size()) {
-			// If we find a match, break out
-			if (matches(allInstances.get(nextPos).getClass()))
-				break;
+		// Find the lists again if entities of a new class have been created
+		if (classVersion != model.getClassVersion())
+			updateLists();
+
+		// Take the entity with the smallest entity number from the front of each list
+		Entity best = null;
+		int bestList = -1;
+		for (int i = 0; i < lists.length; i++) {
+			EntityList list = lists[i];
+
+			// Find the position of the last entity again if the entities have been moved
+			if (slotVersions[i] != list.getSlotVersion()) {
+				slotVersions[i] = list.getSlotVersion();
+				nextSlots[i] = model.getSlotAfter(list, lastNum);
+			}
+
+			Entity ent = null;
+			while (nextSlots[i] < list.getSlotCount()) {
+				ent = list.getSlot(nextSlots[i]);
+				if (ent != null)
+					break;
+				nextSlots[i]++;
+			}
+			if (ent == null)
+				continue;
+
+			if (best == null || ent.getEntityNumber() < best.getEntityNumber()) {
+				best = ent;
+				bestList = i;
+			}
 		}
+		if (best == null)
+			return;
+
+		nextSlots[bestList]++;
+		lastNum = best.getEntityNumber();
+		nextEnt = entClass.cast(best);
 	}
 
 	@Override
 	public boolean hasNext() {
-		if (curPos == nextPos)
-			updatePos();
-
-		if (nextPos < allInstances.size())
-			return true;
-		else
-			return false;
+		updatePos();
+		return nextEnt != null;
 	}
 
 	@Override
 	public T next() {
-		if (curPos == nextPos)
-			updatePos();
-
-		if (nextPos < allInstances.size()) {
-			curPos = nextPos;
-			return entClass.cast(allInstances.get(curPos));
-		}
-		else {
+		updatePos();
+		if (nextEnt == null)
 			throw new NoSuchElementException();
-		}
+
+		T ret = nextEnt;
+		nextEnt = null;
+		return ret;
 	}
 
 	@Override
@@ -0,0 +1,245 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Entities in order of entity number. A removed entity leaves an empty slot that is reclaimed
+ * when the array is compacted, so that adding or removing an entity takes constant time.
+ * <p>
+ * Each entity records its slot in the list of all the model's entities and in the list for its
+ * class. The caller is responsible for synchronisation, except that getSlot may be called while
+ * the list is being modified.
+ */
+class EntityList {
+	private final boolean classList; // true if the entity's classSlot is used
+	private Entity[] entities = new Entity[16];
+	private long[] entityNumbers = new long[16];
+	private int numSlots;     // number of slots in use, including the empty slots
+	private int numEntities;  // number of entities that have not been removed
+	private int slotVersion;  // incremented each time entities are moved to different slots
+
+	EntityList(boolean classList) {
+		this.classList = classList;
+	}
+
+	private int getEntitySlot(Entity e) {
+		return classList ? e.classSlot : e.entitySlot;
+	}
+
+	private void setEntitySlot(Entity e, int index) {
+		if (classList)
+			e.classSlot = index;
+		else
+			e.entitySlot = index;
+	}
+
+	int size() {
+		return numEntities;
+	}
+
+	int getSlotCount() {
+		return numSlots;
+	}
+
+	int getSlotVersion() {
+		return slotVersion;
+	}
+
+	/**
+	 * Returns the entity held by the specified slot, or null if the slot is empty.
+	 */
+	Entity getSlot(int index) {
+		Entity[] ents = entities;
+		if (index >= numSlots || index >= ents.length)
+			return null;
+		return ents[index];
+	}
+
+	/**
+	 * Returns the entity with the largest entity number, or null if the list is empty.
+	 */
+	Entity getLast() {
+		for (int i = numSlots - 1; i >= 0; i--) {
+			if (entities[i] != null)
+				return entities[i];
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the index of the slot that holds the specified entity number, or if it is not
+	 * present, -(insertion point + 1).
+	 */
+	private int idToIndex(long id) {
+		int lowIdx = 0;
+		int highIdx = numSlots - 1;
+
+		while (lowIdx <= highIdx) {
+			int testIdx = (lowIdx + highIdx) >>> 1; // Avoid sign extension
+			long testNum = entityNumbers[testIdx];
+
+			if (testNum < id) {
+				lowIdx = testIdx + 1;
+				continue;
+			}
+
+			if (testNum > id) {
+				highIdx = testIdx - 1;
+				continue;
+			}
+
+			return testIdx;
+		}
+
+		// Entity number not found
+		return -(lowIdx + 1);
+	}
+
+	Entity idToEntity(long id) {
+		int idx = this.idToIndex(id);
+		if (idx < 0)
+			return null;
+
+		return entities[idx];
+	}
+
+	/**
+	 * Returns the index of the first slot that follows the specified entity number.
+	 */
+	int getSlotAfter(long id) {
+		int idx = this.idToIndex(id);
+		if (idx < 0)
+			return -idx - 1;
+		return idx + 1;
+	}
+
+	/**
+	 * Adds the entities to the specified list.
+	 */
+	void addTo(ArrayList<Entity> list) {
+		for (int i = 0; i < numSlots; i++) {
+			if (entities[i] != null)
+				list.add(entities[i]);
+		}
+	}
+
+	/**
+	 * Moves the entities to the start of the array to remove the empty slots.
+	 */
+	private void compact() {
+		int n = 0;
+		for (int i = 0; i < numSlots; i++) {
+			Entity e = entities[i];
+			if (e == null)
+				continue;
+
+			entities[n] = e;
+			entityNumbers[n] = entityNumbers[i];
+			setEntitySlot(e, n);
+			n++;
+		}
+		for (int i = n; i < numSlots; i++) {
+			entities[i] = null;
+		}
+		numSlots = n;
+		slotVersion++;
+	}
+
+	/**
+	 * Makes room for one more slot at the end of the array.
+	 */
+	private void ensureFreeSlot() {
+		if (numSlots < entities.length)
+			return;
+
+		// Reclaim the empty slots before growing the array
+		if (numSlots - numEntities >= numSlots / 4) {
+			this.compact();
+			return;
+		}
+
+		int len = entities.length * 2;
+		entities = Arrays.copyOf(entities, len);
+		entityNumbers = Arrays.copyOf(entityNumbers, len);
+	}
+
+	/**
+	 * Adds an entity whose entity number is larger than that of any entity in the list.
+	 */
+	void add(Entity e) {
+		this.ensureFreeSlot();
+		setEntitySlot(e, numSlots);
+		entities[numSlots] = e;
+		entityNumbers[numSlots] = e.getEntityNumber();
+		numSlots++;
+		numEntities++;
+	}
+
+	/**
+	 * Returns an entity to its position in the list.
+	 * @return false if the entity is already in the list
+	 */
+	boolean restore(Entity e) {
+		int index = idToIndex(e.getEntityNumber());
+		if (index >= 0) {
+			// The empty slot for the entity has not been reclaimed yet
+			if (entities[index] != null)
+				return false;
+			entities[index] = e;
+			setEntitySlot(e, index);
+			numEntities++;
+			return true;
+		}
+
+		this.ensureFreeSlot();
+		index = idToIndex(e.getEntityNumber());
+		index = -index - 1;
+		System.arraycopy(entities, index, entities, index + 1, numSlots - index);
+		System.arraycopy(entityNumbers, index, entityNumbers, index + 1, numSlots - index);
+		entities[index] = e;
+		entityNumbers[index] = e.getEntityNumber();
+		numSlots++;
+		numEntities++;
+		for (int i = index; i < numSlots; i++) {
+			if (entities[i] != null)
+				setEntitySlot(entities[i], i);
+		}
+		slotVersion++;
+		return true;
+	}
+
+	/**
+	 * Removes the entity from the list.
+	 * @return false if the entity is not in the list
+	 */
+	boolean remove(Entity e) {
+		int index = getEntitySlot(e);
+		if (index >= numSlots || entities[index] != e)
+			return false;
+
+		entities[index] = null;
+		numEntities--;
+
+		// Reclaim the empty slots once they outnumber the entities
+		if (numSlots > 64 && numSlots - numEntities > numEntities)
+			this.compact();
+		return true;
+	}
+}
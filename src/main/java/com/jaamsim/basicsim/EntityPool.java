@@ -0,0 +1,100 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.jaamsim.events.EventHandle;
+
+/**
+ * Generated entities that have been killed and are kept for re-use as copies of the same
+ * prototype.
+ * <p>
+ * An entity can only be added to the pool once it has been removed from the model and none of
+ * its EventHandles track a scheduled event, so that a pending event cannot be executed for an
+ * entity that has been re-used.
+ */
+class EntityPool {
+	private static final ConcurrentHashMap<Class<?>, Field[]> handleFields = new ConcurrentHashMap<>();
+
+	private final ArrayList<Entity> entities = new ArrayList<>();
+
+	int size() {
+		return entities.size();
+	}
+
+	void add(Entity e) {
+		if (!e.testFlag(Entity.FLAG_DEAD))
+			throw new ErrorException("Entity must be killed before it is recycled: %s", e.getEntityNumber());
+
+		if (e.testFlag(Entity.FLAG_POOLED))
+			throw new ErrorException("Entity has already been recycled: %s", e.getEntityNumber());
+
+		for (Field f : getHandleFields(e.getClass())) {
+			EventHandle handle;
+			try {
+				handle = (EventHandle) f.get(e);
+			}
+			catch (IllegalAccessException ex) {
+				throw new ErrorException(ex);
+			}
+			if (handle != null && handle.isScheduled())
+				throw new ErrorException("Entity cannot be recycled while it has a scheduled event: %s",
+						e.getEntityNumber());
+		}
+
+		e.setFlag(Entity.FLAG_POOLED);
+		entities.add(e);
+	}
+
+	/**
+	 * Returns the most recently added entity, or null if the pool is empty.
+	 */
+	Entity take() {
+		if (entities.isEmpty())
+			return null;
+
+		Entity e = entities.remove(entities.size() - 1);
+		e.clearFlag(Entity.FLAG_POOLED);
+		return e;
+	}
+
+	/**
+	 * Returns the instance fields of the class and its super-classes that hold an EventHandle.
+	 */
+	private static Field[] getHandleFields(Class<?> klass) {
+		Field[] ret = handleFields.get(klass);
+		if (ret != null)
+			return ret;
+
+		ArrayList<Field> list = new ArrayList<>();
+		for (Class<?> c = klass; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Field f : c.getDeclaredFields()) {
+				if (Modifier.isStatic(f.getModifiers()) || !EventHandle.class.isAssignableFrom(f.getType()))
+					continue;
+				f.setAccessible(true);
+				list.add(f);
+			}
+		}
+		ret = list.toArray(new Field[list.size()]);
+		handleFields.put(klass, ret);
+		return ret;
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+/**
+ * GUIListener receives the notifications from the simulation model that are needed to keep a
+ * user interface up to date. A model without a GUIListener runs headless: the notifications are
+ * skipped and errors are reported to the log only.
+ */
+public interface GUIListener {
+
+	/**
+	 * Refreshes the values shown in the user interface for the selected entity.
+	 */
+	public void updateAll();
+
+	/**
+	 * Updates the controls that show the present inputs for the Simulation object, such as
+	 * RealTime, PauseTime, and SnapToGrid, and the state of the save, undo, and redo buttons.
+	 */
+	public void updateControls();
+
+	/**
+	 * Updates the user interface for a change in the state of the simulation run.
+	 * @param state - new state, for example GUIFrame.SIM_STATE_CONFIGURED.
+	 */
+	public void updateForSimulationState(int state);
+
+	/**
+	 * Opens or closes the tool window controlled by the specified Simulation keyword.
+	 * @param keyword - Simulation keyword for the tool, for example ShowModelBuilder.
+	 * @param visible - true if the tool is to be shown.
+	 */
+	public void setToolVisible(String keyword, boolean visible);
+
+	/**
+	 * Reports an error to the user.
+	 * @param title - title for the error message
+	 * @param pre - text to appear before the error message
+	 * @param message - error message
+	 * @param post - text to appear after the error message
+	 */
+	public void showErrorMessage(String title, String pre, String message, String post);
+
+	/**
+	 * Closes the user interface and terminates the program.
+	 * @param errorCode - exit code for the program.
+	 */
+	public void exit(int errorCode);
+
+}
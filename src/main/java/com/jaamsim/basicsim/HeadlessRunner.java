@@ -0,0 +1,147 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+
+import com.jaamsim.events.EventErrorListener;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.InputErrorException;
+
+/**
+ * HeadlessRunner is the entry point for batch runs on machines without a display. It loads and
+ * executes a configuration file without creating the user interface, so that none of the Swing,
+ * AWT, or rendering classes are loaded.
+ * <p>
+ * The process exit code is one of EXIT_OK, EXIT_RUNTIME_ERROR, EXIT_INPUT_ERROR, or EXIT_USAGE.
+ */
+public class HeadlessRunner implements EventErrorListener {
+
+	public static final int EXIT_OK = 0;
+	public static final int EXIT_RUNTIME_ERROR = 1;
+	public static final int EXIT_INPUT_ERROR = 2;
+	public static final int EXIT_USAGE = 3;
+
+	public static void main(String[] args) {
+
+		// Any AWT classes that are used to read fonts or images must not require a display
+		System.setProperty("java.awt.headless", "true");
+
+		File configFile = null;
+		boolean scriptMode = false;
+		boolean parallel = false;
+		boolean compiled = false;
+
+		for (String each : args) {
+			// Script mode (command line I/O)
+			if (each.equalsIgnoreCase("-s") ||
+			    each.equalsIgnoreCase("-script")) {
+				scriptMode = true;
+				continue;
+			}
+			// Execute multiple runs in parallel
+			if (each.equalsIgnoreCase("-p") ||
+			    each.equalsIgnoreCase("-parallel")) {
+				parallel = true;
+				continue;
+			}
+			// Load the configuration file from its compiled form
+			if (each.equalsIgnoreCase("-c") ||
+			    each.equalsIgnoreCase("-compiled")) {
+				compiled = true;
+				continue;
+			}
+			// Options for the user interface are accepted and ignored
+			if (each.startsWith("-"))
+				continue;
+
+			if (configFile != null)
+				usage("Multiple configuration files are not supported");
+			configFile = new File(each).getAbsoluteFile();
+		}
+
+		if (configFile == null && !scriptMode)
+			usage("A configuration file must be specified");
+
+		// The model has no GUIListener, so it is run without a user interface
+		EventManager evt = JaamSimModel.getDefaultModel().getEventManager();
+		evt.setErrorListener(new HeadlessRunner());
+
+		InputAgent.setScriptMode(scriptMode);
+		InputAgent.setParallelRuns(parallel);
+		InputAgent.setCompiledConfig(compiled);
+		InputAgent.setBatch(true);
+
+		// Load the autoload file
+		InputAgent.setRecordEdits(false);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+		InputAgent.setPreDefinedEntityCount(JaamSimModel.getJaamSimModel().getLastEntityNumber());
+
+		// Load the configuration file
+		if (configFile != null) {
+			InputAgent.setConfigFile(configFile);
+			try {
+				InputAgent.loadConfigurationFile(configFile);
+			}
+			catch (InputErrorException e) {
+				InputAgent.logMessage("Input Error: %s", e.getMessage());
+				Simulation.exit(EXIT_INPUT_ERROR);
+			}
+			catch (Throwable t) {
+				InputAgent.logMessage("Fatal Error while loading file '%s': %s", configFile.getName(), t.getMessage());
+				Simulation.exit(EXIT_INPUT_ERROR);
+			}
+		}
+
+		// If in script mode, load additional inputs from standard in
+		if (scriptMode) {
+			BufferedReader buf = new BufferedReader(new InputStreamReader(System.in));
+			InputAgent.readBufferedStream(buf, null, "");
+		}
+
+		if (InputAgent.numErrors() > 0) {
+			InputAgent.logMessage("Input Error: %d input errors found", InputAgent.numErrors());
+			Simulation.exit(EXIT_INPUT_ERROR);
+		}
+
+		InputAgent.setRecordEdits(true);
+		Simulation.start(evt);
+	}
+
+	private static void usage(String msg) {
+		System.err.println(msg);
+		System.err.println("Usage: java -cp JaamSim.jar " + HeadlessRunner.class.getName()
+				+ " <configuration file> [-s | -script] [-p | -parallel] [-c | -compiled]");
+		System.exit(EXIT_USAGE);
+	}
+
+	@Override
+	public void handleError(EventManager evt, Throwable t, long currentTick) {
+		InputAgent.logMessage("EXCEPTION AT TIME: %f s", evt.ticksToSeconds(currentTick));
+		InputAgent.logMessage("%s", t.getMessage());
+		if (t.getCause() != null) {
+			InputAgent.logMessage("Call Stack of original exception:");
+			InputAgent.logStackTrace(t.getCause());
+		}
+		InputAgent.logMessage("Thrown exception call stack:");
+		InputAgent.logStackTrace(t);
+		Simulation.exit(EXIT_RUNTIME_ERROR);
+	}
+}
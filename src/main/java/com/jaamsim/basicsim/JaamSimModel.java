@@ -18,14 +18,140 @@ package com.jaamsim.basicsim;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicLong;
 
-public class JaamSimModel {
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventOwner;
+import com.jaamsim.input.InputAgentState;
+
+/**
+ * JaamSimModel holds the state of a single simulation model: its entities, the named-entity
+ * map, the EventManager that executes its events, its Simulation entity, and the InputAgent
+ * state for its configuration file, error counts, RecordEdits mode and report files.
+ * <p>
+ * Several models can exist in the same JVM. The model used by new entities and by the static
+ * Entity lookup methods is resolved in the following order:
+ * <ul>
+ * <li>1 - the model that owns the EventManager of the present Process
+ * <li>2 - the model bound to the calling thread by setThreadModel
+ * <li>3 - the default model
+ * </ul>
+ * The model is found from its EventManager's owner, so a model that is no longer referenced is
+ * garbage collected whether or not it has been closed.
+ * <p>
+ * Several models can be loaded from configuration files and run at the same time, provided
+ * each one is loaded on a thread bound to it by setThreadModel. The command line options held
+ * by InputAgent, the model name and the preferred units are shared by every model in the JVM.
+ */
+public class JaamSimModel implements EventOwner {
+	private static final ThreadLocal<JaamSimModel> threadModel = new ThreadLocal<>();
+	private static final JaamSimModel defaultModel = new JaamSimModel("DefaultEventManager");
+
+	private final EventManager eventManager;
 	private final AtomicLong entityCount = new AtomicLong(0);
-	private final ArrayList<Entity> allInstances = new ArrayList<>(100);
 	private final HashMap<String, Entity> namedEntities = new HashMap<>(100);
 
-	public JaamSimModel() {
+	// All the entities in the model and the entities of each class, in order of entity number
+	private final Object entityLock = new Object();
+	private final EntityList allEntities = new EntityList(false);
+	private final HashMap<Class<?>, EntityList> classEntities = new HashMap<>();
+	private final HashMap<Class<?>, EntityList[]> clonesOfLists = new HashMap<>();
+	private int classVersion; // incremented each time a class is added to classEntities
+	private final HashMap<Entity, EntityPool> entityPools = new HashMap<>();
+	private GUIListener gui;  // user interface for the model, or null if it is run headless
+	private Simulation simulation; // Simulation entity for the model, or null if none exists
+	private final InputAgentState inputAgentState = new InputAgentState();
+
+	public JaamSimModel(String name) {
+		eventManager = new EventManager(name);
+		eventManager.setOwner(this);
+	}
+
+	/**
+	 * Returns the model that is in use by the calling thread.
+	 */
+	public static final JaamSimModel getJaamSimModel() {
+		if (EventManager.hasCurrent()) {
+			EventOwner owner = EventManager.current().getOwner();
+			if (owner != null)
+				return (JaamSimModel) owner;
+		}
+
+		JaamSimModel ret = threadModel.get();
+		if (ret != null)
+			return ret;
+
+		return defaultModel;
+	}
+
+	/**
+	 * Returns the model that is used when no other model has been selected.
+	 */
+	public static final JaamSimModel getDefaultModel() {
+		return defaultModel;
+	}
+
+	/**
+	 * Binds the specified model to the calling thread, for example while its configuration file
+	 * is being loaded. A null value restores the default model for the thread.
+	 * @param model - model to be used by the calling thread
+	 */
+	public static final void setThreadModel(JaamSimModel model) {
+		if (model == null) {
+			threadModel.remove();
+			return;
+		}
+		threadModel.set(model);
+	}
+
+	/**
+	 * Releases the model's EventManager so that it no longer resolves to this model.
+	 */
+	public final void close() {
+		eventManager.pause();
+		eventManager.setOwner(null);
+	}
+
+	@Override
+	public final EventManager getEventManager() {
+		return eventManager;
+	}
+
+	/**
+	 * Returns the Simulation entity for the model, or null if it has not been defined.
+	 */
+	public final Simulation getSimulation() {
+		synchronized (entityLock) {
+			return simulation;
+		}
+	}
+
+	/**
+	 * Returns the InputAgent state for the model.
+	 */
+	public final InputAgentState getInputAgentState() {
+		return inputAgentState;
+	}
+
+	/**
+	 * Sets the user interface that is to be notified of changes to the model.
+	 * @param l - user interface, or null if the model is to be run headless.
+	 */
+	public final void setGUIListener(GUIListener l) {
+		gui = l;
+	}
+
+	/**
+	 * Returns the user interface for the model, or null if the model is run headless.
+	 */
+	public final GUIListener getGUIListener() {
+		return gui;
+	}
+
+	@Override
+	public String toString() {
+		return eventManager.name;
 	}
 
 	final long getNextEntityID() {
@@ -33,63 +159,117 @@ public class JaamSimModel {
 	}
 
 	public final Entity getNamedEntity(String name) {
-		synchronized (allInstances) {
+		synchronized (entityLock) {
 			return namedEntities.get(name);
 		}
 	}
 
 	public final long getEntitySequence() {
-		long seq = (long)allInstances.size() << 32;
+		long seq = (long)allEntities.size() << 32;
 		seq += entityCount.get();
 		return seq;
 	}
 
-	private final int idToIndex(long id) {
-		int lowIdx = 0;
-		int highIdx = allInstances.size() - 1;
+	public final Entity idToEntity(long id) {
+		synchronized (entityLock) {
+			return allEntities.idToEntity(id);
+		}
+	}
 
-		while (lowIdx <= highIdx) {
-			int testIdx = (lowIdx + highIdx) >>> 1; // Avoid sign extension
-			long testNum = allInstances.get(testIdx).getEntityNumber();
+	/**
+	 * Returns a snapshot of the entities in the model, in order of entity number. Entities added
+	 * or removed after the call do not change the list.
+	 */
+	public final ArrayList<? extends Entity> getEntities() {
+		synchronized (entityLock) {
+			ArrayList<Entity> ret = new ArrayList<>(allEntities.size());
+			allEntities.addTo(ret);
+			return ret;
+		}
+	}
 
-			if (testNum < id) {
-				lowIdx = testIdx + 1;
-				continue;
-			}
+	/**
+	 * Returns the largest entity number in the model, or zero if the model has no entities.
+	 */
+	public final long getLastEntityNumber() {
+		synchronized (entityLock) {
+			Entity last = allEntities.getLast();
+			if (last == null)
+				return 0;
+			return last.getEntityNumber();
+		}
+	}
 
-			if (testNum > id) {
-				highIdx = testIdx - 1;
-				continue;
-			}
+	/**
+	 * Returns the number of entities in the model.
+	 */
+	public final int getEntityCount() {
+		return allEntities.size();
+	}
 
-			return testIdx;
-		}
+	final int getClassVersion() {
+		return classVersion;
+	}
 
-		// Entity number not found
-		return -(lowIdx + 1);
+	/**
+	 * Returns the lists of entities for the classes accepted by the specified iterator.
+	 */
+	final EntityList[] getClassLists(EntityIterator<?> itr) {
+		synchronized (entityLock) {
+			ArrayList<EntityList> ret = new ArrayList<>();
+			for (Entry<Class<?>, EntityList> each : classEntities.entrySet()) {
+				if (itr.matches(each.getKey()))
+					ret.add(each.getValue());
+			}
+			return ret.toArray(new EntityList[ret.size()]);
+		}
 	}
 
-	public final Entity idToEntity(long id) {
-		synchronized (allInstances) {
-			int idx = this.idToIndex(id);
-			if (idx < 0)
-				return null;
+	/**
+	 * Returns the lists of entities for the specified class and its sub-classes.
+	 */
+	final EntityList[] getClonesOfLists(ClonesOfIterable<?> itr) {
+		synchronized (entityLock) {
+			// Every entity is accepted, so the list of all entities is walked directly instead
+			// of merging the lists for each class
+			if (itr.entClass == Entity.class)
+				return new EntityList[] { allEntities };
 
-			return allInstances.get(idx);
+			EntityList[] ret = clonesOfLists.get(itr.entClass);
+			if (ret == null) {
+				ret = getClassLists(itr);
+				clonesOfLists.put(itr.entClass, ret);
+			}
+			return ret;
 		}
 	}
 
-	public final ArrayList<? extends Entity> getEntities() {
-		synchronized(allInstances) {
-			return allInstances;
+	/**
+	 * Returns the index of the first slot in the list that follows the specified entity number.
+	 */
+	final int getSlotAfter(EntityList list, long id) {
+		synchronized (entityLock) {
+			return list.getSlotAfter(id);
+		}
+	}
+
+	private final EntityList getClassList(Class<?> klass) {
+		EntityList ret = classEntities.get(klass);
+		if (ret == null) {
+			ret = new EntityList(true);
+			classEntities.put(klass, ret);
+			clonesOfLists.clear();
+			classVersion++;
 		}
+		return ret;
 	}
 
 	final void renameEntity(Entity e, String newName) {
-		synchronized (allInstances) {
+		synchronized (entityLock) {
 			// Generated Entities do not appear in the named entity hashmap, no consistency checks needed
 			if (e.testFlag(Entity.FLAG_GENERATED)) {
 				e.entityName = newName;
+				e.generatedName = null;
 				return;
 			}
 
@@ -106,29 +286,31 @@ public class JaamSimModel {
 	}
 
 	final void addInstance(Entity e) {
-		synchronized(allInstances) {
-			allInstances.add(e);
+		synchronized (entityLock) {
+			allEntities.add(e);
+			getClassList(e.getClass()).add(e);
+			if (simulation == null && e instanceof Simulation)
+				simulation = (Simulation) e;
 		}
 	}
 
 	final void restoreInstance(Entity e) {
-		synchronized(allInstances) {
-			int index = idToIndex(e.getEntityNumber());
-			if (index >= 0) {
-				throw new ErrorException("Entity already included in allInstances: %s", e);
-			}
-			allInstances.add(-index - 1, e);
+		synchronized (entityLock) {
+			if (!allEntities.restore(e))
+				throw new ErrorException("Entity already included in the model: %s", e);
+			getClassList(e.getClass()).restore(e);
+			if (simulation == null && e instanceof Simulation)
+				simulation = (Simulation) e;
 		}
 	}
 
 	final void removeInstance(Entity e) {
-		synchronized (allInstances) {
-			int index = idToIndex(e.getEntityNumber());
-			if (index < 0)
+		synchronized (entityLock) {
+			if (!allEntities.remove(e))
 				return;
-
-			if (e != allInstances.remove(index))
-				throw new ErrorException("Internal Consistency Error - Entity List");
+			getClassList(e.getClass()).remove(e);
+			if (e == simulation)
+				simulation = null;
 
 			if (!e.testFlag(Entity.FLAG_GENERATED)) {
 				if (e != namedEntities.remove(e.entityName))
@@ -136,7 +318,98 @@ public class JaamSimModel {
 			}
 
 			e.entityName = null;
+			e.generatedName = null;
 			e.setFlag(Entity.FLAG_DEAD);
 		}
 	}
+
+	/**
+	 * Marks a generated entity so that recycle() returns it to the pool for its prototype.
+	 */
+	public final void setEntityPool(Entity e, Entity proto) {
+		e.poolProto = proto;
+	}
+
+	final void poolEntity(Entity e) {
+		if (e.poolProto == null)
+			return;
+
+		synchronized (entityLock) {
+			EntityPool pool = entityPools.get(e.poolProto);
+			if (pool == null) {
+				pool = new EntityPool();
+				entityPools.put(e.poolProto, pool);
+				e.poolProto.hasPool = true;
+			}
+			pool.add(e);
+		}
+	}
+
+	/**
+	 * Returns an entity from the pool for the specified prototype to the model, or returns null
+	 * if the pool is empty. The entity is given a new entity number so that references to its
+	 * previous use are not resolved by idToEntity, and a new generation so that a reference
+	 * that is still held reports an error when it is used. Its name must be set by the caller.
+	 */
+	public final <T extends Entity> T reuseEntity(T proto) {
+		synchronized (entityLock) {
+			if (entityPools.isEmpty())
+				return null;
+
+			EntityPool pool = entityPools.get(proto);
+			if (pool == null)
+				return null;
+
+			Entity e = pool.take();
+			if (e == null)
+				return null;
+
+			e.setEntityNumber(getNextEntityID());
+			e.generation++;
+			allEntities.add(e);
+			getClassList(e.getClass()).add(e);
+			e.clearFlag(Entity.FLAG_DEAD);
+
+			@SuppressWarnings("unchecked")
+			T ret = (T) e;
+			return ret;
+		}
+	}
+
+	/**
+	 * Discards the entities kept for the specified prototype, for example because its inputs
+	 * have been changed.
+	 */
+	public final void clearEntityPool(Entity proto) {
+		if (!proto.hasPool)
+			return;
+
+		synchronized (entityLock) {
+			entityPools.remove(proto);
+			proto.hasPool = false;
+		}
+	}
+
+	/**
+	 * Stops the re-use of entities whose inputs may no longer match after an input to the
+	 * specified entity has been changed. The copies kept for the entity are discarded, and the
+	 * entity itself is no longer kept for re-use when it is recycled.
+	 */
+	public final void entityInputChanged(Entity e) {
+		clearEntityPool(e);
+		if (e.poolProto != null)
+			e.poolProto = null;
+	}
+
+	/**
+	 * Discards the entities kept for all prototypes.
+	 */
+	public final void clearEntityPools() {
+		synchronized (entityLock) {
+			for (Entity proto : entityPools.keySet()) {
+				proto.hasPool = false;
+			}
+			entityPools.clear();
+		}
+	}
 }
@@ -0,0 +1,94 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * Log holds the text shown by the Log Viewer. It does not depend on the user interface, so that
+ * messages can be logged by a headless run without loading the Swing classes.
+ */
+public class Log {
+
+	/**
+	 * Receives each line that is added to the log.
+	 */
+	public interface LogListener {
+		public void logLine(String line);
+	}
+
+	private static final Object logLock = new Object();
+	private static final StringBuilder logBuilder = new StringBuilder();
+	private static LogListener listener;
+
+	/**
+	 * Sets the object that is to receive each line added to the log.
+	 * @param l - listener, or null if none is required.
+	 */
+	public static void setListener(LogListener l) {
+		synchronized (logLock) {
+			listener = l;
+		}
+	}
+
+	/**
+	 * Returns the present contents of the log.
+	 */
+	public static String getText() {
+		synchronized (logLock) {
+			return logBuilder.toString();
+		}
+	}
+
+	/**
+	 * log a formated string, effectively wrapping String.format
+	 * @param format
+	 * @param args
+	 */
+	public static void format(String format, Object... args) {
+		logLine(String.format(format, args));
+	}
+
+	public static void logLine(String logLine) {
+		LogListener l;
+		synchronized (logLock) {
+			logBuilder.append(logLine).append("\n");
+			l = listener;
+		}
+
+		if (l != null)
+			l.logLine(logLine);
+	}
+
+	/**
+	 * Effectively prints the stack trace of 'ex' to the log
+	 * @param ex
+	 */
+	public static void logException(Throwable ex) {
+		StringWriter sw = new StringWriter();
+		PrintWriter pw = new PrintWriter(sw);
+		ex.printStackTrace(pw);
+		pw.flush();
+
+		String stackTrace = sw.toString();
+		logLine(stackTrace);
+
+		System.err.println(stackTrace);
+	}
+
+}
@@ -0,0 +1,197 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.jaamsim.BasicObjects.Logger;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.states.StateEntity;
+import com.jaamsim.ui.GUIFrame;
+
+/**
+ * ParallelRunner executes the simulation runs StartingRunNumber to EndingRunNumber on all the
+ * available processor cores.
+ * <p>
+ * Each block of consecutive runs is executed by a separate worker JVM that loads the same
+ * configuration file in headless script mode, so that the runs do not share the state that is
+ * still static, such as the preferred units. Each worker writes its selected outputs to a
+ * temporary file, rather than to standard out, and the outputs are collected and written in
+ * run number order.
+ */
+public class ParallelRunner {
+
+	// System property that gives a worker process the file for its selected outputs
+	private static final String WORKER_OUTPUT = "jaamsim.workerOutput";
+
+	private final File configFile;
+	private final int firstRun;
+	private final int lastRun;
+	private final int numWorkers;
+
+	public ParallelRunner(File file, int first, int last, int workers) {
+		configFile = file;
+		firstRun = first;
+		lastRun = last;
+		numWorkers = Math.max(1, Math.min(workers, last - first + 1));
+	}
+
+	/**
+	 * Returns true if the model inputs allow the runs to be executed in separate processes.
+	 * Files that are written by each run, such as the output report, log files, and state
+	 * traces, would be overwritten by the other workers. Entity traces are printed to standard
+	 * out.
+	 */
+	public static boolean isSupported() {
+		if (InputAgent.isScriptMode() || InputAgent.getConfigFile() == null)
+			return false;
+		if (Simulation.getPrintReport() || Simulation.traceEvents() || Simulation.verifyEvents())
+			return false;
+
+		for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
+			if (each instanceof Logger || each instanceof EntityTracer || each.isTraceFlag())
+				return false;
+			if (each instanceof StateEntity && ((StateEntity) each).isTraceState())
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the file for the selected outputs if this JVM is a worker process, or null if
+	 * it is not.
+	 */
+	public static File getWorkerOutputFile() {
+		String path = System.getProperty(WORKER_OUTPUT);
+		if (path == null)
+			return null;
+		return new File(path);
+	}
+
+	/**
+	 * Executes the runs and returns the selected outputs for each run in run number order.
+	 * @return lines of tab separated outputs, one line per run.
+	 * @throws ErrorException if a worker process fails.
+	 */
+	public ArrayList<String> execute() {
+		ExecutorService pool = Executors.newFixedThreadPool(numWorkers);
+		try {
+			// Divide the runs into one block of consecutive run numbers per worker
+			ArrayList<Future<ArrayList<String>>> results = new ArrayList<>(numWorkers);
+			int numRuns = lastRun - firstRun + 1;
+			int start = firstRun;
+			for (int i = 0; i < numWorkers; i++) {
+				int n = numRuns/numWorkers + (i < numRuns % numWorkers ? 1 : 0);
+				results.add(pool.submit(new WorkerTask(start, start + n - 1)));
+				start += n;
+			}
+
+			// Collect the outputs in run number order
+			ArrayList<String> ret = new ArrayList<>(numRuns);
+			for (Future<ArrayList<String>> res : results) {
+				ret.addAll(res.get());
+			}
+			return ret;
+		}
+		catch (ExecutionException e) {
+			throw new ErrorException(e.getCause().getMessage());
+		}
+		catch (InterruptedException e) {
+			throw new ErrorException("Parallel runs were interrupted");
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private ArrayList<String> getWorkerCommand(File output) {
+		ArrayList<String> cmd = new ArrayList<>();
+		cmd.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		cmd.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		cmd.add("-D" + WORKER_OUTPUT + "=" + output.getAbsolutePath());
+		cmd.add("-cp");
+		cmd.add(System.getProperty("java.class.path"));
+		cmd.add(GUIFrame.class.getName());
+		cmd.add(configFile.getAbsolutePath());
+		cmd.add("-headless");
+		cmd.add("-script");
+		if (InputAgent.isCompiledConfig())
+			cmd.add("-compiled");
+		return cmd;
+	}
+
+	private class WorkerTask implements Callable<ArrayList<String>> {
+		private final int start;
+		private final int end;
+
+		WorkerTask(int first, int last) {
+			start = first;
+			end = last;
+		}
+
+		@Override
+		public ArrayList<String> call() throws IOException, InterruptedException {
+			File output = File.createTempFile("jaamsim-runs", ".dat");
+			try {
+				ProcessBuilder pb = new ProcessBuilder(getWorkerCommand(output));
+				pb.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+				pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+				Process proc = pb.start();
+
+				// Restrict the worker to its block of runs
+				try (Writer in = new OutputStreamWriter(proc.getOutputStream())) {
+					in.write(String.format("Simulation StartingRunNumber { %d }%n", start));
+					in.write(String.format("Simulation EndingRunNumber { %d }%n", end));
+				}
+
+				int code = proc.waitFor();
+				if (code != 0)
+					throw new IOException(String.format("Worker process for runs %d to %d exited with code %d",
+							start, end, code));
+
+				// Read the selected outputs, skipping the two header lines
+				ArrayList<String> rows = new ArrayList<>(end - start + 1);
+				try (BufferedReader out = new BufferedReader(new InputStreamReader(new FileInputStream(output)))) {
+					int numLines = 0;
+					String line;
+					while ((line = out.readLine()) != null) {
+						numLines++;
+						if (numLines > 2)
+							rows.add(line);
+					}
+				}
+				return rows;
+			}
+			finally {
+				output.delete();
+			}
+		}
+	}
+}
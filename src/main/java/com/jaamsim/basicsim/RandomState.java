@@ -0,0 +1,131 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.jaamsim.rng.MRG1999a;
+
+/**
+ * The states of the random number generators held by the named entities of a model, such as
+ * its probability distributions. The states are saved by entity name, so that they can be
+ * restored to a second model loaded from the same configuration file.
+ * <p>
+ * This is only part of a snapshot of a running model. The following are not saved, and there is
+ * no way to restore a model into a fresh EventManager part way through a run:
+ * <ul>
+ * <li>the entities and the values of their fields, including any generated entities
+ * <li>the contents of the future event list and the conditional events
+ * <li>the pending ProcessTargets, whose Process threads may be blocked part way through a method
+ * <li>the statistics collected by each entity
+ * </ul>
+ * The second model must therefore reach the same point in the simulation by re-simulating it.
+ */
+public class RandomState {
+	private static final ConcurrentHashMap<Class<?>, Field[]> rngFields = new ConcurrentHashMap<>();
+
+	private final HashMap<String, MRG1999a[]> states = new HashMap<>();
+
+	private RandomState() {}
+
+	/**
+	 * Returns a copy of the present state of each generator held by the model's named entities.
+	 */
+	public static RandomState save(JaamSimModel model) {
+		RandomState ret = new RandomState();
+		for (Entity ent : model.getEntities()) {
+			if (ent.testFlag(Entity.FLAG_GENERATED))
+				continue;
+
+			Field[] fields = getGeneratorFields(ent.getClass());
+			if (fields.length == 0)
+				continue;
+
+			MRG1999a[] rngs = new MRG1999a[fields.length];
+			for (int i = 0; i < fields.length; i++) {
+				rngs[i] = new MRG1999a(getGenerator(fields[i], ent));
+			}
+			ret.states.put(ent.getName(), rngs);
+		}
+		return ret;
+	}
+
+	/**
+	 * Sets each generator held by the model's named entities to its saved state.
+	 * @throws ErrorException if an entity with generators was not present when the states were saved
+	 */
+	public void restore(JaamSimModel model) {
+		for (Entity ent : model.getEntities()) {
+			if (ent.testFlag(Entity.FLAG_GENERATED))
+				continue;
+
+			Field[] fields = getGeneratorFields(ent.getClass());
+			if (fields.length == 0)
+				continue;
+
+			MRG1999a[] rngs = states.get(ent.getName());
+			if (rngs == null || rngs.length != fields.length)
+				throw new ErrorException("No random generator state was saved for %s", ent.getName());
+
+			for (int i = 0; i < fields.length; i++) {
+				getGenerator(fields[i], ent).copyFrom(rngs[i]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of entities whose generators were saved.
+	 */
+	public int size() {
+		return states.size();
+	}
+
+	private static MRG1999a getGenerator(Field f, Entity ent) {
+		try {
+			return (MRG1999a) f.get(ent);
+		}
+		catch (IllegalAccessException e) {
+			throw new ErrorException(e);
+		}
+	}
+
+	/**
+	 * Returns the instance fields of the class and its super-classes that hold an MRG1999a.
+	 */
+	private static Field[] getGeneratorFields(Class<?> klass) {
+		Field[] ret = rngFields.get(klass);
+		if (ret != null)
+			return ret;
+
+		ArrayList<Field> list = new ArrayList<>();
+		for (Class<?> c = klass; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Field f : c.getDeclaredFields()) {
+				if (Modifier.isStatic(f.getModifiers()) || f.getType() != MRG1999a.class)
+					continue;
+				f.setAccessible(true);
+				list.add(f);
+			}
+		}
+		ret = list.toArray(new Field[list.size()]);
+		rngFields.put(klass, ret);
+		return ret;
+	}
+}
@@ -16,41 +16,64 @@
  */
 package com.jaamsim.basicsim;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.jaamsim.events.ProcessTarget;
 
 public class ReflectionTarget extends ProcessTarget {
 	private final Entity target; // The entity whose method is to be executed
 	private final Method method; // The method to be executed
+	private final MethodHandle handle; // Invokes the method with the target and an argument array
 	private final Object[] arguments; // The arguments passed to the method to be executed
 
+	// Handles are shared by every target that executes the same method
+	private static final ConcurrentHashMap<Method, MethodHandle> handleCache = new ConcurrentHashMap<>();
+
 	public ReflectionTarget(Entity ent, String methodName, Object... arguments) {
 		target = ent;
 		method = findEntityMethod(target.getClass(), methodName, arguments);
+		handle = getHandle(method);
 		this.arguments = arguments;
 	}
 
 	@Override
 	public void process() {
 		try {
-			method.invoke(target, arguments);
-		}
-		// Normal exceptions thrown by the method called by invoke are wrapped
-		catch (InvocationTargetException e) {
-			Throwable cause = e.getCause();
-			if (cause instanceof RuntimeException)
-				throw (RuntimeException)cause;
-			else
-				throw new ErrorException(cause);
+			handle.invokeExact((Object)target, arguments);
 		}
-		catch (IllegalArgumentException e) {
+		// Normal exceptions thrown by the method are passed on unchanged
+		catch (RuntimeException | Error e) {
 			throw e;
 		}
+		catch (Throwable e) {
+			throw new ErrorException(e);
+		}
+	}
+
+	/**
+	 * Returns a MethodHandle of type (Object, Object[])void that calls the given method.
+	 * Primitive arguments are unboxed by the handle in the same way as Method.invoke().
+	 */
+	private static MethodHandle getHandle(Method m) {
+		MethodHandle ret = handleCache.get(m);
+		if (ret != null)
+			return ret;
+
+		try {
+			int numArgs = m.getParameterTypes().length;
+			ret = MethodHandles.publicLookup().unreflect(m)
+					.asType(MethodType.genericMethodType(numArgs + 1).changeReturnType(void.class))
+					.asSpreader(Object[].class, numArgs);
+		}
 		catch (IllegalAccessException e) {
 			throw new ErrorException(e);
 		}
+		handleCache.put(m, ret);
+		return ret;
 	}
 
 	@Override
@@ -22,17 +22,18 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 
-import javax.swing.JFrame;
-
 import com.jaamsim.Samples.SampleConstant;
+import com.jaamsim.Samples.SampleExpression;
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.StringProviders.StringProvListInput;
 import com.jaamsim.datatypes.IntegerVector;
 import com.jaamsim.events.Conditional;
+import com.jaamsim.events.EventListType;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.DirInput;
 import com.jaamsim.input.EntityListInput;
+import com.jaamsim.input.EnumInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.IntegerListInput;
@@ -43,15 +44,8 @@ import com.jaamsim.input.UnitTypeListInput;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.math.Vec3d;
 import com.jaamsim.ui.AboutBox;
-import com.jaamsim.ui.EditBox;
-import com.jaamsim.ui.EntityPallet;
 import com.jaamsim.ui.EventViewer;
-import com.jaamsim.ui.FrameBox;
 import com.jaamsim.ui.GUIFrame;
-import com.jaamsim.ui.LogBox;
-import com.jaamsim.ui.ObjectSelector;
-import com.jaamsim.ui.OutputBox;
-import com.jaamsim.ui.PropertyBox;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.DistanceUnit;
 import com.jaamsim.units.TimeUnit;
@@ -69,7 +63,7 @@ public class Simulation extends Entity {
 	// Key Inputs tab
 	@Keyword(description = "The duration of the simulation run in which all statistics will be recorded.",
 	         exampleList = {"8760 h"})
-	private static final ValueInput runDuration;
+	private final ValueInput runDuration;
 
 	@Keyword(description = "The initialization interval for the simulation run. The model will "
 	                     + "run for the InitializationDuration interval and then clear the "
@@ -77,11 +71,11 @@ public class Simulation extends Entity {
 	                     + "The total length of the simulation run will be the sum of the "
 	                     + "InitializationDuration and RunDuration inputs.",
 	         exampleList = {"720 h"})
-	private static final ValueInput initializationTime;
+	private final ValueInput initializationTime;
 
 	@Keyword(description = "An optional expression that pauses the run when TRUE is returned.",
 	         exampleList = {"'[Queue1].QueueLength > 20'"})
-	private static final SampleInput pauseConditionInput;
+	private final SampleInput pauseConditionInput;
 
 	@Keyword(description = "If TRUE, the simulation run will be terminated when the "
 	                     + "PauseCondition expression returns TRUE. If multiple runs have been "
@@ -89,12 +83,12 @@ public class Simulation extends Entity {
 	                     + "been specified, the simulation will be paused or terminated "
 	                     + "depending on the input to the ExitAtStop keyword.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput exitAtPauseCondition;
+	private final BooleanInput exitAtPauseCondition;
 
 	@Keyword(description = "If TRUE, the program will be closed on completion of the last "
 	                     + "simulation run. Otherwise, the last run will be paused.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput exitAtStop;
+	private final BooleanInput exitAtStop;
 
 	@Keyword(description = "Global seed that sets the substream for each probability "
 	                     + "distribution. Must be an integer >= 0. GlobalSubstreamSeed works "
@@ -105,22 +99,22 @@ public class Simulation extends Entity {
 	                     + "and then set the GlobalSubstreamSeed input to the run number or to "
 	                     + "one of the run indices.",
 	         exampleList = {"5", "[Simulation].RunNumber", "[Simulation].RunIndex(3)"})
-	private static final SampleInput globalSeedInput;
+	private final SampleInput globalSeedInput;
 
 	@Keyword(description = "If TRUE, a full output report is printed to the file "
 	                     + "<configuration file name>.rep at the end of the simulation run.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput printReport;
+	private final BooleanInput printReport;
 
 	@Keyword(description = "The directory in which to place the output report. Defaults to the "
 	                     + "directory containing the configuration file for the run.",
 	         exampleList = {"'c:/reports/'"})
-	private static final DirInput reportDirectory;
+	private final DirInput reportDirectory;
 
 	@Keyword(description = "The unit types for the selected outputs for the simulation run. "
 	                     + "Use DimensionlessUnit for a text output.",
 	         exampleList = {"DistanceUnit  SpeedUnit"})
-	private static final UnitTypeListInput unitTypeList;
+	private final UnitTypeListInput unitTypeList;
 
 	@Keyword(description = "One or more selected outputs to be printed at the end of each "
 	                     + "simulation run. Each output is specified by an expression. In script "
@@ -128,11 +122,11 @@ public class Simulation extends Entity {
 	                     + "(standard out). Otherwise, they are printed to the file "
 	                     + "<configuration file name>.dat.",
 	         exampleList = {"{ [Entity1].Out1 } { [Entity2].Out2 }"})
-	protected static final StringProvListInput runOutputList;
+	protected final StringProvListInput runOutputList;
 
 	@Keyword(description = "The length of time represented by one simulation tick.",
 	         exampleList = {"1e-6 s"})
-	private static final ValueInput tickLengthInput;
+	private final ValueInput tickLengthInput;
 
 	// Multiple Runs tab
 	@Keyword(description = "Defines the number of run indices and the maximum value N for each "
@@ -142,7 +136,7 @@ public class Simulation extends Entity {
 	                     + "indices are defined with ranges of 3, 5, and 10, then at total of "
 	                     + "3*5*10 = 150 runs will be executed.",
 	         exampleList = {"3 5 10"})
-	private static final IntegerListInput runIndexDefinitionList;
+	private final IntegerListInput runIndexDefinitionList;
 
 	@Keyword(description = "The first run number to be executed. The value can be entered as "
 	                     + "either an integer or as the equivalent combination of run indices. "
@@ -150,7 +144,7 @@ public class Simulation extends Entity {
 	                     + "3, 5, and 10, then run number 22 can be expressed as 1-3-2 because "
 	                     + "22 = (1-1)*5*10 + (3-1)*10 + 2.",
 	         exampleList = {"22", "1-3-2"})
-	private static final RunNumberInput startingRunNumber;
+	private final RunNumberInput startingRunNumber;
 
 	@Keyword(description = "The last run number to be executed. The value can be entered as "
 	                     + "either an integer or as the equivalent combination of run indices. "
@@ -158,36 +152,36 @@ public class Simulation extends Entity {
 	                     + "3, 5, and 10, then run number 78 can be expressed as 2-3-8 because "
 	                     + "78 = (2-1)*5*10 + (3-1)*10 + 8.",
 	         exampleList = {"78", "2-3-8"})
-	private static final RunNumberInput endingRunNumber;
+	private final RunNumberInput endingRunNumber;
 
 	// GUI tab
 	@Keyword(description = "An optional list of units to be used for displaying model outputs.",
 	         exampleList = {"h kt"})
-	private static final EntityListInput<? extends Unit> displayedUnits;
+	private final EntityListInput<? extends Unit> displayedUnits;
 
 	@Keyword(description = "If TRUE, a dragged object will be positioned to the nearest grid "
 	                     + "point.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput snapToGrid;
+	private final BooleanInput snapToGrid;
 
 	@Keyword(description = "The distance between snap grid points.",
 	         exampleList = {"1 m"})
-	private static final ValueInput snapGridSpacing;
+	private final ValueInput snapGridSpacing;
 
 	@Keyword(description = "The distance moved by the selected entity when the an arrow key is "
 	                     + "pressed.",
 	         exampleList = {"1 cm"})
-	private static final ValueInput incrementSize;
+	private final ValueInput incrementSize;
 
 	@Keyword(description = "If TRUE, the simulation is executed a constant multiple of real time. "
 	                     + "Otherwise, the run is executed as fast as possible, limited only by "
 	                     + "processor speed.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput realTime;
+	private final BooleanInput realTime;
 
 	@Keyword(description = "The target ratio of elapsed simulation time to elapsed real time.",
 	         exampleList = {"1200"})
-	private static final ValueInput realTimeFactor;
+	private final ValueInput realTimeFactor;
 
 	public static final double DEFAULT_REAL_TIME_FACTOR = 1;
 	public static final double MIN_REAL_TIME_FACTOR = 1e-6;
@@ -195,66 +189,72 @@ public class Simulation extends Entity {
 
 	@Keyword(description = "The time at which the simulation will be paused.",
 	         exampleList = {"200 h"})
-	private static final ValueInput pauseTime;
+	private final ValueInput pauseTime;
 
 	@Keyword(description = "If TRUE, the Model Builder tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showModelBuilder;
+	private final BooleanInput showModelBuilder;
 
 	@Keyword(description = "If TRUE, the Object Selector tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showObjectSelector;
+	private final BooleanInput showObjectSelector;
 
 	@Keyword(description = "If TRUE, the Input Editor tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showInputEditor;
+	private final BooleanInput showInputEditor;
 
 	@Keyword(description = "If TRUE, the Output Viewer tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showOutputViewer;
+	private final BooleanInput showOutputViewer;
 
 	@Keyword(description = "If TRUE, the Property Viewer tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showPropertyViewer;
+	private final BooleanInput showPropertyViewer;
 
 	@Keyword(description = "If TRUE, the Log Viewer tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showLogViewer;
+	private final BooleanInput showLogViewer;
 
 	@Keyword(description = "If TRUE, the Event Viewer tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showEventViewer;
+	private final BooleanInput showEventViewer;
 
 	@Keyword(description = "Time at which the simulation run is started (hh:mm).",
 	         exampleList = {"2160 h"})
-	private static final ValueInput startTimeInput;
+	private final ValueInput startTimeInput;
 
 	// Hidden keywords
 	@Keyword(description = "If TRUE, then the input report file will be printed after loading "
 	                     + "the configuration file.  The input report can always be generated "
 	                     + "when needed by selecting \"Print Input Report\" under the File menu.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput printInputReport;
+	private final BooleanInput printInputReport;
 
 	@Keyword(description = "This is placeholder description text",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput traceEventsInput;
+	private final BooleanInput traceEventsInput;
 
 	@Keyword(description = "This is placeholder description text",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput verifyEventsInput;
+	private final BooleanInput verifyEventsInput;
 
-	private static double startTime; // simulation time (seconds) for the start of the run (not necessarily zero)
-	private static double endTime;   // simulation time (seconds) for the end of the run
-	private static int runNumber;    // labels each run when multiple runs are being made
-	private static IntegerVector runIndexList;
+	@Keyword(description = "The data structure used to hold the future events. A CALENDAR_QUEUE "
+	                     + "can be faster than the default RED_BLACK_TREE for models with a "
+	                     + "large number of pending events.",
+	         exampleList = {"CALENDAR_QUEUE"})
+	private final EnumInput<EventListType> eventListInput;
 
-	private static Simulation myInstance;
+	private double startTime; // simulation time (seconds) for the start of the run (not necessarily zero)
+	private double endTime;   // simulation time (seconds) for the end of the run
+	private int runNumber;    // labels each run when multiple runs are being made
+	private IntegerVector runIndexList;
 
-	private static String modelName = "JaamSim";
+	// Holds the default inputs that are used when the present model has no Simulation entity
+	private static final Simulation defaults = new Simulation(new JaamSimModel("SimulationDefaults"));
 
-	static {
+	private static String modelName = "JaamSim";
 
+	{
 		// Key Inputs tab
 		runDuration = new ValueInput("RunDuration", "Key Inputs", 31536000.0d);
 		runDuration.setUnitType(TimeUnit.class);
@@ -371,15 +371,15 @@ public class Simulation extends Entity {
 
 		printInputReport = new BooleanInput("PrintInputReport", "Key Inputs", false);
 
+		eventListInput = new EnumInput<>(EventListType.class, "EventList", "Key Inputs", EventListType.RED_BLACK_TREE);
+
 		// Initialize basic model information
 		startTime = 0.0;
 		endTime = 8760.0*3600.0;
 		runNumber = 1;
 		runIndexList = new IntegerVector();
 		runIndexList.add(1);
-	}
 
-	{
 		// Key Inputs tab
 		this.addInput(runDuration);
 		this.addInput(initializationTime);
@@ -419,17 +419,19 @@ public class Simulation extends Entity {
 		this.addInput(traceEventsInput);
 		this.addInput(verifyEventsInput);
 		this.addInput(printInputReport);
+		this.addInput(eventListInput);
 
 		// Hide various keywords
 		startTimeInput.setHidden(true);
 		traceEventsInput.setHidden(true);
 		verifyEventsInput.setHidden(true);
 		printInputReport.setHidden(true);
+		eventListInput.setHidden(true);
 
 		// Set the entity corresponding to "this" for keywords that can accept an expression
-		pauseConditionInput.setEntity(Simulation.getInstance());
-		globalSeedInput.setEntity(Simulation.getInstance());
-		runOutputList.setEntity(Simulation.getInstance());
+		pauseConditionInput.setEntity(this);
+		globalSeedInput.setEntity(this);
+		runOutputList.setEntity(this);
 
 		// Set the default unit type for the custom output report
 		ArrayList<Class<? extends Unit>> defList = new ArrayList<>();
@@ -439,29 +441,34 @@ public class Simulation extends Entity {
 
 	public Simulation() {}
 
+	private Simulation(JaamSimModel model) {
+		super(model);
+	}
+
+	/**
+	 * Returns the Simulation entity for the present model, or null if it has not been defined.
+	 */
 	public static Simulation getInstance() {
-		if (myInstance == null) {
-			for (Entity ent : Entity.getClonesOfIterator(Entity.class)) {
-				if (ent instanceof Simulation) {
-					myInstance = (Simulation)ent;
-					break;
-				}
-			}
-		}
-		return myInstance;
+		return JaamSimModel.getJaamSimModel().getSimulation();
+	}
+
+	/**
+	 * Returns the Simulation entity for the present model, or an entity that holds the default
+	 * inputs if the model has none.
+	 */
+	private static Simulation getInputs() {
+		Simulation ret = getInstance();
+		if (ret == null)
+			return defaults;
+		return ret;
 	}
 
 	@Override
 	public void updateForInput( Input<?> in ) {
 		super.updateForInput( in );
 
-		if(in == realTimeFactor || in == realTime) {
-			updateRealTime();
-			return;
-		}
-
-		if (in == pauseTime) {
-			updatePauseTime();
+		if (in == realTimeFactor || in == realTime || in == pauseTime || in == snapToGrid) {
+			updateControls();
 			return;
 		}
 
@@ -476,14 +483,14 @@ public class Simulation extends Entity {
 		}
 
 		if (in == runIndexDefinitionList) {
-			Simulation.setRunNumber(runNumber);
+			this.setRunNumber(runNumber);
 			startingRunNumber.setRunIndexRangeList(runIndexDefinitionList.getValue());
 			endingRunNumber.setRunIndexRangeList(runIndexDefinitionList.getValue());
 			return;
 		}
 
 		if (in == startingRunNumber) {
-			Simulation.setRunNumber(startingRunNumber.getValue());
+			this.setRunNumber(startingRunNumber.getValue());
 			return;
 		}
 
@@ -492,59 +499,12 @@ public class Simulation extends Entity {
 			return;
 		}
 
-		if (in == snapToGrid) {
-			if (GUIFrame.getInstance() != null)
-				GUIFrame.getInstance().updateForSnapToGrid();
-			return;
-		}
-
-		if (in == showModelBuilder) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(EntityPallet.getInstance(), showModelBuilder.getValue());
-			return;
-		}
-
-		if (in == showObjectSelector) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(ObjectSelector.getInstance(), showObjectSelector.getValue());
-			return;
-		}
-
-		if (in == showInputEditor) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(EditBox.getInstance(), showInputEditor.getValue());
-			FrameBox.reSelectEntity();
-			return;
-		}
-
-		if (in == showOutputViewer) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(OutputBox.getInstance(), showOutputViewer.getValue());
-			FrameBox.reSelectEntity();
-			return;
-		}
-
-		if (in == showPropertyViewer) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(PropertyBox.getInstance(), showPropertyViewer.getValue());
-			FrameBox.reSelectEntity();
-			return;
-		}
-
-		if (in == showLogViewer) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(LogBox.getInstance(), showLogViewer.getValue());
-			FrameBox.reSelectEntity();
-			return;
-		}
-
-		if (in == showEventViewer) {
-			if (GUIFrame.getInstance() != null) {
-				if (showEventViewer.getValue())
-					setWindowVisible(EventViewer.getInstance(), true);
-				else if (EventViewer.hasInstance())
-					EventViewer.getInstance().dispose();
-			}
+		if (in == showModelBuilder || in == showObjectSelector || in == showInputEditor
+				|| in == showOutputViewer || in == showPropertyViewer || in == showLogViewer
+				|| in == showEventViewer) {
+			GUIListener gui = getGUIListener();
+			if (gui != null)
+				gui.setToolVisible(in.getKeyword(), ((BooleanInput) in).getValue());
 			return;
 		}
 	}
@@ -573,24 +533,22 @@ public class Simulation extends Entity {
 			inp.reset();
 		}
 
-		updateRealTime();
-
-		// Initialize basic model information
-		startTime = 0.0;
-		endTime = 8760.0*3600.0;
-		myInstance = null;
+		updateControls();
 
 		// close warning/error trace file
 		InputAgent.closeLogFile();
 
-		// Kill all entities except simulation
-		while(Entity.getAll().size() > 0) {
-			Entity ent = Entity.getAll().get(Entity.getAll().size()-1);
-			ent.kill();
+		// Kill all entities, including simulation, which is defined again by autoload.cfg
+		ArrayList<? extends Entity> ents = Entity.getAll();
+		while (!ents.isEmpty()) {
+			for (int i = ents.size() - 1; i >= 0; i--) {
+				Entity ent = ents.get(i);
+				if (!ent.testFlag(Entity.FLAG_DEAD))
+					ent.kill();
+			}
+			ents = Entity.getAll();
 		}
-
-		// Reset the run number and run indices
-		Simulation.setRunNumber(1);
+		JaamSimModel.getJaamSimModel().clearEntityPools();
 	}
 
 	/**
@@ -600,6 +558,8 @@ public class Simulation extends Entity {
 	 *		3) start EventManager processing events
 	 */
 	public static void start(EventManager evt) {
+		Simulation sim = getInstance();
+
 		// Validate each entity based on inputs only
 		for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
 			try {
@@ -607,17 +567,36 @@ public class Simulation extends Entity {
 			}
 			catch (Throwable e) {
 				InputAgent.logMessage("Validation Error - %s: %s", each.getName(), e.getMessage());
-				GUIFrame.showErrorDialog("Input Error",
+				GUIListener gui = getGUIListener();
+				if (gui == null) {
+					if (InputAgent.getBatch())
+						Simulation.exit(HeadlessRunner.EXIT_INPUT_ERROR);
+					return;
+				}
+				gui.showErrorMessage("Input Error",
 						"JaamSim has detected the following input error during validation:",
 						String.format("%s: %-70s", each.getName(), e.getMessage()),
 						"The error must be corrected before the simulation can be started.");
 
-				GUIFrame.updateForSimState(GUIFrame.SIM_STATE_CONFIGURED);
+				gui.updateForSimulationState(GUIFrame.SIM_STATE_CONFIGURED);
+				return;
+			}
+		}
+
+		// Execute multiple runs in batch mode on all the available processors
+		if (InputAgent.isParallelRuns() && InputAgent.getBatch() && Simulation.isMultipleRuns()) {
+			if (ParallelRunner.isSupported()) {
+				Simulation.startParallelRuns();
 				return;
 			}
+			InputAgent.logWarning("Parallel runs are not available in script mode, when the "
+					+ "PrintReport, TraceEvents, or VerifyEvents inputs are used, or when the "
+					+ "model has a Logger, an EntityTracer, a traced entity, or a StateEntity "
+					+ "with TraceState. The runs will be executed sequentially.");
 		}
 
 		InputAgent.prepareReportDirectory();
+		evt.setEventListType(sim.eventListInput.getValue());
 		evt.clear();
 		evt.setTraceListener(null);
 
@@ -631,16 +610,16 @@ public class Simulation extends Entity {
 			EventTracer trc = new EventTracer(evtName);
 			evt.setTraceListener(trc);
 		}
-		else if (Simulation.showEventViewer.getValue()) {
+		else if (sim.showEventViewer.getValue() && getGUIListener() != null) {
 			evt.setTraceListener(EventViewer.getInstance());
 		}
 
-		evt.setTickLength(tickLengthInput.getValue());
+		evt.setTickLength(sim.tickLengthInput.getValue());
 
-		startTime = startTimeInput.getValue();
-		endTime = startTime + Simulation.getInitializationTime() + Simulation.getRunDuration();
+		sim.startTime = sim.startTimeInput.getValue();
+		sim.endTime = sim.startTime + sim.initializationTime.getValue() + sim.runDuration.getValue();
 
-		Simulation.setRunNumber(startingRunNumber.getValue());
+		sim.setRunNumber(sim.startingRunNumber.getValue());
 		Simulation.startRun(evt);
 	}
 
@@ -653,10 +632,35 @@ public class Simulation extends Entity {
 		evt.resume(evt.secondsToNearestTick(Simulation.getPauseTime()));
 	}
 
+	/**
+	 * Executes the runs StartingRunNumber to EndingRunNumber in parallel worker processes and
+	 * prints their selected outputs in run number order.
+	 */
+	private static void startParallelRuns() {
+		Simulation sim = getInstance();
+		InputAgent.prepareReportDirectory();
+		int numWorkers = Runtime.getRuntime().availableProcessors();
+		ParallelRunner runner = new ParallelRunner(InputAgent.getConfigFile(),
+				sim.startingRunNumber.getValue(), sim.endingRunNumber.getValue(), numWorkers);
+		int errorCode = 0;
+		try {
+			ArrayList<String> rows = runner.execute();
+			if (sim.runOutputList.getValue() != null)
+				InputAgent.printRunOutputs(rows);
+		}
+		catch (ErrorException e) {
+			InputAgent.logError("%s", e.getMessage());
+			errorCode = 1;
+		}
+		InputAgent.closeLogFile();
+		Simulation.exit(errorCode);
+	}
+
 	/**
 	 * Ends a single simulation run and if appropriate restarts the model for the next run.
 	 */
 	public static void endRun() {
+		Simulation sim = getInstance();
 
 		// Execute the end of run method for each entity
 		for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
@@ -664,11 +668,11 @@ public class Simulation extends Entity {
 		}
 
 		// Print the output report
-		if (printReport.getValue())
+		if (sim.printReport.getValue())
 			InputAgent.printReport(EventManager.simSeconds());
 
 		// Print the selected outputs
-		if (runOutputList.getValue() != null) {
+		if (sim.runOutputList.getValue() != null) {
 			InputAgent.printRunOutputs(EventManager.simSeconds());
 		}
 
@@ -680,7 +684,7 @@ public class Simulation extends Entity {
 
 		// Start the next run
 		final EventManager currentEvt = EventManager.current();
-		Simulation.setRunNumber(runNumber + 1);
+		sim.setRunNumber(sim.runNumber + 1);
 		Simulation.stopRun(currentEvt);
 		new Thread(new Runnable() {
 			@Override
@@ -694,14 +698,15 @@ public class Simulation extends Entity {
 	 * Ends a set of simulation runs.
 	 */
 	private static void end() {
+		Simulation sim = getInstance();
 
 		// Close warning/error trace file
-		LogBox.logLine("Made it to do end at");
+		Log.logLine("Made it to do end at");
 		InputAgent.closeLogFile();
 
 		// Always terminate the run when in batch mode
-		if (InputAgent.getBatch() || exitAtStop.getValue())
-			GUIFrame.shutdown(0);
+		if (InputAgent.getBatch() || sim.exitAtStop.getValue())
+			Simulation.exit(0);
 
 		EventManager.current().pause();
 	}
@@ -711,12 +716,13 @@ public class Simulation extends Entity {
 	 * @param evt - EventManager for the run.
 	 */
 	public static void stop(EventManager evt) {
+		Simulation sim = getInstance();
 
 		// Stop the present simulation run
 		Simulation.stopRun(evt);
 
 		// Reset the run number and run indices
-		Simulation.setRunNumber(startingRunNumber.getValue());
+		sim.setRunNumber(sim.startingRunNumber.getValue());
 
 		// Close the output reports
 		InputAgent.stop();
@@ -733,13 +739,11 @@ public class Simulation extends Entity {
 		evt.clear();
 
 		// Destroy the entities that were generated during the run
-		for (int i = 0; i < Entity.getAll().size();) {
-			Entity ent = Entity.getAll().get(i);
-			if (ent.testFlag(Entity.FLAG_GENERATED))
+		for (Entity ent : Entity.getAll()) {
+			if (ent.testFlag(Entity.FLAG_GENERATED) && !ent.testFlag(Entity.FLAG_DEAD))
 				ent.kill();
-			else
-				i++;
 		}
+		JaamSimModel.getJaamSimModel().clearEntityPools();
 
 		// Re-initialise the model
 		for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
@@ -759,27 +763,27 @@ public class Simulation extends Entity {
 	}
 
 	public static int getSubstreamNumber() {
-		return (int)globalSeedInput.getValue().getNextSample(0.0);
+		return (int)getInputs().globalSeedInput.getValue().getNextSample(0.0);
 	}
 
 	public static boolean getPrintReport() {
-		return printReport.getValue();
+		return getInputs().printReport.getValue();
 	}
 
 	public static boolean traceEvents() {
-		return traceEventsInput.getValue();
+		return getInputs().traceEventsInput.getValue();
 	}
 
 	public static boolean verifyEvents() {
-		return verifyEventsInput.getValue();
+		return getInputs().verifyEventsInput.getValue();
 	}
 
 	public static double getTickLength() {
-		return tickLengthInput.getValue();
+		return getInputs().tickLengthInput.getValue();
 	}
 
 	public static double getPauseTime() {
-		return pauseTime.getValue();
+		return getInputs().pauseTime.getValue();
 	}
 
 	/**
@@ -787,7 +791,7 @@ public class Simulation extends Entity {
 	 * @return - simulation time in seconds for the start of the run.
 	 */
 	public static double getStartTime() {
-		return startTime;
+		return getInputs().startTime;
 	}
 
 	/**
@@ -795,41 +799,41 @@ public class Simulation extends Entity {
 	 * @return - simulation time in seconds when the current run will stop.
 	 */
 	public static double getEndTime() {
-		return endTime;
+		return getInputs().endTime;
 	}
 
 	/**
 	 * Returns the duration of the run (not including intialization)
 	 */
 	public static double getRunDuration() {
-		return runDuration.getValue();
+		return getInputs().runDuration.getValue();
 	}
 
 	/**
 	 * Returns the duration of the initialization period
 	 */
 	public static double getInitializationTime() {
-		return initializationTime.getValue();
+		return getInputs().initializationTime.getValue();
 	}
 
 	public static StringProvListInput getRunOutputList() {
-		return runOutputList;
+		return getInputs().runOutputList;
 	}
 
 	public static double getIncrementSize() {
-		return incrementSize.getValue();
+		return getInputs().incrementSize.getValue();
 	}
 
 	public static boolean isSnapToGrid() {
-		return snapToGrid.getValue();
+		return getInputs().snapToGrid.getValue();
 	}
 
 	public static double getSnapGridSpacing() {
-		return snapGridSpacing.getValue();
+		return getInputs().snapGridSpacing.getValue();
 	}
 
 	public static boolean getExitAtPauseCondition() {
-		return exitAtPauseCondition.getValue();
+		return getInputs().exitAtPauseCondition.getValue();
 	}
 
 	public void doPauseCondition() {
@@ -839,14 +843,20 @@ public class Simulation extends Entity {
 
 	private final PauseModelTarget pauseModel = new PauseModelTarget();
 
-	static class PauseConditional extends Conditional {
+	class PauseConditional extends Conditional {
 		@Override
 		public boolean evaluate() {
+			EventManager.trackDependency(InputAgent.getInputTracker());
 			if (pauseConditionInput.getValue() == null)
 				return false;
 			double simTime = EventManager.simSeconds();
 			return pauseConditionInput.getValue().getNextSample(simTime) != 0.0d;
 		}
+
+		@Override
+		public boolean isTracked() {
+			return pauseConditionInput.getValue() instanceof SampleExpression;
+		}
 	}
 	private final Conditional pauseCondition = new PauseConditional();
 
@@ -859,7 +869,7 @@ public class Simulation extends Entity {
 	 * @return newest snap grid point.
 	 */
 	public static Vec3d getSnapGridPosition(Vec3d newPos, Vec3d oldPos) {
-		double spacing = snapGridSpacing.getValue();
+		double spacing = getInputs().snapGridSpacing.getValue();
 		Vec3d ret = new Vec3d(newPos);
 		if (Math.abs(newPos.x - oldPos.x) < spacing)
 			ret.x = oldPos.x;
@@ -876,7 +886,7 @@ public class Simulation extends Entity {
 	 * @return nearest snap grid point.
 	 */
 	public static Vec3d getSnapGridPosition(Vec3d pos) {
-		double spacing = snapGridSpacing.getValue();
+		double spacing = getInputs().snapGridSpacing.getValue();
 		Vec3d ret = new Vec3d(pos);
 		ret.x = spacing*Math.rint(ret.x/spacing);
 		ret.y = spacing*Math.rint(ret.y/spacing);
@@ -896,12 +906,25 @@ public class Simulation extends Entity {
 		return ret;
 	}
 
-	static void updateRealTime() {
-		GUIFrame.updateForRealTime(realTime.getValue(), realTimeFactor.getValue());
+	private static GUIListener getGUIListener() {
+		return JaamSimModel.getJaamSimModel().getGUIListener();
 	}
 
-	static void updatePauseTime() {
-		GUIFrame.updateForPauseTime(pauseTime.getValueString());
+	private static void updateControls() {
+		GUIListener gui = getGUIListener();
+		if (gui != null)
+			gui.updateControls();
+	}
+
+	/**
+	 * Terminates the program, closing the user interface if there is one.
+	 * @param errorCode - exit code for the program.
+	 */
+	public static void exit(int errorCode) {
+		GUIListener gui = getGUIListener();
+		if (gui != null)
+			gui.exit(errorCode);
+		System.exit(errorCode);
 	}
 
 	public static void setModelName(String newModelName) {
@@ -913,54 +936,22 @@ public class Simulation extends Entity {
 	}
 
 	public static boolean getExitAtStop() {
-		return exitAtStop.getValue();
+		return getInputs().exitAtStop.getValue();
 	}
 
 	public static boolean getPrintInputReport() {
-		return printInputReport.getValue();
+		return getInputs().printInputReport.getValue();
 	}
 
 	public static boolean isRealTime() {
-		return realTime.getValue();
-	}
-
-	public static void setWindowVisible(JFrame f, boolean visible) {
-		f.setVisible(visible);
-		if (visible)
-			f.toFront();
-	}
-
-	/**
-	 * Re-open any Tools windows that have been closed temporarily.
-	 */
-	public static void showActiveTools() {
-		setWindowVisible(EntityPallet.getInstance(), showModelBuilder.getValue());
-		setWindowVisible(ObjectSelector.getInstance(), showObjectSelector.getValue());
-		setWindowVisible(EditBox.getInstance(), showInputEditor.getValue());
-		setWindowVisible(OutputBox.getInstance(), showOutputViewer.getValue());
-		setWindowVisible(PropertyBox.getInstance(), showPropertyViewer.getValue());
-		setWindowVisible(LogBox.getInstance(), showLogViewer.getValue());
-		if (EventViewer.hasInstance())
-			setWindowVisible(EventViewer.getInstance(), showEventViewer.getValue());
+		return getInputs().realTime.getValue();
 	}
 
-	/**
-	 * Closes all the Tools windows temporarily.
-	 */
-	public static void closeAllTools() {
-		if (GUIFrame.getInstance() == null)
-			return;
-		setWindowVisible(EntityPallet.getInstance(), false);
-		setWindowVisible(ObjectSelector.getInstance(), false);
-		setWindowVisible(EditBox.getInstance(), false);
-		setWindowVisible(OutputBox.getInstance(), false);
-		setWindowVisible(PropertyBox.getInstance(), false);
-		setWindowVisible(LogBox.getInstance(), false);
-		if (EventViewer.hasInstance())
-			setWindowVisible(EventViewer.getInstance(), false);
+	public static double getRealTimeFactor() {
+		return getInputs().realTimeFactor.getValue();
 	}
 
-	private static void setRunNumber(int n) {
+	private void setRunNumber(int n) {
 		runNumber = n;
 		runIndexList = Simulation.getRunIndexList(n, runIndexDefinitionList.getValue());
 	}
@@ -1013,7 +1004,7 @@ public class Simulation extends Entity {
 	}
 
 	public static String getRunCode() {
-		return Simulation.getRunCode(runIndexList);
+		return Simulation.getRunCode(getInputs().runIndexList);
 	}
 
 	public static String getRunHeader() {
@@ -1021,15 +1012,18 @@ public class Simulation extends Entity {
 	}
 
 	public static boolean isMultipleRuns() {
-		return endingRunNumber.getValue() > startingRunNumber.getValue();
+		Simulation sim = getInputs();
+		return sim.endingRunNumber.getValue() > sim.startingRunNumber.getValue();
 	}
 
 	public static boolean isFirstRun() {
-		return runNumber == startingRunNumber.getValue();
+		Simulation sim = getInputs();
+		return sim.runNumber == sim.startingRunNumber.getValue();
 	}
 
 	public static boolean isLastRun() {
-		return runNumber >= endingRunNumber.getValue();
+		Simulation sim = getInputs();
+		return sim.runNumber >= sim.endingRunNumber.getValue();
 	}
 
 	@Output(name = "Software Name",
@@ -1115,4 +1109,23 @@ public class Simulation extends Entity {
 		return simTime;
 	}
 
+	@Output(name = "ConditionEvaluations",
+	 description = "The number of times the condition for a conditional event has been "
+	             + "evaluated during the present simulation run.",
+	    unitType = DimensionlessUnit.class,
+	    sequence = 9)
+	public long getConditionEvaluations(double simTime) {
+		return JaamSimModel.getJaamSimModel().getEventManager().getConditionEvaluations();
+	}
+
+	@Output(name = "SkippedConditionEvaluations",
+	 description = "The number of condition evaluations that were skipped during the present "
+	             + "simulation run because the model state used by the condition had not "
+	             + "changed.",
+	    unitType = DimensionlessUnit.class,
+	    sequence = 10)
+	public long getSkippedConditionEvaluations(double simTime) {
+		return JaamSimModel.getJaamSimModel().getEventManager().getSkippedConditionEvaluations();
+	}
+
 }
@@ -0,0 +1,327 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.datatypes;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A sorted set that can also find an element by its index and the index of an element in
+ * logarithmic time. The set is held in an AVL tree whose nodes record the number of elements in
+ * their sub-tree. Elements are compared using their natural ordering, and elements that compare
+ * as equal are treated as the same element.
+ */
+public class IndexedTreeSet<T extends Comparable<? super T>> implements Iterable<T> {
+	private Node<T> root;
+	private int modCount;  // incremented each time an element is added or removed
+
+	private static class Node<T> {
+		T val;
+		Node<T> left;
+		Node<T> right;
+		int height;
+		int size;
+
+		Node(T val) {
+			this.val = val;
+			height = 1;
+			size = 1;
+		}
+	}
+
+	public IndexedTreeSet() {}
+
+	public int size() {
+		return size(root);
+	}
+
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	public void clear() {
+		root = null;
+		modCount++;
+	}
+
+	/**
+	 * Adds the element to the set.
+	 * @return false if an equal element is already present
+	 */
+	public boolean add(T val) {
+		int num = size(root);
+		root = insert(root, val);
+		if (size(root) == num)
+			return false;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Removes the element that is equal to the specified one.
+	 * @return false if the element is not present
+	 */
+	public boolean remove(T val) {
+		int num = size(root);
+		root = delete(root, val);
+		if (size(root) == num)
+			return false;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Returns the smallest element.
+	 * @throws NoSuchElementException if the set is empty
+	 */
+	public T first() {
+		Node<T> n = root;
+		if (n == null)
+			throw new NoSuchElementException();
+		while (n.left != null)
+			n = n.left;
+		return n.val;
+	}
+
+	/**
+	 * Returns the element at the specified position in the sorted order.
+	 * @throws IndexOutOfBoundsException if the index is not within the set
+	 */
+	public T get(int index) {
+		if (index < 0 || index >= size(root))
+			throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size(root)));
+
+		Node<T> n = root;
+		while (true) {
+			int leftSize = size(n.left);
+			if (index < leftSize) {
+				n = n.left;
+				continue;
+			}
+			if (index == leftSize)
+				return n.val;
+			index -= leftSize + 1;
+			n = n.right;
+		}
+	}
+
+	/**
+	 * Returns the position in the sorted order of the element that is equal to the specified
+	 * one, or -1 if it is not present.
+	 */
+	public int indexOf(T val) {
+		int ret = 0;
+		Node<T> n = root;
+		while (n != null) {
+			int cmp = val.compareTo(n.val);
+			if (cmp < 0) {
+				n = n.left;
+				continue;
+			}
+			if (cmp > 0) {
+				ret += size(n.left) + 1;
+				n = n.right;
+				continue;
+			}
+			return ret + size(n.left);
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the elements in sorted order.
+	 */
+	public ArrayList<T> toList() {
+		ArrayList<T> ret = new ArrayList<>(size(root));
+		for (T val : this) {
+			ret.add(val);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns an iterator over the elements in sorted order. The iterator throws a
+	 * ConcurrentModificationException if the set is changed while it is being used.
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Itr();
+	}
+
+	private class Itr implements Iterator<T> {
+		private final ArrayList<Node<T>> stack = new ArrayList<>();
+		private final int expectedModCount = modCount;
+
+		Itr() {
+			pushLeft(root);
+		}
+
+		private void pushLeft(Node<T> n) {
+			while (n != null) {
+				stack.add(n);
+				n = n.left;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !stack.isEmpty();
+		}
+
+		@Override
+		public T next() {
+			if (modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			if (stack.isEmpty())
+				throw new NoSuchElementException();
+
+			Node<T> n = stack.remove(stack.size() - 1);
+			pushLeft(n.right);
+			return n.val;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static int height(Node<?> n) {
+		return n == null ? 0 : n.height;
+	}
+
+	private static int size(Node<?> n) {
+		return n == null ? 0 : n.size;
+	}
+
+	private static void update(Node<?> n) {
+		n.height = 1 + Math.max(height(n.left), height(n.right));
+		n.size = 1 + size(n.left) + size(n.right);
+	}
+
+	private static <T> Node<T> rotateRight(Node<T> n) {
+		Node<T> l = n.left;
+		n.left = l.right;
+		l.right = n;
+		update(n);
+		update(l);
+		return l;
+	}
+
+	private static <T> Node<T> rotateLeft(Node<T> n) {
+		Node<T> r = n.right;
+		n.right = r.left;
+		r.left = n;
+		update(n);
+		update(r);
+		return r;
+	}
+
+	/**
+	 * Restores the AVL property for a node whose sub-trees differ in height by up to two.
+	 */
+	private static <T> Node<T> balance(Node<T> n) {
+		update(n);
+		int bal = height(n.left) - height(n.right);
+		if (bal > 1) {
+			if (height(n.left.left) < height(n.left.right))
+				n.left = rotateLeft(n.left);
+			return rotateRight(n);
+		}
+		if (bal < -1) {
+			if (height(n.right.right) < height(n.right.left))
+				n.right = rotateRight(n.right);
+			return rotateLeft(n);
+		}
+		return n;
+	}
+
+	private Node<T> insert(Node<T> n, T val) {
+		if (n == null)
+			return new Node<>(val);
+
+		int cmp = val.compareTo(n.val);
+		if (cmp == 0)
+			return n;
+
+		if (cmp < 0)
+			n.left = insert(n.left, val);
+		else
+			n.right = insert(n.right, val);
+		return balance(n);
+	}
+
+	private Node<T> delete(Node<T> n, T val) {
+		if (n == null)
+			return null;
+
+		int cmp = val.compareTo(n.val);
+		if (cmp < 0) {
+			n.left = delete(n.left, val);
+		}
+		else if (cmp > 0) {
+			n.right = delete(n.right, val);
+		}
+		else {
+			if (n.left == null)
+				return n.right;
+			if (n.right == null)
+				return n.left;
+
+			// Replace the element with the smallest one in the right sub-tree
+			Node<T> min = n.right;
+			while (min.left != null)
+				min = min.left;
+			n.val = min.val;
+			n.right = deleteFirst(n.right);
+		}
+		return balance(n);
+	}
+
+	private Node<T> deleteFirst(Node<T> n) {
+		if (n.left == null)
+			return n.right;
+		n.left = deleteFirst(n.left);
+		return balance(n);
+	}
+
+	/**
+	 * Checks the AVL property and the recorded heights and sizes.
+	 * @return true if the tree is consistent
+	 */
+	boolean verify() {
+		return verify(root) >= 0;
+	}
+
+	private int verify(Node<T> n) {
+		if (n == null)
+			return 0;
+		int lh = verify(n.left);
+		int rh = verify(n.right);
+		if (lh < 0 || rh < 0 || Math.abs(lh - rh) > 1)
+			return -1;
+		if (n.height != 1 + Math.max(lh, rh) || n.size != 1 + size(n.left) + size(n.right))
+			return -1;
+		if (n.left != null && n.left.val.compareTo(n.val) >= 0)
+			return -1;
+		if (n.right != null && n.right.val.compareTo(n.val) <= 0)
+			return -1;
+		return n.height;
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.datatypes;
+
+import java.util.List;
+
+/**
+ * An immutable list that is modified by returning a new version. The new version shares all but
+ * a logarithmic number of its nodes with the original, so a copy is never needed.
+ * <p>
+ * The elements are held in the leaves of a tree with 32 branches per node, in which the path
+ * to an element is given by successive groups of five bits of its index. The last 32 or fewer
+ * elements are held outside the tree in a tail node, so that adding an element normally copies
+ * only the tail.
+ */
+public final class PersistentVector<T> {
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+
+	// Nodes are copied rather than modified, so the empty root can be shared
+	private static final Object[] EMPTY_ROOT = new Object[WIDTH];
+	private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_ROOT, new Object[0]);
+
+	private final int size;
+	private final int shift;    // number of index bits below the root node
+	private final Object[] root;
+	private final Object[] tail;
+
+	private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> PersistentVector<T> empty() {
+		return (PersistentVector<T>) EMPTY;
+	}
+
+	/**
+	 * Returns a vector containing the elements of the given list.
+	 */
+	public static <T> PersistentVector<T> from(List<? extends T> list) {
+		if (list.size() <= WIDTH)
+			return new PersistentVector<>(list.size(), BITS, EMPTY_ROOT, list.toArray());
+
+		PersistentVector<T> ret = empty();
+		for (T val : list) {
+			ret = ret.add(val);
+		}
+		return ret;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	// Index of the first element in the tail
+	private int tailOffset() {
+		if (size < WIDTH)
+			return 0;
+		return ((size - 1) >>> BITS) << BITS;
+	}
+
+	// Returns the leaf node that holds the element with the given index
+	private Object[] leafFor(int index) {
+		if (index >= tailOffset())
+			return tail;
+
+		Object[] node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+		return node;
+	}
+
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size));
+		return (T) leafFor(index)[index & MASK];
+	}
+
+	/**
+	 * Returns a new vector in which the element with the given index is replaced.
+	 */
+	public PersistentVector<T> set(int index, T val) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size));
+
+		if (index >= tailOffset()) {
+			Object[] newTail = tail.clone();
+			newTail[index & MASK] = val;
+			return new PersistentVector<>(size, shift, root, newTail);
+		}
+		return new PersistentVector<>(size, shift, setInTree(shift, root, index, val), tail);
+	}
+
+	private static Object[] setInTree(int level, Object[] node, int index, Object val) {
+		Object[] ret = node.clone();
+		if (level == 0) {
+			ret[index & MASK] = val;
+			return ret;
+		}
+		int sub = (index >>> level) & MASK;
+		ret[sub] = setInTree(level - BITS, (Object[]) node[sub], index, val);
+		return ret;
+	}
+
+	/**
+	 * Returns a new vector with the given element added to the end.
+	 */
+	public PersistentVector<T> add(T val) {
+		// Room in the tail
+		if (size - tailOffset() < WIDTH) {
+			Object[] newTail = new Object[tail.length + 1];
+			System.arraycopy(tail, 0, newTail, 0, tail.length);
+			newTail[tail.length] = val;
+			return new PersistentVector<>(size + 1, shift, root, newTail);
+		}
+
+		// The full tail is moved into the tree, adding a level if the tree is full
+		Object[] newRoot;
+		int newShift = shift;
+		if ((size >>> BITS) > (1 << shift)) {
+			newRoot = new Object[WIDTH];
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+			newShift += BITS;
+		}
+		else {
+			newRoot = pushTail(shift, root, tail);
+		}
+		return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] { val });
+	}
+
+	private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+		int sub = ((size - 1) >>> level) & MASK;
+		Object[] ret = parent.clone();
+		if (level == BITS) {
+			ret[sub] = tailNode;
+			return ret;
+		}
+		Object[] child = (Object[]) parent[sub];
+		if (child == null)
+			ret[sub] = newPath(level - BITS, tailNode);
+		else
+			ret[sub] = pushTail(level - BITS, child, tailNode);
+		return ret;
+	}
+
+	private static Object[] newPath(int level, Object[] node) {
+		if (level == 0)
+			return node;
+		Object[] ret = new Object[WIDTH];
+		ret[0] = newPath(level - BITS, node);
+		return ret;
+	}
+}
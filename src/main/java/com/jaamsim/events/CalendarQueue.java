@@ -0,0 +1,352 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * CalendarQueue is a future event list based on R. Brown's calendar queue (CACM, 1988).
+ * <p>
+ * Time is divided into 'days' of equal width and each day is assigned to one of a power of two
+ * number of buckets in round-robin fashion, so that the buckets form a one 'year' calendar.
+ * Each bucket holds a sorted list of the nodes for its days, linked through EventNode.right.
+ * When the number of buckets is matched to the number of nodes and the day width to the spacing
+ * of the earliest nodes, adding and removing a node takes constant time on average.
+ * <p>
+ * The day width is re-calculated whenever the number of buckets changes, and also when the
+ * average number of buckets or nodes examined per operation shows that the width no longer
+ * suits the nodes at the front of the calendar.
+ */
+class CalendarQueue implements EventList {
+	private static final int MIN_BUCKETS = 16;
+	private static final int WIDTH_SAMPLES = 25;
+	private static final int MAX_AVG_PROBES = 8;
+
+	private EventNode[] buckets;
+	private int mask;   // buckets.length - 1
+	private long width; // number of ticks in each day
+	private int size;   // number of nodes in the calendar
+
+	private EventNode lowest; // the earliest node, or null if it has to be found
+	private long lowTick;     // no node in the calendar is earlier than this tick
+
+	private int numOps;     // operations since the day width was last checked
+	private long numProbes; // buckets and nodes examined by those operations
+	private int checkOps;   // number of operations between checks on the day width
+
+	CalendarQueue() {
+		reset();
+	}
+
+	@Override
+	public final void reset() {
+		buckets = new EventNode[MIN_BUCKETS];
+		mask = MIN_BUCKETS - 1;
+		width = 1;
+		size = 0;
+		lowest = null;
+		lowTick = 0;
+		numOps = 0;
+		numProbes = 0;
+		checkOps = MIN_BUCKETS;
+		clearFreeList();
+	}
+
+	@Override
+	public EventNode getNextNode() {
+		if (lowest == null && size > 0)
+			lowest = findLowest();
+		return lowest;
+	}
+
+	/**
+	 * Returns the day number for the given tick, rounding towards negative infinity.
+	 */
+	private long getDay(long tick) {
+		long day = tick / width;
+		if (tick < 0 && day * width != tick)
+			day--;
+		return day;
+	}
+
+	private int getBucket(long tick) {
+		return (int)getDay(tick) & mask;
+	}
+
+	private EventNode findLowest() {
+		// Check the buckets for one year, starting with the day containing the lower bound
+		long day = getDay(lowTick);
+		for (int i = 0; i <= mask; i++, day++) {
+			EventNode n = buckets[(int)day & mask];
+			if (n != null && getDay(n.schedTick) == day) {
+				lowTick = n.schedTick;
+				numProbes += i;
+				return n;
+			}
+		}
+		numProbes += 2 * buckets.length;
+
+		// The next node is more than one year away, so compare the first node in each bucket
+		EventNode ret = null;
+		for (EventNode n : buckets) {
+			if (n != null && (ret == null || n.compareToNode(ret) < 0))
+				ret = n;
+		}
+		lowTick = ret.schedTick;
+		return ret;
+	}
+
+	@Override
+	public final EventNode createOrFindNode(long schedTick, int priority) {
+		int index = getBucket(schedTick);
+		EventNode prev = null;
+		EventNode n = buckets[index];
+		while (n != null) {
+			int comp = n.compare(schedTick, priority);
+			if (comp == 0)
+				return n; // Found existing node
+			if (comp > 0)
+				break;
+			prev = n;
+			n = n.right;
+			numProbes++;
+		}
+
+		EventNode newNode = getNewNode(schedTick, priority);
+		newNode.right = n;
+		if (prev == null)
+			buckets[index] = newNode;
+		else
+			prev.right = newNode;
+
+		size++;
+		if (size == 1) {
+			lowest = newNode;
+			lowTick = schedTick;
+		}
+		else {
+			if (schedTick < lowTick)
+				lowTick = schedTick;
+			if (lowest != null && newNode.compareToNode(lowest) < 0)
+				lowest = newNode;
+		}
+
+		if (size > 2 * buckets.length)
+			resize(2 * buckets.length);
+		else
+			checkWidth();
+		return newNode;
+	}
+
+	@Override
+	public final boolean removeNode(long schedTick, int priority) {
+		int index = getBucket(schedTick);
+		EventNode prev = null;
+		EventNode n = buckets[index];
+		while (true) {
+			if (n == null)
+				return false; // Node not found
+			int comp = n.compare(schedTick, priority);
+			if (comp == 0)
+				break;
+			if (comp > 0)
+				return false; // Node not found
+			prev = n;
+			n = n.right;
+		}
+
+		// Debugging
+		if (n.head != null || n.tail != null)
+			throw new RuntimeException("Removing non-empy node");
+
+		if (prev == null)
+			buckets[index] = n.right;
+		else
+			prev.right = n.right;
+
+		size--;
+		if (n == lowest)
+			lowest = null;
+
+		reuseNode(n);
+
+		if (size < buckets.length / 2 && buckets.length > MIN_BUCKETS)
+			resize(buckets.length / 2);
+		return true;
+	}
+
+	/**
+	 * Re-calculates the day width if too many buckets or nodes have been examined per operation.
+	 * The interval between checks is doubled each time the width is re-calculated and restored
+	 * once the width is found to be suitable, so that a workload the calendar cannot suit does
+	 * not pay for repeated sorting.
+	 */
+	private void checkWidth() {
+		numOps++;
+		if (numOps < checkOps)
+			return;
+
+		if (numProbes > (long)MAX_AVG_PROBES * numOps) {
+			resize(buckets.length);
+			checkOps = Math.min(2 * checkOps, 1 << 30);
+		}
+		else {
+			checkOps = Math.max(buckets.length, MIN_BUCKETS);
+		}
+		numOps = 0;
+		numProbes = 0;
+	}
+
+	private static final Comparator<EventNode> nodeSorter = new Comparator<EventNode>() {
+		@Override
+		public int compare(EventNode n1, EventNode n2) {
+			return n1.compareToNode(n2);
+		}
+	};
+
+	private EventNode[] getSortedNodes() {
+		EventNode[] ret = new EventNode[size];
+		int count = 0;
+		for (EventNode n : buckets) {
+			while (n != null) {
+				ret[count++] = n;
+				n = n.right;
+			}
+		}
+		Arrays.sort(ret, nodeSorter);
+		return ret;
+	}
+
+	/**
+	 * Redistributes the nodes over the given number of buckets, choosing a new day width from
+	 * the spacing of the earliest nodes.
+	 */
+	private void resize(int numBuckets) {
+		EventNode[] nodes = getSortedNodes();
+		width = getWidth(nodes);
+		buckets = new EventNode[numBuckets];
+		mask = numBuckets - 1;
+		numOps = 0;
+		numProbes = 0;
+		checkOps = Math.max(checkOps, numBuckets);
+
+		// Adding the nodes in reverse order keeps each bucket sorted
+		for (int i = nodes.length - 1; i >= 0; i--) {
+			int index = getBucket(nodes[i].schedTick);
+			nodes[i].right = buckets[index];
+			buckets[index] = nodes[i];
+		}
+	}
+
+	/**
+	 * Returns three times the average separation of the earliest nodes, ignoring separations
+	 * that are more than twice the average.
+	 */
+	private static long getWidth(EventNode[] nodes) {
+		int num = Math.min(nodes.length, WIDTH_SAMPLES);
+		if (num < 2)
+			return 1;
+
+		double avg = ((double)nodes[num - 1].schedTick - nodes[0].schedTick) / (num - 1);
+		double total = 0.0d;
+		int count = 0;
+		for (int i = 1; i < num; i++) {
+			double sep = (double)nodes[i].schedTick - nodes[i - 1].schedTick;
+			if (sep > 2.0d * avg)
+				continue;
+			total += sep;
+			count++;
+		}
+		if (count > 0)
+			avg = total / count;
+
+		return (long)Math.max(1.0d, Math.min(3.0d * avg, Long.MAX_VALUE / 4));
+	}
+
+	@Override
+	public final void runOnAllNodes(EventNode.Runner runner) {
+		for (EventNode n : getSortedNodes()) {
+			runner.runOnNode(n);
+		}
+	}
+
+	// Verify the sorting structure and return the number of nodes
+	final int verify() {
+		int count = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			EventNode prev = null;
+			for (EventNode n = buckets[i]; n != null; n = n.right) {
+				if (getBucket(n.schedTick) != i)
+					throw new RuntimeException("Calendar queue bucket verify failed");
+				if (prev != null && prev.compareToNode(n) != -1)
+					throw new RuntimeException("Calendar queue order verify failed");
+				if (n.schedTick < lowTick)
+					throw new RuntimeException("Calendar queue lower bound verify failed");
+				prev = n;
+				count++;
+			}
+		}
+		if (count != size)
+			throw new RuntimeException("Calendar queue size verify failed");
+		return count;
+	}
+
+	// Search the calendar and return the node if it is found
+	final EventNode find(long schedTick, int priority) {
+		for (EventNode n = buckets[getBucket(schedTick)]; n != null; n = n.right) {
+			int comp = n.compare(schedTick, priority);
+			if (comp == 0)
+				return n;
+			if (comp > 0)
+				return null;
+		}
+		return null;
+	}
+
+	private EventNode freeList = null;
+
+	private EventNode getNewNode(long schedTick, int priority) {
+		if (freeList == null) {
+			return new EventNode(schedTick, priority);
+		}
+
+		EventNode ret = freeList;
+		freeList = freeList.right;
+
+		ret.schedTick = schedTick;
+		ret.priority = priority;
+		ret.head = null;
+		ret.tail = null;
+		ret.right = null;
+
+		return ret;
+	}
+
+	private void reuseNode(EventNode node) {
+		// Clear the node
+		node.head = null;
+		node.tail = null;
+
+		node.right = freeList;
+		freeList = node;
+	}
+
+	private void clearFreeList() {
+		freeList = null;
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+/**
+ * ChangeTracker counts the changes made to a piece of model state that a Conditional can depend
+ * on. The owner of the state calls changed() each time the state is modified, and the state is
+ * reported as a dependency by passing its tracker to EventManager.trackDependency() whenever it
+ * is read.
+ */
+public final class ChangeTracker {
+	private long changeCount;
+
+	public ChangeTracker() {
+		changeCount = 0;
+	}
+
+	public final void changed() {
+		changeCount++;
+	}
+
+	final long getChangeCount() {
+		return changeCount;
+	}
+}
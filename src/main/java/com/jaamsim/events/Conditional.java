@@ -18,4 +18,17 @@ package com.jaamsim.events;
 
 public abstract class Conditional {
 	public abstract boolean evaluate();
+
+	/**
+	 * Returns true if evaluate() reads model state only through expressions and other objects
+	 * that report a ChangeTracker to EventManager.trackDependency(). The EventManager can then
+	 * skip the evaluation of the condition until one of the trackers has changed.
+	 * <p>
+	 * The default is false, which means that the condition is evaluated before every advance in
+	 * simulation time. It must be kept for a condition that reads the simulation time or any
+	 * other model state that is not tracked.
+	 */
+	public boolean isTracked() {
+		return false;
+	}
 }
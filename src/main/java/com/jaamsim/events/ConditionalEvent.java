@@ -16,12 +16,68 @@
  */
 package com.jaamsim.events;
 
+import java.util.Arrays;
+
 final class ConditionalEvent extends BaseEvent {
 	Conditional c;
 
+	// Model state read by the last evaluation of the condition
+	private boolean tracked;
+	private int numDeps;
+	private ChangeTracker[] deps;
+	private long[] depCounts;
+
 	ConditionalEvent(Conditional c, ProcessTarget t, EventHandle hand) {
 		this.target = t;
 		this.handle = hand;
 		this.c = c;
 	}
+
+	/**
+	 * Returns true if the condition must be evaluated, i.e. its dependencies were not known at
+	 * the last evaluation or one of them has changed since.
+	 */
+	final boolean needsEvaluation() {
+		if (!tracked)
+			return true;
+
+		for (int i = 0; i < numDeps; i++) {
+			if (deps[i].getChangeCount() != depCounts[i])
+				return true;
+		}
+		return false;
+	}
+
+	final void startEvaluation() {
+		tracked = c.isTracked();
+		numDeps = 0;
+	}
+
+	final void addDependency(ChangeTracker t) {
+		if (!tracked)
+			return;
+
+		// Untracked state has been read
+		if (t == null) {
+			tracked = false;
+			return;
+		}
+
+		for (int i = 0; i < numDeps; i++) {
+			if (deps[i] == t)
+				return;
+		}
+
+		if (deps == null) {
+			deps = new ChangeTracker[4];
+			depCounts = new long[4];
+		}
+		else if (numDeps == deps.length) {
+			deps = Arrays.copyOf(deps, 2 * numDeps);
+			depCounts = Arrays.copyOf(depCounts, 2 * numDeps);
+		}
+		deps[numDeps] = t;
+		depCounts[numDeps] = t.getChangeCount();
+		numDeps++;
+	}
 }
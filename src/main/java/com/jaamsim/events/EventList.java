@@ -0,0 +1,50 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+/**
+ * EventList is the future event list used by the EventManager. It holds one EventNode for each
+ * distinct (schedTick, priority) pair with pending events and returns them in increasing order.
+ */
+interface EventList {
+
+	/**
+	 * Returns the node with the smallest schedTick and priority, or null if the list is empty.
+	 */
+	public EventNode getNextNode();
+
+	/**
+	 * Returns the node for the given time and priority, creating an empty one if necessary.
+	 */
+	public EventNode createOrFindNode(long schedTick, int priority);
+
+	/**
+	 * Removes the empty node for the given time and priority.
+	 * @return false if the node could not be found
+	 */
+	public boolean removeNode(long schedTick, int priority);
+
+	/**
+	 * Discards all the nodes in the list.
+	 */
+	public void reset();
+
+	/**
+	 * Executes the runner on every node in increasing order.
+	 */
+	public void runOnAllNodes(EventNode.Runner runner);
+}
@@ -0,0 +1,34 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+/**
+ * The data structures available to an EventManager for holding its future events.
+ */
+public enum EventListType {
+	RED_BLACK_TREE,
+	CALENDAR_QUEUE;
+
+	EventList newEventList() {
+		switch (this) {
+		case CALENDAR_QUEUE:
+			return new CalendarQueue();
+		default:
+			return new EventTree();
+		}
+	}
+}
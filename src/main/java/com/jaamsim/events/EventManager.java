@@ -18,6 +18,9 @@
 package com.jaamsim.events;
 
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.ui.EventData;
@@ -43,14 +46,20 @@ import com.jaamsim.ui.EventData;
 public final class EventManager {
 	public final String name;
 
-	private final Object lockObject; // Object used as global lock for synchronization
+	private final ReentrantLock lockObject; // Global lock for synchronization
+	private final Condition realTimeWait; // Used to wait for the wall-clock time in real-time mode
 
-	private final EventTree eventTree;
+	private EventListType eventListType; // Data structure to use for the future events
+	private EventList eventList; // Future events, sorted by time and priority
 
 	private volatile boolean executeEvents;
 	private boolean processRunning;
 
 	private final ArrayList<ConditionalEvent> condEvents;
+	private ConditionalEvent evaluatingCond; // the conditional event being evaluated, or null
+	private long numCondEvaluations; // number of times a condition was evaluated
+	private long numCondSkipped;     // number of evaluations skipped for unchanged conditions
+	private long numEvents;          // number of events executed from the future event list
 
 	private long currentTick; // Master simulation time (long)
 	private long nextTick; // The next tick to execute events at
@@ -73,6 +82,8 @@ public final class EventManager {
 	private EventErrorListener errListener;
 	private EventTraceListener trcListener;
 
+	private volatile EventOwner owner; // the model that executes its events with this EventManager
+
 	/**
 	 * Allocates a new EventManager with the given parent and name
 	 *
@@ -82,7 +93,8 @@ public final class EventManager {
 	public EventManager(String name) {
 		// Basic initialization
 		this.name = name;
-		lockObject = new Object();
+		lockObject = new ReentrantLock();
+		realTimeWait = lockObject.newCondition();
 
 		// Initialize and event lists and timekeeping variables
 		currentTick = 0;
@@ -92,7 +104,8 @@ public final class EventManager {
 
 		setTickLength(1e-6d);
 
-		eventTree = new EventTree();
+		eventListType = EventListType.RED_BLACK_TREE;
+		eventList = eventListType.newEventList();
 		condEvents = new ArrayList<>();
 
 		executeEvents = false;
@@ -105,7 +118,8 @@ public final class EventManager {
 	}
 
 	public final void setTimeListener(EventTimeListener l) {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			if (l != null)
 				timelistener = l;
 			else
@@ -113,33 +127,74 @@ public final class EventManager {
 
 			timelistener.tickUpdate(currentTick);
 		}
+		finally {
+			lockObject.unlock();
+		}
+	}
+
+	/**
+	 * Records the model that uses this EventManager, so that it can be found from the Process
+	 * that is executing an event. A null value clears it.
+	 */
+	public final void setOwner(EventOwner o) {
+		if (o != null && o.getEventManager() != this)
+			throw new ProcessError("The owner does not use this EventManager");
+		owner = o;
+	}
+
+	public final EventOwner getOwner() {
+		return owner;
 	}
 
 	public final void setErrorListener(EventErrorListener l) {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			if (l != null)
 				errListener = l;
 			else
 				errListener = new NoopListener();
 		}
+		finally {
+			lockObject.unlock();
+		}
 	}
 
 	public final void setTraceListener(EventTraceListener l) {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			trcListener = l;
 		}
+		finally {
+			lockObject.unlock();
+		}
+	}
+
+	/**
+	 * Selects the data structure used to hold the future events. The new type is used once the
+	 * EventManager has been cleared.
+	 * @param type - future event list implementation
+	 */
+	public final void setEventListType(EventListType type) {
+		lockObject.lock();
+		try {
+			eventListType = type;
+		}
+		finally {
+			lockObject.unlock();
+		}
 	}
 
 	public void clear() {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			currentTick = 0;
 			nextTick = 0;
 			targetTick = Long.MAX_VALUE;
 			timelistener.tickUpdate(currentTick);
 			rebaseRealTime = true;
 
-			eventTree.runOnAllNodes(new KillAllEvents());
-			eventTree.reset();
+			eventList.runOnAllNodes(new KillAllEvents());
+			eventList = eventListType.newEventList();
 			clearFreeList();
 
 			for (int i = 0; i < condEvents.size(); i++) {
@@ -149,6 +204,13 @@ public final class EventManager {
 				}
 			}
 			condEvents.clear();
+			evaluatingCond = null;
+			numCondEvaluations = 0;
+			numCondSkipped = 0;
+			numEvents = 0;
+		}
+		finally {
+			lockObject.unlock();
 		}
 	}
 
@@ -218,7 +280,8 @@ public final class EventManager {
 	 * for Process objects taken out of the pool.
 	 */
 	final void execute(Process cur, ProcessTarget t) {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			// This occurs in the startProcess or interrupt case where we start
 			// a process with a target already assigned
 			if (t != null) {
@@ -234,7 +297,7 @@ public final class EventManager {
 
 			// Loop continuously
 			while (true) {
-				EventNode nextNode = eventTree.getNextNode();
+				EventNode nextNode = eventList.getNextNode();
 				if (nextNode == null ||
 				    currentTick >= targetTick) {
 					executeEvents = false;
@@ -258,6 +321,7 @@ public final class EventManager {
 					}
 
 					removeEvent(nextEvent);
+					numEvents++;
 
 					// the return from execute target informs whether or not this
 					// thread should grab an new Event, or return to the pool
@@ -274,7 +338,7 @@ public final class EventManager {
 
 				// If the next event would require us to advance the time, check the
 				// conditonal events
-				if (eventTree.getNextNode().schedTick > nextTick) {
+				if (eventList.getNextNode().schedTick > nextTick) {
 					if (condEvents.size() > 0) {
 						evaluateConditions(cur);
 						if (!executeEvents) continue;
@@ -283,7 +347,7 @@ public final class EventManager {
 					// If a conditional event was satisfied, we will have a new event at the
 					// beginning of the eventStack for the current tick, go back to the
 					// beginning, otherwise fall through to the time-advance
-					nextTick = eventTree.getNextNode().schedTick;
+					nextTick = eventList.getNextNode().schedTick;
 					if (nextTick == currentTick)
 						continue;
 				}
@@ -297,7 +361,7 @@ public final class EventManager {
 						currentTick = realTick;
 						timelistener.tickUpdate(currentTick);
 						//Halt the thread for 20ms and then reevaluate the loop
-						try { lockObject.wait(20); } catch( InterruptedException e ) {}
+						try { realTimeWait.await(20, TimeUnit.MILLISECONDS); } catch( InterruptedException e ) {}
 						continue;
 					}
 				}
@@ -316,6 +380,9 @@ public final class EventManager {
 				}
 			}
 		}
+		finally {
+			lockObject.unlock();
+		}
 	}
 
 	public void nextOneEvent() {
@@ -334,7 +401,21 @@ public final class EventManager {
 		try {
 			for (int i = 0; i < condEvents.size();) {
 				ConditionalEvent c = condEvents.get(i);
-				if (c.c.evaluate()) {
+
+				// Skip a condition whose dependencies have not changed since it was last false
+				if (!c.needsEvaluation()) {
+					numCondSkipped++;
+					i++;
+					continue;
+				}
+
+				numCondEvaluations++;
+				c.startEvaluation();
+				evaluatingCond = c;
+				boolean satisfied = c.c.evaluate();
+				evaluatingCond = null;
+
+				if (satisfied) {
 					condEvents.remove(i);
 					EventNode node = getEventNode(currentTick, 0);
 					Event evt = getEvent();
@@ -354,6 +435,7 @@ public final class EventManager {
 			}
 		}
 		catch (Throwable e) {
+			evaluatingCond = null;
 			executeEvents = false;
 			processRunning = false;
 			errListener.handleError(this, e, currentTick);
@@ -362,6 +444,60 @@ public final class EventManager {
 		cur.endCallbacks();
 	}
 
+	/**
+	 * Records that the Conditional being evaluated has read the model state followed by the given
+	 * ChangeTracker. A null tracker indicates that untracked state was read, so the condition is
+	 * evaluated again before the next advance in simulation time. Calls made while no condition
+	 * is being evaluated are ignored.
+	 * @param t - tracker for the state that was read, or null
+	 */
+	public static final void trackDependency(ChangeTracker t) {
+		Thread thread = Thread.currentThread();
+		if (!(thread instanceof Process))
+			return;
+
+		ConditionalEvent c = ((Process)thread).evt().evaluatingCond;
+		if (c != null)
+			c.addDependency(t);
+	}
+
+	/**
+	 * Returns true if a Conditional is being evaluated by the present thread, so that calls to
+	 * trackDependency() are recorded. Allows the owner of some model state to create its
+	 * ChangeTracker only when it is first needed.
+	 */
+	public static final boolean isTrackingDependencies() {
+		Thread thread = Thread.currentThread();
+		if (!(thread instanceof Process))
+			return false;
+
+		return ((Process)thread).evt().evaluatingCond != null;
+	}
+
+	/**
+	 * Returns the number of times the condition for a conditional event has been evaluated since
+	 * the EventManager was last cleared.
+	 */
+	public long getConditionEvaluations() {
+		return numCondEvaluations;
+	}
+
+	/**
+	 * Returns the number of events that have been executed since the EventManager was last
+	 * cleared.
+	 */
+	public long getEventCount() {
+		return numEvents;
+	}
+
+	/**
+	 * Returns the number of condition evaluations that were skipped because none of the model
+	 * state read by the condition had changed.
+	 */
+	public long getSkippedConditionEvaluations() {
+		return numCondSkipped;
+	}
+
 	/**
 	 * Return the simulation time corresponding the given wall clock time
 	 * @param simTime = the current simulation time used when setting a real-time basis
@@ -462,7 +598,8 @@ public final class EventManager {
 	 * @param priority the priority of the scheduled event: 1 is the highest priority (default is priority 5)
 	 */
 	private void waitTicks(Process cur, long ticks, int priority, boolean fifo, EventHandle handle) {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			cur.checkCallback();
 			long nextEventTime = calculateEventTime(ticks);
 			WaitTarget t = new WaitTarget(cur);
@@ -485,6 +622,9 @@ public final class EventManager {
 			node.addEvent(evt, fifo);
 			captureProcess(cur);
 		}
+		finally {
+			lockObject.unlock();
+		}
 	}
 
 	/**
@@ -492,7 +632,7 @@ public final class EventManager {
 	 * insert it.
 	 */
 	private EventNode getEventNode(long tick, int prio) {
-		return eventTree.createOrFindNode(tick, prio);
+		return eventList.createOrFindNode(tick, prio);
 	}
 
 	private Event freeEvents = null;
@@ -521,7 +661,8 @@ public final class EventManager {
 	 * the thread stack.
 	 */
 	private void waitUntil(Process cur, Conditional cond, EventHandle handle) {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			cur.checkCallback();
 			WaitTarget t = new WaitTarget(cur);
 			ConditionalEvent evt = new ConditionalEvent(cond, t, handle);
@@ -538,6 +679,9 @@ public final class EventManager {
 			}
 			captureProcess(cur);
 		}
+		finally {
+			lockObject.unlock();
+		}
 	}
 
 	public static final void scheduleUntil(ProcessTarget t, Conditional cond, EventHandle handle) {
@@ -546,7 +690,8 @@ public final class EventManager {
 	}
 
 	private void schedUntil(Process cur, ProcessTarget t, Conditional cond, EventHandle handle) {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			cur.checkCallback();
 			ConditionalEvent evt = new ConditionalEvent(cond, t, handle);
 			if (handle != null) {
@@ -561,6 +706,9 @@ public final class EventManager {
 				cur.endCallbacks();
 			}
 		}
+		finally {
+			lockObject.unlock();
+		}
 	}
 
 	public static final void startProcess(ProcessTarget t) {
@@ -571,7 +719,8 @@ public final class EventManager {
 	private void start(Process cur, ProcessTarget t) {
 		Process newProcess = Process.allocate(this, cur, t);
 		// Notify the eventManager that a new process has been started
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			cur.checkCallback();
 			if (trcListener != null) {
 				cur.beginCallbacks();
@@ -582,6 +731,9 @@ public final class EventManager {
 			newProcess.wake();
 			threadWait(cur);
 		}
+		finally {
+			lockObject.unlock();
+		}
 	}
 
 	/**
@@ -593,7 +745,7 @@ public final class EventManager {
 		EventNode node = evt.node;
 		node.removeEvent(evt);
 		if (node.head == null) {
-			if (!eventTree.removeNode(node.schedTick, node.priority))
+			if (!eventList.removeNode(node.schedTick, node.priority))
 				throw new ProcessError("Tried to remove an eventnode that could not be found");
 		}
 
@@ -637,7 +789,8 @@ public final class EventManager {
 	 *	Removes an event from the pending list without executing it.
 	 */
 	private void killEvent(Process cur, EventHandle handle) {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			cur.checkCallback();
 
 			// no handle given, or Handle was not scheduled, nothing to do
@@ -653,6 +806,9 @@ public final class EventManager {
 
 			t.kill();
 		}
+		finally {
+			lockObject.unlock();
+		}
 	}
 
 	private void trcKill(BaseEvent event) {
@@ -679,7 +835,8 @@ public final class EventManager {
 	 *	Removes an event from the pending list and executes it.
 	 */
 	private void interruptEvent(Process cur, EventHandle handle) {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			cur.checkCallback();
 
 			// no handle given, or Handle was not scheduled, nothing to do
@@ -700,6 +857,9 @@ public final class EventManager {
 			proc.wake();
 			threadWait(cur);
 		}
+		finally {
+			lockObject.unlock();
+		}
 	}
 
 	private void trcInterrupt(BaseEvent event) {
@@ -725,27 +885,21 @@ public final class EventManager {
 	 * onto the inactive thread stack it must be put to sleep to preserve
 	 * program ordering.
 	 * <p>
-	 * The function takes no parameters, it puts the calling thread to sleep.
-	 * This method is NOT static as it requires the use of wait() which cannot
-	 * be called from a static context
-	 * <p>
-	 * There is a synchronized block of code that will acquire the global lock
-	 * and then wait() the current thread.
+	 * The calling thread must hold the global lock. Every hold on the lock is
+	 * released while the Process is parked and re-acquired once it has been
+	 * woken, so the Process that was handed control can take the lock.
 	 */
 	private void threadWait(Process cur) {
-		// Ensure that the thread owns the global thread lock
-		try {
-			/*
-			 * Halt the thread and only wake up by being interrupted.
-			 *
-			 * The infinite loop is _absolutely_ necessary to prevent
-			 * spurious wakeups from waking us early....which causes the
-			 * model to get into an inconsistent state causing crashes.
-			 */
-			while (true) { lockObject.wait(); }
-		}
-		// Catch the exception when the thread is interrupted
-		catch( InterruptedException e ) {}
+		int holds = lockObject.getHoldCount();
+		for (int i = 0; i < holds; i++) {
+			lockObject.unlock();
+		}
+
+		cur.park();
+
+		for (int i = 0; i < holds; i++) {
+			lockObject.lock();
+		}
 		if (cur.shouldDie())
 			throw new ThreadKilledException("Thread killed");
 	}
@@ -769,7 +923,8 @@ public final class EventManager {
 	}
 
 	public void scheduleProcessExternal(long waitLength, int eventPriority, boolean fifo, ProcessTarget t, EventHandle handle) {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			long schedTick = calculateEventTime(waitLength);
 			EventNode node = getEventNode(schedTick, eventPriority);
 			Event evt = getEvent();
@@ -788,8 +943,11 @@ public final class EventManager {
 			// During real-time waits an event can be inserted becoming the next event to execute
 			// If nextTick is not updated, we can fall through the entire time update code and not
 			// execute this event, leading to the state machine becoming broken
-			if (nextTick > eventTree.getNextNode().schedTick)
-				nextTick = eventTree.getNextNode().schedTick;
+			if (nextTick > eventList.getNextNode().schedTick)
+				nextTick = eventList.getNextNode().schedTick;
+		}
+		finally {
+			lockObject.unlock();
 		}
 	}
 
@@ -864,7 +1022,8 @@ public final class EventManager {
 	 * from an inconsistent state.
 	 */
 	public void resume(long targetTicks) {
-		synchronized (lockObject) {
+		lockObject.lock();
+		try {
 			targetTick = targetTicks;
 			rebaseRealTime = true;
 			if (executeEvents)
@@ -873,6 +1032,9 @@ public final class EventManager {
 			executeEvents = true;
 			Process.processEvents(this);
 		}
+		finally {
+			lockObject.unlock();
+		}
 	}
 
 	@Override
@@ -941,7 +1103,8 @@ public final class EventManager {
 
 	/**
 	 * This whole block is a temporary crutch until we decide how access to time conversion
-	 * should be exposed.
+	 * should be exposed. Calls from a Process use the tick length of their own EventManager,
+	 * other threads use the tick length that was set most recently.
 	 */
 	private static double globalsecsPerTick = 1e-6d;
 	private static double globalticksPerSecond = Math.round(globalsecsPerTick) / 1e9d;
@@ -950,6 +1113,8 @@ public final class EventManager {
 	 * Convert the number of seconds rounded to the nearest tick. The same as EventManager.secondsToNearestTick()
 	 */
 	public static final long secsToNearestTick(double seconds) {
+		if (hasCurrent())
+			return current().secondsToNearestTick(seconds);
 		return Math.round(seconds * globalticksPerSecond);
 	}
 
@@ -957,13 +1122,15 @@ public final class EventManager {
 	 * Convert the number of ticks into a value in seconds. The same as EventManager.ticksToSeconds()
 	 */
 	public static final double ticksToSecs(long ticks) {
+		if (hasCurrent())
+			return current().ticksToSeconds(ticks);
 		return ticks * globalsecsPerTick;
 	}
 
 	public ArrayList<EventData> getEventDataList() {
 		// Unsynchronized for use by the Event Viewer
 		EventDataBuilder lb = new EventDataBuilder();
-		eventTree.runOnAllNodes(lb);
+		eventList.runOnAllNodes(lb);
 		return lb.eventDataList;
 	}
 
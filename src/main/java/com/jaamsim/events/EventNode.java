@@ -43,37 +43,37 @@ class EventNode {
 			head = e;
 			tail = e;
 			e.next = null;
+			e.prev = null;
 			return;
 		}
 
 		if (fifo) {
 			tail.next = e;
+			e.prev = tail;
 			tail = e;
 			e.next = null;
 		}
 		else {
+			head.prev = e;
 			e.next = head;
+			e.prev = null;
 			head = e;
 		}
 	}
 
 	final void removeEvent(Event evt) {
-		// quick case where we are the head event
-		if (this.head == evt) {
+		if (evt.prev == null)
 			this.head = evt.next;
-			if (evt.next == null)
-				this.tail = null;
-		}
-		else {
-			Event prev = this.head;
-			while (prev.next != evt) {
-				prev = prev.next;
-			}
-
-			prev.next = evt.next;
-			if (evt.next == null)
-				this.tail = prev;
-		}
+		else
+			evt.prev.next = evt.next;
+
+		if (evt.next == null)
+			this.tail = evt.prev;
+		else
+			evt.next.prev = evt.prev;
+
+		evt.next = null;
+		evt.prev = null;
 	}
 
 	final int compareToNode(EventNode other) {
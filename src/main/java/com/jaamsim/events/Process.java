@@ -17,6 +17,7 @@
 package com.jaamsim.events;
 
 import java.util.ArrayList;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Process is a subclass of Thread that can be managed by the discrete event
@@ -27,15 +28,24 @@ import java.util.ArrayList;
  * threads are managed by the eventManager and when a Process has completed
  * running is pooled for reuse.
  *
- * LOCKING: All state in the Process must be updated from a synchronized block
- * using the Process itself as the lock object. Care must be taken to never take
- * the eventManager's lock while holding the Process's lock as this can cause a
- * deadlock with other threads trying to wake you from the threadPool.
+ * The stack size of each thread can be set at startup with the system property
+ * jaamsim.processStackSize (in bytes, zero for the JVM default). Every waiting
+ * Process holds a thread, so a smaller stack reduces the memory used by models
+ * with many concurrently waiting entities.
+ *
+ * LOCKING: Control is handed from one Process to another by setting the wakeup
+ * flag of the next Process and unparking its thread, the Process giving up
+ * control then parks itself. The state of a Process that is waiting to be
+ * captured or resumed is only modified while holding its eventManager's lock.
+ * The state of a Process in the pool is only modified by the thread that has
+ * removed it from the pool before it is woken, the pool's lock and the volatile
+ * wakeup flag ensure that the woken thread sees the new state.
  */
 final class Process extends Thread {
 	// Properties required to manage the pool of available Processes
 	private static final ArrayList<Process> pool; // storage for all available Processes
-	private static final int maxPoolSize = 100; // Maximum number of Processes allowed to be pooled at a given time
+	private static final int initialPoolSize = 100; // Initial capacity of the pool of available Processes
+	private static final long stackSize; // Requested stack size for new Processes, zero for the JVM default
 	private static int numProcesses = 0; // Total of all created processes to date (used to name new Processes)
 
 	private EventManager eventManager; // The EventManager that is currently managing this Process
@@ -51,15 +61,18 @@ final class Process extends Thread {
 	private boolean dieFlag;
 	private boolean activeFlag;
 	private boolean inUserCallback;
+	private boolean started; // TRUE once the backing thread has been started
+	private volatile boolean wakeup; // TRUE if the Process has been woken but has not yet resumed
 
 	// Initialize the storage for the pooled Processes
 	static {
-		pool = new ArrayList<>(maxPoolSize);
+		pool = new ArrayList<>(initialPoolSize);
+		stackSize = Math.max(0L, Long.getLong("jaamsim.processStackSize", 0L));
 	}
 
 	private Process(String name) {
-		// Construct a thread with the given name
-		super(name);
+		// Construct a thread with the given name and stack size
+		super(null, null, name, stackSize);
 	}
 
 	/**
@@ -77,26 +90,21 @@ final class Process extends Thread {
 	/**
 	 * Run method invokes the method on the target with the given arguments.
 	 * A process loops endlessly after it is created executing the method on the
-	 * target set as the entry point.  After completion, it calls endProcess and
-	 * will return it to a process pool if space is available, otherwise the resources
-	 * including the backing thread will be released.
+	 * target set as the entry point.  After completion, it returns itself to the
+	 * process pool and waits to be assigned more work.
 	 *
-	 * This method is called by Process.getProcess()
+	 * The backing thread is started by the first call to wake(), so the work for
+	 * a new Process has already been assigned when this method is entered.
 	 */
 	@Override
 	public void run() {
 		while (true) {
-			waitInPool();
-
 			// Process has been woken up, execute the method we have been assigned
-			ProcessTarget t;
-			synchronized (this) {
-				evt = eventManager;
-				t = target;
-				target = null;
-				activeFlag = true;
-				hasNext = (nextProcess != null);
-			}
+			evt = eventManager;
+			ProcessTarget t = target;
+			target = null;
+			activeFlag = true;
+			hasNext = (nextProcess != null);
 
 			evt.execute(this, t);
 
@@ -104,6 +112,8 @@ final class Process extends Thread {
 			evt = null;
 			hasNext = false;
 			setup(null, null, null);
+
+			waitInPool();
 		}
 	}
 
@@ -117,24 +127,30 @@ final class Process extends Thread {
 
 	// Useful to filter pooled threads when staring at stack traces.
 	private void waitInPool() {
+		// Add ourselves to the pool and wait to be assigned work
 		synchronized (pool) {
-			// Add ourselves to the pool and wait to be assigned work
 			pool.add(this);
-			// Set the present process to sleep, and release its lock
-			// (done by pool.wait();)
-			// Note: the try/while(true)/catch construct is needed to avoid
-			// spurious wake ups allowed as of Java 5.  All legitimate wake
-			// ups are done through the InterruptedException.
-			try {
-				while (true) { pool.wait(); }
-			} catch (InterruptedException e) {}
 		}
+		park();
+	}
+
+	/**
+	 * Blocks the calling Process until it has been woken by wake().
+	 * <p>
+	 * The wakeup flag is needed to ignore the spurious returns allowed by
+	 * LockSupport.park() and to handle a wake() that occurs before the park.
+	 */
+	final void park() {
+		while (!wakeup) {
+			LockSupport.park(this);
+		}
+		wakeup = false;
 	}
 
 	/*
 	 * Setup the process state for execution.
 	 */
-	private synchronized void setup(EventManager evt, Process next, ProcessTarget targ) {
+	private void setup(EventManager evt, Process next, ProcessTarget targ) {
 		eventManager = evt;
 		nextProcess = next;
 		target = targ;
@@ -161,25 +177,15 @@ final class Process extends Thread {
 
 	// Return a process from the pool or create a new one
 	private static Process getProcess() {
-		while (true) {
-			synchronized (pool) {
-				// If there is an available process in the pool, then use it
-				if (pool.size() > 0) {
-					return pool.remove(pool.size() - 1);
-				}
-				// If there are no process in the pool, then create a new one and add it to the pool
-				else {
-					numProcesses++;
-					Process temp = new Process("processthread-" + numProcesses);
-					temp.start(); // Note: Thread.start() calls Process.run which adds the new process to the pool
-				}
+		synchronized (pool) {
+			// If there is an available process in the pool, then use it
+			if (pool.size() > 0) {
+				return pool.remove(pool.size() - 1);
 			}
 
-			// Allow the Process.run method to execute so that it can add the
-			// new process to the pool
-			// Note: that the lock on the pool has been dropped, so that the
-			// Process.run method can grab it.
-			try { Thread.sleep(10); } catch (InterruptedException e) {}
+			// Otherwise create a new Process, its thread is started when it is first woken
+			numProcesses++;
+			return new Process("processthread-" + numProcesses);
 		}
 	}
 
@@ -198,23 +204,29 @@ final class Process extends Thread {
 	 * a Process.
 	 */
 	final void wake() {
-		super.interrupt();
+		if (!started) {
+			started = true;
+			this.start();
+			return;
+		}
+		wakeup = true;
+		LockSupport.unpark(this);
 	}
 
-	synchronized void setNextProcess(Process next) {
+	void setNextProcess(Process next) {
 		nextProcess = next;
 	}
 
 	/**
 	 * Returns true if we woke a next Process, otherwise return false.
 	 */
-	synchronized final void wakeNextProcess() {
+	final void wakeNextProcess() {
 		nextProcess.wake();
 		nextProcess = null;
 		hasNext = false;
 	}
 
-	synchronized void kill() {
+	void kill() {
 		if (activeFlag)
 			throw new ProcessError("Cannot terminate an active thread");
 		dieFlag = true;
@@ -225,7 +237,7 @@ final class Process extends Thread {
 	 * This is used to tear down a live threadstack when an error is received from
 	 * the model.
 	 */
-	synchronized Process forceKillNext() {
+	Process forceKillNext() {
 		Process ret = nextProcess;
 		nextProcess = null;
 		if (ret != null) {
@@ -235,11 +247,11 @@ final class Process extends Thread {
 		return ret;
 	}
 
-	synchronized boolean shouldDie() {
+	boolean shouldDie() {
 		return dieFlag;
 	}
 
-	synchronized final Process preCapture() {
+	final Process preCapture() {
 		activeFlag = false;
 		Process ret = nextProcess;
 		nextProcess = null;
@@ -247,7 +259,7 @@ final class Process extends Thread {
 		return ret;
 	}
 
-	synchronized final void postCapture() {
+	final void postCapture() {
 		activeFlag = true;
 		hasNext = (nextProcess != null);
 	}
@@ -29,11 +29,11 @@ import com.jaamsim.units.Unit;
  * Entity AttributeDefinitionList { { AttibuteName1 Value1 Unit1 } { AttibuteName2 Value2 Unit2 } ... }
  * @author Harry King
  */
-public class AttributeDefinitionListInput extends ListInput<ArrayList<AttributeHandle>> {
+public class AttributeDefinitionListInput extends ListInput<AttributeLayout> {
 
 	private final Entity ent;
 
-	public AttributeDefinitionListInput(Entity e, String key, String cat, ArrayList<AttributeHandle> def) {
+	public AttributeDefinitionListInput(Entity e, String key, String cat, AttributeLayout def) {
 		super(key, cat, def);
 		ent = e;
 	}
@@ -43,7 +43,7 @@ public class AttributeDefinitionListInput extends ListInput<ArrayList<AttributeH
 
 		// Divide up the inputs by the inner braces
 		ArrayList<KeywordIndex> subArgs = kw.getSubArgs();
-		ArrayList<AttributeHandle> temp = new ArrayList<>(subArgs.size());
+		AttributeLayout temp = new AttributeLayout();
 
 		// Parse the inputs within each inner brace
 		for (int i = 0; i < subArgs.size(); i++) {
@@ -88,13 +88,7 @@ public class AttributeDefinitionListInput extends ListInput<ArrayList<AttributeH
 				}
 
 				// Save the data for this attribute
-				AttributeHandle h = (AttributeHandle) ent.getOutputHandle(name);
-				if (h == null)
-					h = new AttributeHandle(ent, name);
-				h.setUnitType(unitType);
-				h.setInitialValue(expVal);
-				h.setValue(expVal);
-				temp.add(h);
+				temp.add(name, unitType, expVal);
 
 			} catch (ExpError e) {
 				throw new InputErrorException(e);
@@ -112,21 +106,6 @@ public class AttributeDefinitionListInput extends ListInput<ArrayList<AttributeH
 		return Input.VALID_ATTRIB_DEF;
 	}
 
-	@Override
-	public void copyFrom(Input<?> in) {
-		super.copyFrom(in);
-		value = new ArrayList<>();
-		@SuppressWarnings("unchecked")
-		ArrayList<AttributeHandle> inValue = (ArrayList<AttributeHandle>) (in.value);
-		for (AttributeHandle h : inValue) {
-			AttributeHandle hNew = new AttributeHandle(ent, h.getName());
-			hNew.setUnitType(h.getUnitType());
-			hNew.setInitialValue(h.getInitialValue());
-			hNew.setValue(h.getValue(0.0d, ExpResult.class));
-			value.add(hNew);
-		}
-	}
-
 	@Override
 	public int getListSize() {
 		if (value == null)
@@ -137,7 +116,7 @@ public class AttributeDefinitionListInput extends ListInput<ArrayList<AttributeH
 
 	@Override
 	public String getDefaultString() {
-		if (defValue == null || defValue.isEmpty())
+		if (defValue == null || defValue.size() == 0)
 			return "";
 
 		return defValue.toString();
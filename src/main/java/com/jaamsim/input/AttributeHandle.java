@@ -17,34 +17,39 @@
 package com.jaamsim.input;
 
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.units.Unit;
 
+/**
+ * Provides access to a user defined attribute through the OutputHandle interface. The value of
+ * the attribute is held by the entity, so the handle remains valid if the attribute is assigned.
+ */
 public class AttributeHandle extends OutputHandle {
 	private final String attributeName;
-	private ExpResult initialValue;
-	private ExpResult value;
 
 	public AttributeHandle(Entity e, String outputName) {
 		super(e);
 		this.attributeName = outputName;
 	}
 
-	public void setInitialValue(ExpResult val) {
-		initialValue = val;
-	}
-
+	/**
+	 * Returns the initial value of the attribute, or null if the entity no longer has an
+	 * attribute with this name.
+	 */
 	public ExpResult getInitialValue() {
-		return initialValue.getCopy();
+		AttributeLayout layout = ent.getAttributeLayout();
+		int slot = layout.getSlot(attributeName);
+		if (slot < 0)
+			return null;
+		return layout.getInitialValue(slot);
 	}
 
 	public void setValue(ExpResult val) {
-		value = val;
+		ent.setAttribute(attributeName, null, val);
 	}
 
 	@Override
 	public <T> T getValue(double simTime, Class<T> klass) {
-		if (!ent.hasAttribute(attributeName)) {
-			return null;
-		}
+		ExpResult value = ent.getAttribute(attributeName);
 		if (value == null) {
 			return null;
 		}
@@ -53,12 +58,18 @@ public class AttributeHandle extends OutputHandle {
 
 	@Override
 	public double getValueAsDouble(double simTime, double def) {
-		if (value.type == ExpResType.NUMBER)
+		ExpResult value = ent.getAttribute(attributeName);
+		if (value != null && value.type == ExpResType.NUMBER)
 			return value.value;
 		else
 			return def;
 	}
 
+	@Override
+	public Class<? extends Unit> getUnitType() {
+		return ent.getAttributeUnitType(attributeName);
+	}
+
 	@Override
 	public Class<?> getReturnType() {
 		return ExpResult.class;
@@ -88,4 +99,11 @@ public class AttributeHandle extends OutputHandle {
 		return false;
 	}
 
+	@Override
+	public void trackDependency() {
+		int slot = ent.getAttributeLayout().getSlot(attributeName);
+		if (slot >= 0)
+			ent.trackAttribute(slot);
+	}
+
 }
@@ -0,0 +1,93 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.jaamsim.units.Unit;
+
+/**
+ * The names, unit types, and initial values of the attributes defined by an
+ * AttributeDefinitionList input. Each attribute is assigned a slot, which is its position in the
+ * list, and an entity stores the present values of its attributes in arrays indexed by slot.
+ * <p>
+ * A layout is not changed once it has been created, so it is shared by each entity whose input
+ * was copied from the same source, such as the entities generated from a prototype.
+ */
+public class AttributeLayout {
+
+	public static final AttributeLayout EMPTY = new AttributeLayout();
+
+	private final ArrayList<String> names = new ArrayList<>();
+	private final ArrayList<Class<? extends Unit>> unitTypes = new ArrayList<>();
+	private final ArrayList<ExpResult> initialValues = new ArrayList<>();
+	private final HashMap<String, Integer> slots = new HashMap<>();
+
+	AttributeLayout() {}
+
+	/**
+	 * Adds an attribute to the end of the layout. An attribute that has already been added keeps
+	 * its slot, and is given the new unit type and initial value.
+	 */
+	void add(String name, Class<? extends Unit> unitType, ExpResult initialValue) {
+		Integer slot = slots.get(name);
+		if (slot != null) {
+			unitTypes.set(slot, unitType);
+			initialValues.set(slot, initialValue);
+			return;
+		}
+		slots.put(name.intern(), names.size());
+		names.add(name);
+		unitTypes.add(unitType);
+		initialValues.add(initialValue);
+	}
+
+	public int size() {
+		return names.size();
+	}
+
+	/**
+	 * Returns the slot for the attribute with the given name, or -1 if there is no such attribute.
+	 */
+	public int getSlot(String name) {
+		Integer ret = slots.get(name);
+		if (ret == null)
+			return -1;
+		return ret;
+	}
+
+	public String getName(int slot) {
+		return names.get(slot);
+	}
+
+	public Class<? extends Unit> getUnitType(int slot) {
+		return unitTypes.get(slot);
+	}
+
+	/**
+	 * Returns the initial value for the attribute. A collection is copied, so that the value
+	 * can be modified without changing the layout.
+	 */
+	public ExpResult getInitialValue(int slot) {
+		return initialValues.get(slot).getCopy();
+	}
+
+	public ArrayList<String> getNames() {
+		return new ArrayList<>(names);
+	}
+}
@@ -0,0 +1,274 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the records of a configuration file, and of the files it includes, after they have
+ * been tokenized. A compiled configuration is read by memory-mapping the file, and its records
+ * are processed without reading or tokenizing the source files.
+ * <p>
+ * The compiled file holds the size, modification time, and CRC32 checksum of each source file.
+ * A source file whose size and modification time are unchanged is not read. Otherwise, its
+ * checksum is calculated and, if it has changed, the compiled file is out of date and the text
+ * files must be read instead.
+ */
+class CompiledConfig {
+	private static final int MAGIC = 0x4A534343; // "JSCC"
+	private static final int VERSION = 2;
+
+	final ArrayList<ParseContext> sources = new ArrayList<>();
+	private final ArrayList<Long> sizes = new ArrayList<>();
+	private final ArrayList<Long> modTimes = new ArrayList<>();
+	private final ArrayList<Long> checksums = new ArrayList<>();
+	final ArrayList<ArrayList<String>> records = new ArrayList<>();
+	final ArrayList<Integer> recordSources = new ArrayList<>();
+
+	// Position of each source in the list of sources while the records are being added
+	private final IdentityHashMap<ParseContext, Integer> sourceIndex = new IdentityHashMap<>();
+
+	/**
+	 * Adds a source file, so that it is checked for changes even if it has no records.
+	 */
+	void addSource(ParseContext pc) {
+		if (sourceIndex.containsKey(pc))
+			return;
+		sourceIndex.put(pc, sources.size());
+		sources.add(pc);
+	}
+
+	/**
+	 * Adds a record that was read from the source with the given context.
+	 */
+	void addRecord(ParseContext pc, ArrayList<String> record) {
+		addSource(pc);
+		records.add(new ArrayList<>(record));
+		recordSources.add(sourceIndex.get(pc));
+	}
+
+	/**
+	 * Returns the context of the first source, which is the configuration file itself.
+	 */
+	URI getConfigURI() {
+		if (sources.isEmpty())
+			return null;
+		return sources.get(0).context;
+	}
+
+	private static long getChecksum(URI uri) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buf = new byte[65536];
+		try (InputStream in = uri.toURL().openStream()) {
+			while (true) {
+				int n = in.read(buf);
+				if (n < 0)
+					break;
+				crc.update(buf, 0, n);
+			}
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Returns the local file for the given source, or null if the source is not a file.
+	 */
+	private static File getSourceFile(URI uri) {
+		if (!"file".equals(uri.getScheme()))
+			return null;
+		return new File(uri);
+	}
+
+	/**
+	 * Returns true if none of the source files have changed since the compiled file was written.
+	 */
+	boolean isCurrent() {
+		try {
+			for (int i = 0; i < sources.size(); i++) {
+				URI uri = sources.get(i).context;
+				File file = getSourceFile(uri);
+				if (file != null && file.length() == sizes.get(i) && file.lastModified() == modTimes.get(i))
+					continue;
+				if (getChecksum(uri) != checksums.get(i))
+					return false;
+			}
+			return true;
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Writes the records to the given file. The tokens are written once to a string table,
+	 * and each record is written as a list of positions in the table.
+	 * <p>
+	 * The records are written to a temporary file that then replaces the given file, so that
+	 * a compiled file that is being read is never partly overwritten.
+	 */
+	void write(File file) throws IOException {
+		File temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+		try {
+			writeRecords(temp);
+			try {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			temp.delete();
+		}
+	}
+
+	private void writeRecords(File file) throws IOException {
+		HashMap<String, Integer> stringIndex = new HashMap<>();
+		ArrayList<String> strings = new ArrayList<>();
+		for (ArrayList<String> record : records) {
+			for (String tok : record) {
+				if (!stringIndex.containsKey(tok)) {
+					stringIndex.put(tok, strings.size());
+					strings.add(tok);
+				}
+			}
+		}
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+
+			out.writeInt(sources.size());
+			for (ParseContext pc : sources) {
+				writeString(out, pc.context.toString());
+				writeString(out, pc.jail);
+				File source = getSourceFile(pc.context);
+				out.writeLong(source == null ? -1L : source.length());
+				out.writeLong(source == null ? -1L : source.lastModified());
+				out.writeLong(getChecksum(pc.context));
+			}
+
+			out.writeInt(strings.size());
+			for (String str : strings) {
+				writeString(out, str);
+			}
+
+			out.writeInt(records.size());
+			for (int i = 0; i < records.size(); i++) {
+				ArrayList<String> record = records.get(i);
+				out.writeInt(recordSources.get(i));
+				out.writeInt(record.size());
+				for (String tok : record) {
+					out.writeInt(stringIndex.get(tok));
+				}
+			}
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String str) throws IOException {
+		if (str == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(str.length());
+		out.writeChars(str);
+	}
+
+	private static String readString(ByteBuffer buf) {
+		int len = buf.getInt();
+		if (len == -1)
+			return null;
+		char[] chars = new char[len];
+		buf.asCharBuffer().get(chars);
+		buf.position(buf.position() + 2*len);
+		return new String(chars);
+	}
+
+	/**
+	 * Reads a compiled configuration from the given file.
+	 * @return the compiled configuration, or null if the file does not exist or is not valid
+	 */
+	static CompiledConfig read(File file) {
+		if (!file.isFile())
+			return null;
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+		     FileChannel channel = raf.getChannel()) {
+			MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buf.getInt() != MAGIC || buf.getInt() != VERSION)
+				return null;
+
+			CompiledConfig ret = new CompiledConfig();
+			int numSources = buf.getInt();
+			for (int i = 0; i < numSources; i++) {
+				URI uri = new URI(readString(buf));
+				String jail = readString(buf);
+				ret.sources.add(new ParseContext(uri, jail));
+				ret.sizes.add(buf.getLong());
+				ret.modTimes.add(buf.getLong());
+				ret.checksums.add(buf.getLong());
+			}
+
+			// The brace tokens are the same String objects as those returned by Parser.tokenize
+			String[] strings = new String[buf.getInt()];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = readString(buf);
+				if (strings[i].equals("{"))
+					strings[i] = "{";
+				else if (strings[i].equals("}"))
+					strings[i] = "}";
+			}
+
+			int numRecords = buf.getInt();
+			ret.records.ensureCapacity(numRecords);
+			ret.recordSources.ensureCapacity(numRecords);
+			for (int i = 0; i < numRecords; i++) {
+				ret.recordSources.add(buf.getInt());
+				int numTokens = buf.getInt();
+				ArrayList<String> record = new ArrayList<>(numTokens);
+				for (int j = 0; j < numTokens; j++) {
+					record.add(strings[buf.getInt()]);
+				}
+				ret.records.add(record);
+			}
+			return ret;
+		}
+		catch (IOException | URISyntaxException | BufferUnderflowException | IndexOutOfBoundsException e) {
+			return null;
+		}
+	}
+}
@@ -23,6 +23,7 @@ import java.util.Map;
 
 import com.jaamsim.datatypes.DoubleVector;
 import com.jaamsim.datatypes.IntegerVector;
+import com.jaamsim.datatypes.PersistentVector;
 import com.jaamsim.input.ExpResult.Iterator;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
@@ -80,35 +81,36 @@ public class ExpCollections {
 		return null;
 	}
 
-	public static ExpResult makeExpressionCollection(ArrayList<ExpResult> vals, boolean constExp) {
-		return ExpResult.makeCollectionResult(new AssignableArrayCollection(vals, constExp));
+	public static ExpResult makeExpressionCollection(ArrayList<ExpResult> vals) {
+		return ExpResult.makeCollectionResult(new AssignableArrayCollection(PersistentVector.from(vals)));
 	}
 
-	public static ExpResult appendCollections(ExpResult.Collection c0, ExpResult.Collection c1) throws ExpError {
-		ArrayList<ExpResult> res = new ArrayList<>();
-		ExpResult.Iterator it = c0.getIter();
-		while (it.hasNext()) {
-			ExpResult val = c0.index(it.nextKey());
-			res.add(val);
-		}
-		it = c1.getIter();
-		while (it.hasNext()) {
-			ExpResult val = c1.index(it.nextKey());
-			res.add(val);
-		}
-		return ExpResult.makeCollectionResult(new AssignableArrayCollection(res, false));
+	// Returns the elements of a collection as a vector, which is shared if possible
+	private static PersistentVector<ExpResult> getVector(ExpResult.Collection col) throws ExpError {
+		if (col instanceof AssignableArrayCollection)
+			return ((AssignableArrayCollection)col).vector;
+
+		return addToVector(PersistentVector.<ExpResult>empty(), col);
 	}
 
-	public static ExpResult appendToCollection(ExpResult.Collection col, ExpResult val) throws ExpError {
-		ArrayList<ExpResult> res = new ArrayList<>();
+	private static PersistentVector<ExpResult> addToVector(PersistentVector<ExpResult> vec, ExpResult.Collection col) throws ExpError {
+		PersistentVector<ExpResult> ret = vec;
 		ExpResult.Iterator it = col.getIter();
 		while (it.hasNext()) {
-			ExpResult v = col.index(it.nextKey());
-			res.add(v);
+			ExpResult val = col.index(it.nextKey());
+			ret = ret.add(val);
 		}
-		res.add(val);
+		return ret;
+	}
+
+	public static ExpResult appendCollections(ExpResult.Collection c0, ExpResult.Collection c1) throws ExpError {
+		PersistentVector<ExpResult> res = addToVector(getVector(c0), c1);
+		return ExpResult.makeCollectionResult(new AssignableArrayCollection(res));
+	}
 
-		return ExpResult.makeCollectionResult(new AssignableArrayCollection(res, false));
+	public static ExpResult appendToCollection(ExpResult.Collection col, ExpResult val) throws ExpError {
+		PersistentVector<ExpResult> res = getVector(col).add(val);
+		return ExpResult.makeCollectionResult(new AssignableArrayCollection(res));
 	}
 
 	private static class ListCollection implements ExpResult.Collection {
@@ -573,14 +575,17 @@ public class ExpCollections {
 			return this;
 		}
 	}
+	/**
+	 * An array created by an expression. The array is not modified by an assignment, which
+	 * returns a new array that shares most of its storage with the original. An array can
+	 * therefore be held by any number of attributes without being copied.
+	 */
 	private static class AssignableArrayCollection implements ExpResult.Collection {
 
-		private final ArrayList<ExpResult> list;
-		private final boolean isConstExp;
+		private final PersistentVector<ExpResult> vector;
 
-		public AssignableArrayCollection(ArrayList<ExpResult> vals, boolean constExp) {
-			list = new ArrayList<>(vals);
-			isConstExp = constExp;
+		public AssignableArrayCollection(PersistentVector<ExpResult> vals) {
+			vector = vals;
 		}
 
 		@Override
@@ -591,21 +596,15 @@ public class ExpCollections {
 
 			int indexVal = (int)index.value - 1; // Expressions use 1-base arrays
 
-			if (indexVal >= list.size()  || indexVal < 0) {
+			if (indexVal >= vector.size()  || indexVal < 0) {
 				return ExpResult.makeNumResult(0, DimensionlessUnit.class); // TODO: Is this how we want to handle this case?
 			}
-			return list.get(indexVal);
+			return vector.get(indexVal);
 		}
 
 		@Override
 		public ExpResult.Collection assign(ExpResult index, ExpResult value) throws ExpError {
 
-			if (isConstExp) {
-				// This version is a constant, and therefore shareable. Create a new modifiable copy.
-				ExpResult.Collection copy = getCopy();
-				return copy.assign(index,  value);
-			}
-
 			if (index.type != ExpResType.NUMBER) {
 				throw new ExpError(null, 0, "Assignment is not being indexed by a number");
 			}
@@ -613,29 +612,30 @@ public class ExpCollections {
 			if (indexVal < 0) {
 				throw new ExpError(null, 0, "Attempting to assign to a negative number: %d", indexVal);
 			}
-			if (indexVal >= list.size()) {
-				// This is a dynamically expanding list, so fill in until we get to the index
-				ExpResult filler = ExpResult.makeNumResult(0, DimensionlessUnit.class);
-				list.ensureCapacity(indexVal+1);
-				for (int i = list.size(); i <= indexVal; ++i) {
-					list.add(filler);
-				}
+			if (indexVal < vector.size()) {
+				return new AssignableArrayCollection(vector.set(indexVal, value));
 			}
-			list.set(indexVal, value);
-			return this;
+
+			// This is a dynamically expanding list, so fill in until we get to the index
+			PersistentVector<ExpResult> ret = vector;
+			ExpResult filler = ExpResult.makeNumResult(0, DimensionlessUnit.class);
+			while (ret.size() < indexVal) {
+				ret = ret.add(filler);
+			}
+			return new AssignableArrayCollection(ret.add(value));
 		}
 
 		private static class Iter implements ExpResult.Iterator {
 
 			private int next = 0;
-			private final List<?> list;
-			public Iter(List<?> l) {
-				this.list = l;
+			private final int size;
+			public Iter(int size) {
+				this.size = size;
 			}
 
 			@Override
 			public boolean hasNext() {
-				return next < list.size();
+				return next < size;
 			}
 
 			@Override
@@ -648,36 +648,30 @@ public class ExpCollections {
 
 		@Override
 		public Iterator getIter() {
-			return new Iter(list);
+			return new Iter(vector.size());
 		}
 
 		@Override
 		public int getSize() {
-			return list.size();
+			return vector.size();
 		}
 		@Override
 		public String getOutputString() {
-			try {
-				StringBuilder sb = new StringBuilder();
-				sb.append("{");
-				for (int i = 0; i < list.size(); ++i) {
-					ExpResult val = index(ExpResult.makeNumResult(i+1, DimensionlessUnit.class));
-					sb.append(val.getOutputString());
-					if (i < list.size() -1) {
-						sb.append(", ");
-					}
+			StringBuilder sb = new StringBuilder();
+			sb.append("{");
+			for (int i = 0; i < vector.size(); ++i) {
+				sb.append(vector.get(i).getOutputString());
+				if (i < vector.size() -1) {
+					sb.append(", ");
 				}
-				sb.append("}");
-				return sb.toString();
-
-			} catch (ExpError err) {
-				return String.format("An error occurred: %s", err.getMessage());
 			}
+			sb.append("}");
+			return sb.toString();
 		}
 
 		@Override
 		public ExpResult.Collection getCopy() {
-			return new AssignableArrayCollection(list, false);
+			return this;
 		}
 
 	}
@@ -188,6 +188,12 @@ public class ExpEvaluator {
 			if (constEnt.entVal == null) {
 				throw new ExpError(null, 0, "Trying to resolve output on null entity");
 			}
+
+			// An attribute's slot is found now, and is used for any entity with the same layout
+			if (constEnt.entVal.hasAttribute(name)) {
+				return new EntityResolver(name, constEnt.entVal.getAttributeLayout());
+			}
+
 			OutputHandle oh = constEnt.entVal.getOutputHandle(name);
 
 			if (oh == null) {
@@ -215,7 +221,7 @@ public class ExpEvaluator {
 
 	}
 
-	private static class CachedResolver implements ExpParser.OutputResolver {
+	private static class CachedResolver implements ExpParser.NumOutputResolver {
 
 		private final OutputHandle handle;
 		private final ExpResType type;
@@ -242,6 +248,7 @@ public class ExpEvaluator {
 				simTime = eec.simTime;
 			}
 
+			handle.trackDependency();
 			switch (type) {
 			case NUMBER:
 				double val = handle.getValueAsDouble(simTime, 0);
@@ -258,6 +265,18 @@ public class ExpEvaluator {
 			}
 		}
 
+		@Override
+		public double resolveNumber(EvalContext ec, ExpResult ent) throws ExpError {
+			double simTime = 0;
+			if (ec != null) {
+				EntityEvalContext eec = (EntityEvalContext)ec;
+				simTime = eec.simTime;
+			}
+
+			handle.trackDependency();
+			return handle.getValueAsDouble(simTime, 0);
+		}
+
 		@Override
 		public ExpValResult validate(ExpValResult entValRes) {
 			if (handle == null) {
@@ -275,14 +294,37 @@ public class ExpEvaluator {
 
 	}
 
+	/**
+	 * The slot for an attribute in a specific attribute layout. A slot of -1 indicates that the
+	 * layout has no attribute with the given name.
+	 */
+	private static final class AttributeSlot {
+		final AttributeLayout layout;
+		final int slot;
+
+		AttributeSlot(AttributeLayout layout, String name) {
+			this.layout = layout;
+			slot = layout.getSlot(name);
+		}
+	}
+
 	private static class EntityResolver implements ExpParser.OutputResolver {
 
 		private final String outputName;
 
+		// Slot for the layout of the last entity whose output was resolved. Entities generated
+		// from the same prototype share a layout, so the slot is normally found only once.
+		private AttributeSlot attribSlot;
+
 		public EntityResolver(String name) {
 			outputName = name.intern();
 		}
 
+		public EntityResolver(String name, AttributeLayout layout) {
+			this(name);
+			attribSlot = new AttributeSlot(layout, outputName);
+		}
+
 		@Override
 		public ExpResult resolve(EvalContext ec, ExpResult entRes) throws ExpError {
 
@@ -300,12 +342,25 @@ public class ExpEvaluator {
 			if (ent == null) {
 				throw new ExpError(null, 0, "Trying to resolve output on null entity");
 			}
+			entRes.checkEntityGeneration();
+
+			AttributeLayout layout = ent.getAttributeLayout();
+			AttributeSlot as = attribSlot;
+			if (as == null || as.layout != layout) {
+				as = new AttributeSlot(layout, outputName);
+				attribSlot = as;
+			}
+			if (as.slot >= 0) {
+				ent.trackAttribute(as.slot);
+				return ent.getAttribute(as.slot);
+			}
 
 			OutputHandle oh = ent.getOutputHandleInterned(outputName);
 			if (oh == null) {
 				throw new ExpError(null, 0, "Could not find output '%s' on entity '%s'", outputName, ent.getName());
 			}
 
+			oh.trackDependency();
 			ExpResult res = getResultFromOutput(oh, simTime);
 
 			if (res == null)
@@ -331,8 +386,10 @@ public class ExpEvaluator {
 	private static class EntityAssigner implements ExpParser.Assigner {
 
 		private final String attribName;
+		private AttributeSlot attribSlot; // slot for the layout of the last entity assigned
+
 		EntityAssigner(String attribName) {
-			this.attribName = attribName;
+			this.attribName = attribName.intern();
 		}
 
 		@Override
@@ -344,8 +401,20 @@ public class ExpEvaluator {
 			if (assignEnt == null) {
 				throw new ExpError(null, 0, "Trying to assign to a null entity");
 			}
+			ent.checkEntityGeneration();
+
+			AttributeLayout layout = assignEnt.getAttributeLayout();
+			AttributeSlot as = attribSlot;
+			if (as == null || as.layout != layout) {
+				as = new AttributeSlot(layout, attribName);
+				attribSlot = as;
+			}
+			if (as.slot < 0) {
+				assignEnt.setAttribute(attribName, index, val);
+				return;
+			}
 
-			assignEnt.setAttribute(attribName, index, val);
+			assignEnt.setAttribute(as.slot, index, val);
 		}
 
 	}
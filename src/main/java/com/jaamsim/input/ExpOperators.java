@@ -26,6 +26,10 @@ import com.jaamsim.input.ExpParser.CallableFunc;
 import com.jaamsim.input.ExpParser.EvalContext;
 import com.jaamsim.input.ExpParser.LambdaClosure;
 import com.jaamsim.input.ExpParser.LazyBinOpFunc;
+import com.jaamsim.input.ExpParser.NumBinOpFunc;
+import com.jaamsim.input.ExpParser.NumLazyBinOpFunc;
+import com.jaamsim.input.ExpParser.NumNode;
+import com.jaamsim.input.ExpParser.NumUnOpFunc;
 import com.jaamsim.input.ExpParser.ParseContext;
 import com.jaamsim.input.ExpParser.UnOpFunc;
 import com.jaamsim.units.AngleUnit;
@@ -1863,7 +1867,10 @@ public class ExpOperators {
 			}
 			@Override
 			public ExpValResult validate(ParseContext context, ExpValResult[] args, String source, int pos) {
-				return validateSingleArgDimensionless(context, args[0], source, pos);
+				ExpValResult res = validateSingleArgDimensionless(context, args[0], source, pos);
+				if (res.state != ExpValResult.State.VALID)
+					return res;
+				return ExpValResult.makeValidRes(ExpResType.NUMBER, AngleUnit.class);
 			}
 		});
 
@@ -1880,7 +1887,10 @@ public class ExpOperators {
 			}
 			@Override
 			public ExpValResult validate(ParseContext context, ExpValResult[] args, String source, int pos) {
-				return validateSingleArgDimensionless(context, args[0], source, pos);
+				ExpValResult res = validateSingleArgDimensionless(context, args[0], source, pos);
+				if (res.state != ExpValResult.State.VALID)
+					return res;
+				return ExpValResult.makeValidRes(ExpResType.NUMBER, AngleUnit.class);
 			}
 		});
 
@@ -1897,7 +1907,10 @@ public class ExpOperators {
 			}
 			@Override
 			public ExpValResult validate(ParseContext context, ExpValResult[] args, String source, int pos) {
-				return validateSingleArgDimensionless(context, args[0], source, pos);
+				ExpValResult res = validateSingleArgDimensionless(context, args[0], source, pos);
+				if (res.state != ExpValResult.State.VALID)
+					return res;
+				return ExpValResult.makeValidRes(ExpResType.NUMBER, AngleUnit.class);
 			}
 		});
 
@@ -1934,7 +1947,7 @@ public class ExpOperators {
 					return ExpValResult.makeErrorRes(error);
 				}
 
-				return ExpValResult.makeValidRes(ExpResType.NUMBER, DimensionlessUnit.class);
+				return ExpValResult.makeValidRes(ExpResType.NUMBER, AngleUnit.class);
 			}
 		});
 
@@ -2018,6 +2031,269 @@ public class ExpOperators {
 			}
 		});
 
+		initNumOperatorsAndFuncs();
+	}
+
+	/**
+	 * Adds the numerical versions of the operators and functions that are used in compiled
+	 * expressions. Each one must return the same value as the ExpResult version when its
+	 * arguments are validated numbers.
+	 */
+	private static void initNumOperatorsAndFuncs() {
+
+		////////////////////////////////////////////////////
+		// Unary Operators
+		ExpParser.setNumUnaryOp("-", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return -val;
+			}
+		});
+
+		ExpParser.setNumUnaryOp("+", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return val;
+			}
+		});
+
+		ExpParser.setNumUnaryOp("!", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return val == 0 ? 1 : 0;
+			}
+		});
+
+		////////////////////////////////////////////////////
+		// Binary operators
+		ExpParser.setNumBinaryOp("+", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return lval + rval;
+			}
+		});
+
+		ExpParser.setNumBinaryOp("-", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return lval - rval;
+			}
+		});
+
+		ExpParser.setNumBinaryOp("*", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return lval * rval;
+			}
+		});
+
+		ExpParser.setNumBinaryOp("/", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return lval / rval;
+			}
+		});
+
+		ExpParser.setNumBinaryOp("^", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return Math.pow(lval, rval);
+			}
+		});
+
+		ExpParser.setNumBinaryOp("%", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return lval % rval;
+			}
+		});
+
+		ExpParser.setNumBinaryOp("==", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return lval == rval ? 1 : 0;
+			}
+		});
+
+		ExpParser.setNumBinaryOp("!=", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return lval != rval ? 1 : 0;
+			}
+		});
+
+		ExpParser.setNumLazyBinaryOp("&&", new NumLazyBinOpFunc() {
+			@Override
+			public double apply(EvalContext ec, NumNode lval, NumNode rval) throws ExpError {
+				if (lval.evaluate(ec) == 0)
+					return 0;
+				return rval.evaluate(ec) != 0 ? 1 : 0;
+			}
+		});
+
+		ExpParser.setNumLazyBinaryOp("||", new NumLazyBinOpFunc() {
+			@Override
+			public double apply(EvalContext ec, NumNode lval, NumNode rval) throws ExpError {
+				if (lval.evaluate(ec) != 0)
+					return 1;
+				return rval.evaluate(ec) != 0 ? 1 : 0;
+			}
+		});
+
+		ExpParser.setNumBinaryOp("<", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return lval < rval ? 1 : 0;
+			}
+		});
+
+		ExpParser.setNumBinaryOp("<=", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return lval <= rval ? 1 : 0;
+			}
+		});
+
+		ExpParser.setNumBinaryOp(">", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return lval > rval ? 1 : 0;
+			}
+		});
+
+		ExpParser.setNumBinaryOp(">=", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return lval >= rval ? 1 : 0;
+			}
+		});
+
+		////////////////////////////////////////////////////
+		// Functions
+		ExpParser.setNumFunction("max", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return rval > lval ? rval : lval;
+			}
+		});
+
+		ExpParser.setNumFunction("min", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return rval < lval ? rval : lval;
+			}
+		});
+
+		ExpParser.setNumFunction("abs", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.abs(val);
+			}
+		});
+
+		ExpParser.setNumFunction("ceil", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.ceil(val);
+			}
+		});
+
+		ExpParser.setNumFunction("floor", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.floor(val);
+			}
+		});
+
+		ExpParser.setNumFunction("signum", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.signum(val);
+			}
+		});
+
+		ExpParser.setNumFunction("sqrt", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.sqrt(val);
+			}
+		});
+
+		ExpParser.setNumFunction("cbrt", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.cbrt(val);
+			}
+		});
+
+		ExpParser.setNumFunction("sin", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.sin(val);
+			}
+		});
+
+		ExpParser.setNumFunction("cos", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.cos(val);
+			}
+		});
+
+		ExpParser.setNumFunction("tan", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.tan(val);
+			}
+		});
+
+		ExpParser.setNumFunction("asin", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.asin(val);
+			}
+		});
+
+		ExpParser.setNumFunction("acos", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.acos(val);
+			}
+		});
+
+		ExpParser.setNumFunction("atan", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.atan(val);
+			}
+		});
+
+		ExpParser.setNumFunction("atan2", new NumBinOpFunc() {
+			@Override
+			public double apply(double lval, double rval) {
+				return Math.atan2(lval, rval);
+			}
+		});
 
+		ExpParser.setNumFunction("exp", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.exp(val);
+			}
+		});
+
+		ExpParser.setNumFunction("ln", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.log(val);
+			}
+		});
+
+		ExpParser.setNumFunction("log", new NumUnOpFunc() {
+			@Override
+			public double apply(double val) {
+				return Math.log10(val);
+			}
+		});
 	}
 }
@@ -61,6 +61,26 @@ public class ExpParser {
 		public void assign(ExpResult ent, ExpResult index, ExpResult val) throws ExpError;
 	}
 
+	public interface NumUnOpFunc {
+		public double apply(double val);
+	}
+
+	public interface NumBinOpFunc {
+		public double apply(double lval, double rval);
+	}
+
+	public interface NumLazyBinOpFunc {
+		public double apply(EvalContext ec, NumNode lval, NumNode rval) throws ExpError;
+	}
+
+	/**
+	 * An OutputResolver that can return a numerical output without creating an ExpResult.
+	 * Only used when the resolver's validate() method returns a valid number.
+	 */
+	public interface NumOutputResolver extends OutputResolver {
+		public double resolveNumber(EvalContext ec, ExpResult ent) throws ExpError;
+	}
+
 	private static class ParseClosure {
 		public HashMap<String, ExpResult> parseConstants = new HashMap<>();
 		public ArrayList<String> freeVars = new ArrayList<>();
@@ -563,10 +583,7 @@ public class ExpParser {
 				for (ExpNode e : values) {
 					res.add(e.evaluate(ec));
 				}
-				// Using the heuristic that if the eval context is null, this is probably an evaluation as part of constant folding
-				// even if this is wrong, the behavior will be correct, but possibly a bit slower
-				boolean isConstant = ec == null;
-				return ExpCollections.makeExpressionCollection(res, isConstant);
+				return ExpCollections.makeExpressionCollection(res);
 			} catch (ExpError ex) {
 				throw fixError(ex, exp.source, tokenPos);
 			}
@@ -944,6 +961,7 @@ public class ExpParser {
 	private static class UnaryOpEntry {
 		public String symbol;
 		public UnOpFunc function;
+		public NumUnOpFunc numFunction;
 		public double bindingPower;
 	}
 
@@ -951,6 +969,8 @@ public class ExpParser {
 		public String symbol;
 		public BinOpFunc function;
 		public LazyBinOpFunc lazyFunction;
+		public NumBinOpFunc numFunction;
+		public NumLazyBinOpFunc numLazyFunction;
 		public double bindingPower;
 		public boolean rAssoc;
 		public boolean isLazy;
@@ -959,6 +979,8 @@ public class ExpParser {
 	private static class FunctionEntry {
 		public String name;
 		public CallableFunc function;
+		public NumUnOpFunc numFunction;
+		public NumBinOpFunc numBinFunction;
 		public int numMinArgs;
 		public int numMaxArgs;
 	}
@@ -1004,6 +1026,42 @@ public class ExpParser {
 		functions.add(fe);
 	}
 
+	/**
+	 * Sets the numerical version of a unary operator, used when compiling an expression.
+	 */
+	public static void setNumUnaryOp(String symbol, NumUnOpFunc func) {
+		getUnaryOp(symbol).numFunction = func;
+	}
+
+	/**
+	 * Sets the numerical version of a binary operator, used when compiling an expression.
+	 */
+	public static void setNumBinaryOp(String symbol, NumBinOpFunc func) {
+		getBinaryOp(symbol).numFunction = func;
+	}
+
+	/**
+	 * Sets the numerical version of a lazy binary operator, used when compiling an expression.
+	 */
+	public static void setNumLazyBinaryOp(String symbol, NumLazyBinOpFunc func) {
+		getBinaryOp(symbol).numLazyFunction = func;
+	}
+
+	/**
+	 * Sets the numerical version of a function with one argument.
+	 */
+	public static void setNumFunction(String name, NumUnOpFunc func) {
+		getFunctionEntry(name).numFunction = func;
+	}
+
+	/**
+	 * Sets the numerical version of a function with two or more arguments. A function that
+	 * accepts more than two arguments applies func to them in turn, from left to right.
+	 */
+	public static void setNumFunction(String name, NumBinOpFunc func) {
+		getFunctionEntry(name).numBinFunction = func;
+	}
+
 	private static UnaryOpEntry getUnaryOp(String symbol) {
 		for (UnaryOpEntry oe: unaryOps) {
 			if (oe.symbol.equals(symbol))
@@ -1157,6 +1215,325 @@ public class ExpParser {
 	}
 	private static RuntimeCheckOptimizer RTC_OP = new RuntimeCheckOptimizer();
 
+	////////////////////////////////////////////////////////////////////
+	// Numerical compilation
+
+	/**
+	 * A node in a compiled expression tree. It returns a number directly, without creating
+	 * an ExpResult for each intermediate value.
+	 */
+	public abstract static class NumNode {
+		public abstract double evaluate(EvalContext ec) throws ExpError;
+	}
+
+	private static class NumConstant extends NumNode {
+		private final double val;
+		NumConstant(double val) {
+			this.val = val;
+		}
+		@Override
+		public double evaluate(EvalContext ec) {
+			return val;
+		}
+	}
+
+	// A node that has been validated as a number, but is evaluated by the interpreter
+	private static class NumInterpreted extends NumNode {
+		private final ExpNode node;
+		NumInterpreted(ExpNode node) {
+			this.node = node;
+		}
+		@Override
+		public double evaluate(EvalContext ec) throws ExpError {
+			return node.evaluate(ec).value;
+		}
+	}
+
+	private static class NumOutput extends NumNode {
+		private final ResolveOutput node;
+		private final NumOutputResolver resolver;
+		NumOutput(ResolveOutput node, NumOutputResolver resolver) {
+			this.node = node;
+			this.resolver = resolver;
+		}
+		@Override
+		public double evaluate(EvalContext ec) throws ExpError {
+			try {
+				ExpResult ent = node.entNode.evaluate(ec);
+				return resolver.resolveNumber(ec, ent);
+			} catch (ExpError ex) {
+				throw fixError(ex, node.exp.source, node.tokenPos);
+			}
+		}
+	}
+
+	private static class NumUnaryOp extends NumNode {
+		private final NumUnOpFunc func;
+		private final NumNode subExp;
+		NumUnaryOp(NumUnOpFunc func, NumNode subExp) {
+			this.func = func;
+			this.subExp = subExp;
+		}
+		@Override
+		public double evaluate(EvalContext ec) throws ExpError {
+			return func.apply(subExp.evaluate(ec));
+		}
+	}
+
+	private static class NumBinaryOp extends NumNode {
+		private final NumBinOpFunc func;
+		private final NumNode lSubExp;
+		private final NumNode rSubExp;
+		NumBinaryOp(NumBinOpFunc func, NumNode lSubExp, NumNode rSubExp) {
+			this.func = func;
+			this.lSubExp = lSubExp;
+			this.rSubExp = rSubExp;
+		}
+		@Override
+		public double evaluate(EvalContext ec) throws ExpError {
+			return func.apply(lSubExp.evaluate(ec), rSubExp.evaluate(ec));
+		}
+	}
+
+	private static class NumLazyBinaryOp extends NumNode {
+		private final NumLazyBinOpFunc func;
+		private final NumNode lSubExp;
+		private final NumNode rSubExp;
+		NumLazyBinaryOp(NumLazyBinOpFunc func, NumNode lSubExp, NumNode rSubExp) {
+			this.func = func;
+			this.lSubExp = lSubExp;
+			this.rSubExp = rSubExp;
+		}
+		@Override
+		public double evaluate(EvalContext ec) throws ExpError {
+			return func.apply(ec, lSubExp, rSubExp);
+		}
+	}
+
+	private static class NumConditional extends NumNode {
+		private final NumNode condExp;
+		private final NumNode trueExp;
+		private final NumNode falseExp;
+		NumConditional(NumNode condExp, NumNode trueExp, NumNode falseExp) {
+			this.condExp = condExp;
+			this.trueExp = trueExp;
+			this.falseExp = falseExp;
+		}
+		@Override
+		public double evaluate(EvalContext ec) throws ExpError {
+			if (condExp.evaluate(ec) == 0)
+				return falseExp.evaluate(ec);
+			else
+				return trueExp.evaluate(ec);
+		}
+	}
+
+	// A function of two or more arguments, applied to the arguments from left to right
+	private static class NumFuncCall extends NumNode {
+		private final NumBinOpFunc func;
+		private final NumNode[] args;
+		NumFuncCall(NumBinOpFunc func, NumNode[] args) {
+			this.func = func;
+			this.args = args;
+		}
+		@Override
+		public double evaluate(EvalContext ec) throws ExpError {
+			double ret = args[0].evaluate(ec);
+			for (int i = 1; i < args.length; i++) {
+				ret = func.apply(ret, args[i].evaluate(ec));
+			}
+			return ret;
+		}
+	}
+
+	/**
+	 * Replaces an interpreted subtree that returns a number. Only the final value is returned
+	 * as an ExpResult.
+	 */
+	private static class CompiledNumber extends ExpNode {
+		private final NumNode root;
+		private final Class<? extends Unit> unitType;
+		CompiledNumber(ParseContext context, NumNode root, Class<? extends Unit> unitType, Expression exp, int pos) {
+			super(context, exp, pos);
+			this.root = root;
+			this.unitType = unitType;
+		}
+
+		@Override
+		public ExpResult evaluate(EvalContext ec) throws ExpError {
+			try {
+				return ExpResult.makeNumResult(root.evaluate(ec), unitType);
+			} catch (ExpError ex) {
+				throw fixError(ex, exp.source, tokenPos);
+			}
+		}
+
+		@Override
+		public ExpValResult validate() {
+			return ExpValResult.makeValidRes(ExpResType.NUMBER, unitType);
+		}
+
+		@Override
+		void walk(ExpressionWalker w) throws ExpError {
+			w.visit(this);
+		}
+		@Override
+		public String toString() {
+			return "CompiledNumber";
+		}
+	}
+
+	/**
+	 * Replaces each validated subtree that returns a number with a compiled version. The operators
+	 * and functions in the subtree must have numerical versions. Lambdas, collections, strings
+	 * and outputs whose type is not known until run time are left to the interpreter.
+	 */
+	private static class NumCompiler implements ExpressionWalker {
+
+		@Override
+		public void visit(ExpNode exp) throws ExpError {
+			// N/A
+		}
+
+		@Override
+		public ExpNode updateRef(ExpNode node) throws ExpError {
+			if (!(node instanceof UnaryOp || node instanceof BinaryOp
+					|| node instanceof Conditional || node instanceof FuncCall))
+				return node;
+
+			NumNode num = compile(node);
+			if (num == null || num instanceof NumInterpreted)
+				return node;
+
+			ExpValResult res = node.validate();
+			if (res.state != ExpValResult.State.VALID || res.type != ExpResType.NUMBER)
+				return node;
+
+			return new CompiledNumber(node.context, num, res.unitType, node.exp, node.tokenPos);
+		}
+
+		/**
+		 * Returns the compiled version of the given node, or null if it cannot be compiled.
+		 * The node's children have already been compiled, where possible.
+		 */
+		private NumNode compile(ExpNode node) {
+			if (node instanceof CompiledNumber)
+				return ((CompiledNumber)node).root;
+
+			if (node instanceof Constant) {
+				ExpResult val = ((Constant)node).val;
+				if (val.type != ExpResType.NUMBER)
+					return null;
+				return new NumConstant(val.value);
+			}
+
+			NumNode ret = null;
+			if (node instanceof UnaryOpNoChecks)
+				ret = compileUnaryOp((UnaryOp)node);
+			else if (node instanceof LazyBinaryOp)
+				ret = compileLazyBinaryOp((LazyBinaryOp)node);
+			else if (node instanceof BinaryOpNoChecks)
+				ret = compileBinaryOp((BinaryOp)node);
+			else if (node instanceof Conditional)
+				ret = compileConditional((Conditional)node);
+			else if (node instanceof FuncCallNoChecks)
+				ret = compileFuncCall((FuncCall)node);
+			if (ret != null)
+				return ret;
+
+			// Any other node that is known to return a number is evaluated by the interpreter
+			ExpValResult res = node.validate();
+			if (res.state != ExpValResult.State.VALID || res.type != ExpResType.NUMBER)
+				return null;
+
+			if (node instanceof ResolveOutput) {
+				ResolveOutput ro = (ResolveOutput)node;
+				if (ro.resolver instanceof NumOutputResolver)
+					return new NumOutput(ro, (NumOutputResolver)ro.resolver);
+			}
+			return new NumInterpreted(node);
+		}
+
+		private NumNode compileUnaryOp(UnaryOp uo) {
+			NumUnOpFunc func = getUnaryOp(uo.name).numFunction;
+			if (func == null)
+				return null;
+
+			NumNode subExp = compile(uo.subExp);
+			if (subExp == null)
+				return null;
+
+			return new NumUnaryOp(func, subExp);
+		}
+
+		private NumNode compileBinaryOp(BinaryOp bo) {
+			NumBinOpFunc func = getBinaryOp(bo.name).numFunction;
+			if (func == null)
+				return null;
+
+			NumNode lSubExp = compile(bo.lSubExp);
+			NumNode rSubExp = compile(bo.rSubExp);
+			if (lSubExp == null || rSubExp == null)
+				return null;
+
+			return new NumBinaryOp(func, lSubExp, rSubExp);
+		}
+
+		private NumNode compileLazyBinaryOp(LazyBinaryOp bo) {
+			NumLazyBinOpFunc func = getBinaryOp(bo.name).numLazyFunction;
+			if (func == null)
+				return null;
+
+			NumNode lSubExp = compile(bo.lSubExp);
+			NumNode rSubExp = compile(bo.rSubExp);
+			if (lSubExp == null || rSubExp == null)
+				return null;
+
+			return new NumLazyBinaryOp(func, lSubExp, rSubExp);
+		}
+
+		private NumNode compileConditional(Conditional cond) {
+			NumNode condExp = compile(cond.condExp);
+			NumNode trueExp = compile(cond.trueExp);
+			NumNode falseExp = compile(cond.falseExp);
+			if (condExp == null || trueExp == null || falseExp == null)
+				return null;
+
+			return new NumConditional(condExp, trueExp, falseExp);
+		}
+
+		private NumNode compileFuncCall(FuncCall fc) {
+			FunctionEntry fe = getFunctionEntry(fc.name);
+			int numArgs = fc.args.size();
+			if (numArgs == 1 && fe.numFunction == null)
+				return null;
+			if (numArgs != 1 && (numArgs < 2 || fe.numBinFunction == null))
+				return null;
+
+			NumNode[] args = new NumNode[numArgs];
+			for (int i = 0; i < numArgs; i++) {
+				args[i] = compile(fc.args.get(i));
+				if (args[i] == null)
+					return null;
+			}
+
+			if (numArgs == 1)
+				return new NumUnaryOp(fe.numFunction, args[0]);
+			return new NumFuncCall(fe.numBinFunction, args);
+		}
+	}
+	private static NumCompiler NUM_OP = new NumCompiler();
+
+	private static boolean compileNumbers = true;
+
+	/**
+	 * Sets whether the parts of an expression that return a number are compiled when the
+	 * expression is parsed, or are evaluated by the interpreter.
+	 */
+	public static void setCompileNumbers(boolean bool) {
+		compileNumbers = bool;
+	}
+
 	private static ExpNode optimizeAndValidateExpression(String input, ExpNode expNode, Expression exp) throws ExpError {
 		expNode.walk(CONST_OP);
 		expNode = CONST_OP.updateRef(expNode); // Finally, give the entire expression a chance to optimize itself into a constant
@@ -1176,6 +1553,12 @@ public class ExpParser {
 		expNode.walk(RTC_OP);
 		expNode = RTC_OP.updateRef(expNode); // Give the top level node a chance to optimize
 
+		// Finally, compile the validated subtrees that return numbers
+		if (compileNumbers) {
+			expNode.walk(NUM_OP);
+			expNode = NUM_OP.updateRef(expNode);
+		}
+
 		exp.validationResult = valRes;
 
 		return expNode;
@@ -30,8 +30,8 @@ public class ExpResult {
 	public interface Collection {
 		public ExpResult index(ExpResult index) throws ExpError;
 
-		// Collections have a copy-on-write feature, where the old reference may be invalidated
-		// after assigning, always use the value returned as the new collection
+		// Assigning to a collection returns a new collection and leaves the original unchanged,
+		// always use the value returned as the new collection
 		public Collection assign(ExpResult key, ExpResult value) throws ExpError;
 
 		public Iterator getIter();
@@ -50,6 +50,7 @@ public class ExpResult {
 
 	public final String stringVal;
 	public final Entity entVal;
+	public final int entGeneration; // generation of entVal when the result was created
 	public final Collection colVal;
 	public final ExpParser.LambdaClosure lcVal;
 
@@ -80,10 +81,21 @@ public class ExpResult {
 
 		stringVal = str;
 		entVal = ent;
+		entGeneration = (ent == null) ? 0 : ent.getGeneration();
 		colVal = col;
 		lcVal = lc;
 	}
 
+	/**
+	 * Throws an error if the entity for this result has been recycled and re-used since the
+	 * result was created, for example when the result is held by an attribute.
+	 */
+	public void checkEntityGeneration() throws ExpError {
+		if (entVal != null && entVal.getGeneration() != entGeneration)
+			throw new ExpError(null, 0, "Entity '%s' has been recycled and re-used since it was referenced",
+			                   entVal.getName());
+	}
+
 	public <T> T getValue(double simTime, Class<T> klass) {
 		// Make a best effort to return the type
 		if (klass.isAssignableFrom(ExpResult.class))
@@ -107,7 +119,9 @@ public class ExpResult {
 
 	public ExpResult getCopy() {
 		if (type == ExpResType.COLLECTION) {
-			return makeCollectionResult(colVal.getCopy());
+			Collection col = colVal.getCopy();
+			if (col != colVal)
+				return makeCollectionResult(col);
 		}
 		return this;
 	}
@@ -62,6 +62,11 @@ public class ExpressionHandle extends OutputHandle {
 		}
 	}
 
+	@Override
+	public void trackDependency() {
+		// The state read by the expression is reported as it is evaluated
+	}
+
 	@Override
 	public Class<?> getReturnType() {
 		return ExpResult.class;
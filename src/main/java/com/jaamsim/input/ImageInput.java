@@ -22,6 +22,7 @@ import java.net.URI;
 import javax.imageio.ImageIO;
 
 public class ImageInput extends Input<BufferedImage> {
+	private URI imageURI;  // image file that has not been read yet
 
 	public ImageInput(String key, String cat, BufferedImage def) {
 		super(key, cat, def);
@@ -29,7 +30,6 @@ public class ImageInput extends Input<BufferedImage> {
 
 	@Override
 	public void parse(KeywordIndex kw) throws InputErrorException {
-		BufferedImage temp;
 		URI uri = Input.parseURI(kw);
 
 		// Confirm that the file exists
@@ -37,14 +37,37 @@ public class ImageInput extends Input<BufferedImage> {
 			throw new InputErrorException("The specified file does not exist.\n" +
 					"File path = %s", kw.getArg(0));
 
-		try {
-			temp = ImageIO.read(uri.toURL());
-		}
-		catch (Exception ex) {
-			throw new InputErrorException("Bad image file");
-		}
+		// The image is read when it is first used, so that a model that is run without a
+		// user interface does not need to load the image libraries
+		imageURI = uri;
+		value = null;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		imageURI = null;
+	}
 
-		value = temp;
+	@Override
+	public void copyFrom(Input<?> in) {
+		super.copyFrom(in);
+		imageURI = ((ImageInput) in).imageURI;
+	}
+
+	@Override
+	public BufferedImage getValue() {
+		if (imageURI != null) {
+			URI uri = imageURI;
+			imageURI = null;
+			try {
+				value = ImageIO.read(uri.toURL());
+			}
+			catch (Exception ex) {
+				InputAgent.logError("Bad image file: %s", uri);
+			}
+		}
+		return value;
 	}
 
 }
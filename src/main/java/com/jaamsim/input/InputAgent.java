@@ -42,101 +42,85 @@ import com.jaamsim.StringProviders.StringProvider;
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
 import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.basicsim.GUIListener;
 import com.jaamsim.basicsim.Group;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.basicsim.Log;
 import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.basicsim.ParallelRunner;
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.datatypes.DoubleVector;
+import com.jaamsim.events.ChangeTracker;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.math.Vec3d;
-import com.jaamsim.ui.GUIFrame;
-import com.jaamsim.ui.LogBox;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
 
 public class InputAgent {
 	private static final String recordEditsMarker = "RecordEdits";
 
-	private static int numErrors = 0;
-	private static int numWarnings = 0;
-	private static FileEntity logFile;
-
-	private static long lastTickForTrace;
-
-	private static File configFile;           // present configuration file
+	// Command line options, which apply to every model in the program
 	private static boolean batchRun;
 	private static boolean scriptMode;        // TRUE if script mode (command line) is specified
-	private static boolean sessionEdited;     // TRUE if any inputs have been changed after loading a configuration file
-	private static boolean recordEditsFound;  // TRUE if the "RecordEdits" marker is found in the configuration file
-	private static boolean recordEdits;       // TRUE if input changes are to be marked as edited.
+	private static boolean parallelRuns;      // TRUE if multiple runs are to be executed in parallel
+	private static boolean compiledConfig;    // TRUE if a compiled configuration file is to be used
 
 	private static final String INP_ERR_DEFINEUSED = "The name: %s has already been used and is a %s";
 	private static final String[] EARLY_KEYWORDS = {"UnitType", "UnitTypeList", "AttributeDefinitionList", "CustomOutputList"};
 
-	private static File reportDir;
-	private static FileEntity reportFile;     // file to which the output report will be written
-	private static PrintStream outStream;  // location where the selected outputs will be written
-
-	private static long preDefinedEntityCount; // Number of Entities after loading autoload.cfg
-
-	private static ArrayList<Command> undoList;
-	private static ArrayList<Command> redoList;
-
-	static {
-		recordEditsFound = false;
-		sessionEdited = false;
-		batchRun = false;
-		configFile = null;
-		reportDir = null;
-		reportFile = null;
-		outStream = null;
-		lastTickForTrace = -1l;
-		undoList = new ArrayList<>();
-		redoList = new ArrayList<>();
+	/**
+	 * Returns the InputAgent state for the model that is in use by the calling thread.
+	 */
+	private static InputAgentState state() {
+		return JaamSimModel.getJaamSimModel().getInputAgentState();
 	}
 
 	/**
 	 * Clears the InputAgent prior to loading a new model.
 	 */
 	public static void clear() {
-		logFile = null;
-		numErrors = 0;
-		numWarnings = 0;
-		recordEditsFound = false;
+		InputAgentState st = state();
+		st.logFile = null;
+		st.numErrors = 0;
+		st.numWarnings = 0;
+		st.recordEditsFound = false;
 		setSessionEdited(false);
-		configFile = null;
-		reportDir = null;
-		lastTickForTrace = -1l;
+		st.configFile = null;
+		st.reportDir = null;
+		st.lastTickForTrace = -1l;
 		setReportDirectory(null);
 		stop();
-		undoList.clear();
-		redoList.clear();
+		st.undoList.clear();
+		st.redoList.clear();
 	}
 
 	/**
 	 * Resets the InputAgent when a run is stopped and reset to zero simulation time.
 	 */
 	public static void stop() {
+		InputAgentState st = state();
 
-		if (reportFile != null) {
-			reportFile.close();
-			reportFile = null;
+		if (st.reportFile != null) {
+			st.reportFile.close();
+			st.reportFile = null;
 		}
-		if (outStream != null) {
-			outStream.close();
-			outStream = null;
+		if (st.outStream != null) {
+			st.outStream.close();
+			st.outStream = null;
 		}
 	}
 
 	public static void setPreDefinedEntityCount(long count) {
-		preDefinedEntityCount = count;
+		state().preDefinedEntityCount = count;
 	}
 
 	private static String getReportDirectory() {
-		if (reportDir != null)
-			return reportDir.getPath() + File.separator;
+		InputAgentState st = state();
+		if (st.reportDir != null)
+			return st.reportDir.getPath() + File.separator;
 
-		if (configFile != null)
-			return configFile.getParentFile().getPath() + File.separator;
+		if (st.configFile != null)
+			return st.configFile.getParentFile().getPath() + File.separator;
 
 		return null;
 	}
@@ -146,14 +130,16 @@ public class InputAgent {
 	}
 
 	public static void setReportDirectory(File dir) {
-		reportDir = dir;
-		if (reportDir == null)
+		InputAgentState st = state();
+		st.reportDir = dir;
+		if (st.reportDir == null)
 			return;
-		if (!reportDir.exists() && !reportDir.mkdirs())
-			throw new InputErrorException("Was unable to create the Report Directory: %s", reportDir.toString());
+		if (!st.reportDir.exists() && !st.reportDir.mkdirs())
+			throw new InputErrorException("Was unable to create the Report Directory: %s", st.reportDir.toString());
 	}
 
 	public static void prepareReportDirectory() {
+		File reportDir = state().reportDir;
 		if (reportDir != null) reportDir.mkdirs();
 	}
 
@@ -163,7 +149,7 @@ public class InputAgent {
 	 * @param file - the present configuration file.
 	 */
 	public static void setConfigFile(File file) {
-		configFile = file;
+		state().configFile = file;
 	}
 
 	/**
@@ -174,7 +160,7 @@ public class InputAgent {
 	 * @return the present configuration file.
 	 */
 	public static File getConfigFile() {
-		return configFile;
+		return state().configFile;
 	}
 
 	/**
@@ -204,7 +190,7 @@ public class InputAgent {
 	 * @param bool - TRUE if a RecordEdits marker was found.
 	 */
 	public static void setRecordEditsFound(boolean bool) {
-		recordEditsFound = bool;
+		state().recordEditsFound = bool;
 	}
 
 	/**
@@ -213,7 +199,7 @@ public class InputAgent {
 	 * @return - TRUE if a RecordEdits marker was found.
 	 */
 	public static boolean getRecordEditsFound() {
-		return recordEditsFound;
+		return state().recordEditsFound;
 	}
 
 	/**
@@ -232,7 +218,7 @@ public class InputAgent {
 	 * @return the RecordEdits mode for the InputAgent.
 	 */
 	public static boolean recordEdits() {
-		return recordEdits;
+		return state().recordEdits;
 	}
 
 	/**
@@ -251,18 +237,21 @@ public class InputAgent {
 	 * @param b - boolean value for the RecordEdits mode
 	 */
 	public static void setRecordEdits(boolean b) {
-		recordEdits = b;
+		state().recordEdits = b;
 	}
 
 	public static void setSessionEdited(boolean bool) {
-		if (bool == sessionEdited)
+		InputAgentState st = state();
+		if (bool == st.sessionEdited)
 			return;
-		sessionEdited = bool;
-		GUIFrame.updateSaveButton();
+		st.sessionEdited = bool;
+		GUIListener gui = JaamSimModel.getJaamSimModel().getGUIListener();
+		if (gui != null)
+			gui.updateControls();
 	}
 
 	public static boolean isSessionEdited() {
-		return sessionEdited;
+		return state().sessionEdited;
 	}
 
 	public static void setBatch(boolean batch) {
@@ -281,55 +270,86 @@ public class InputAgent {
 		return scriptMode;
 	}
 
+	public static void setParallelRuns(boolean bool) {
+		parallelRuns = bool;
+	}
+
+	public static boolean isParallelRuns() {
+		return parallelRuns;
+	}
+
+	/**
+	 * Specifies whether a configuration file is to be loaded from its compiled form. The compiled
+	 * file is written after the configuration file has been loaded without errors, and is used
+	 * in place of the text files until any of them are changed.
+	 * @param bool - TRUE if the compiled configuration file is to be used
+	 */
+	public static void setCompiledConfig(boolean bool) {
+		compiledConfig = bool;
+	}
+
+	public static boolean isCompiledConfig() {
+		return compiledConfig;
+	}
+
 	public static void storeAndExecute(Command cmd) {
+		InputAgentState st = state();
 		Command mergedCmd = null;
-		if (!undoList.isEmpty()) {
-			Command lastCmd = undoList.get(undoList.size() - 1);
+		if (!st.undoList.isEmpty()) {
+			Command lastCmd = st.undoList.get(st.undoList.size() - 1);
 			mergedCmd = lastCmd.tryMerge(cmd);
 		}
 		if (mergedCmd != null) {
-			undoList.set(undoList.size() - 1, mergedCmd);
+			st.undoList.set(st.undoList.size() - 1, mergedCmd);
 		}
 		else {
-			undoList.add(cmd);
+			st.undoList.add(cmd);
 		}
 		cmd.execute();
-		redoList.clear();
-		GUIFrame.getInstance().updateForUndo();
+		st.redoList.clear();
+		GUIListener gui = JaamSimModel.getJaamSimModel().getGUIListener();
+		if (gui != null)
+			gui.updateControls();
 	}
 
 	public static void undo() {
-		if (undoList.isEmpty())
+		InputAgentState st = state();
+		if (st.undoList.isEmpty())
 			return;
-		Command cmd = undoList.remove(undoList.size() - 1);
-		redoList.add(cmd);
+		Command cmd = st.undoList.remove(st.undoList.size() - 1);
+		st.redoList.add(cmd);
 		cmd.undo();
-		GUIFrame.getInstance().updateForUndo();
+		GUIListener gui = JaamSimModel.getJaamSimModel().getGUIListener();
+		if (gui != null)
+			gui.updateControls();
 	}
 
 	public static void redo() {
-		if (redoList.isEmpty())
+		InputAgentState st = state();
+		if (st.redoList.isEmpty())
 			return;
-		Command cmd = redoList.remove(redoList.size() - 1);
-		undoList.add(cmd);
+		Command cmd = st.redoList.remove(st.redoList.size() - 1);
+		st.undoList.add(cmd);
 		cmd.execute();
-		GUIFrame.getInstance().updateForUndo();
+		GUIListener gui = JaamSimModel.getJaamSimModel().getGUIListener();
+		if (gui != null)
+			gui.updateControls();
 	}
 
 	public static boolean hasUndo() {
-		return !undoList.isEmpty();
+		return !state().undoList.isEmpty();
 	}
 
 	public static boolean hasRedo() {
-		return !redoList.isEmpty();
+		return !state().redoList.isEmpty();
 	}
 
 	public static ArrayList<Command> getUndoList() {
-		return undoList;
+		return state().undoList;
 	}
 
 	public static ArrayList<Command> getRedoList() {
-		return redoList;
+		return state().redoList;
 	}
 
 	public static void undo(int n) {
@@ -427,26 +447,54 @@ public class InputAgent {
 			return false;
 		}
 
-		InputAgent.readBufferedStream(buf, resolved, root);
+		// The user interface is refreshed once after the stream has been read
+		state().loadDepth++;
+		try {
+			InputAgent.readFileStream(buf, resolved, root);
+		}
+		finally {
+			state().loadDepth--;
+		}
+		InputAgent.updateUI();
 		return true;
 	}
 
 	public static final void readBufferedStream(BufferedReader buf, URI resolved, String root) {
+		ParseContext pc = new ParseContext(resolved, root);
+		InputAgent.readRecords(buf, pc);
+	}
+
+	/**
+	 * Reads a file in the same way as readBufferedStream, recording it as a source of the
+	 * compiled configuration that is being written, if any.
+	 */
+	private static void readFileStream(BufferedReader buf, URI resolved, String root) {
+		ParseContext pc = new ParseContext(resolved, root);
+		CompiledConfig compiler = state().compiler;
+		if (compiler != null)
+			compiler.addSource(pc);
+
+		InputAgent.readRecords(buf, pc);
+	}
+
+	/**
+	 * Reads the records from the stream, processing each record as it is read.
+	 */
+	private static void readRecords(BufferedReader buf, ParseContext pc) {
 
 		try {
 			ArrayList<String> record = new ArrayList<>();
 			int braceDepth = 0;
 
-			ParseContext pc = new ParseContext(resolved, root);
+			LineReader lines = new LineReader(buf);
 
 			while (true) {
-				String line = buf.readLine();
 				// end of file, stop reading
-				if (line == null)
+				if (!lines.nextLine())
 					break;
 
 				int previousRecordSize = record.size();
-				Parser.tokenize(record, line, true);
+				Parser.tokenize(record, lines.buf, lines.start, lines.end, true);
 				braceDepth = InputAgent.getBraceDepth(record, braceDepth, previousRecordSize);
 				if( braceDepth != 0 )
 					continue;
@@ -454,34 +502,7 @@ public class InputAgent {
 				if (record.size() == 0)
 					continue;
 
-				InputAgent.echoInputRecord(record);
-
-				if ("DEFINE".equalsIgnoreCase(record.get(0))) {
-					InputAgent.processDefineRecord(record);
-					record.clear();
-					continue;
-				}
-
-				if ("INCLUDE".equalsIgnoreCase(record.get(0))) {
-					try {
-						InputAgent.processIncludeRecord(pc, record);
-					}
-					catch (URISyntaxException ex) {
-						rethrowWrapped(ex);
-					}
-					record.clear();
-					continue;
-				}
-
-				if ("RECORDEDITS".equalsIgnoreCase(record.get(0))) {
-					InputAgent.setRecordEditsFound(true);
-					InputAgent.setRecordEdits(true);
-					record.clear();
-					continue;
-				}
-
-				// Otherwise assume it is a Keyword record
-				InputAgent.processKeywordRecord(record, pc);
+				InputAgent.processRecord(pc, record);
 				record.clear();
 			}
 
@@ -496,6 +517,39 @@ public class InputAgent {
 		}
 	}
 
+	private static void processRecord(ParseContext pc, ArrayList<String> record) {
+		InputAgent.echoInputRecord(record);
+
+		// The records of an included file replace the Include record in the compiled file
+		CompiledConfig compiler = state().compiler;
+		if (compiler != null && !"INCLUDE".equalsIgnoreCase(record.get(0)))
+			compiler.addRecord(pc, record);
+
+		if ("DEFINE".equalsIgnoreCase(record.get(0))) {
+			InputAgent.processDefineRecord(record);
+			return;
+		}
+
+		if ("INCLUDE".equalsIgnoreCase(record.get(0))) {
+			try {
+				InputAgent.processIncludeRecord(pc, record);
+			}
+			catch (URISyntaxException ex) {
+				rethrowWrapped(ex);
+			}
+			return;
+		}
+
+		if ("RECORDEDITS".equalsIgnoreCase(record.get(0))) {
+			InputAgent.setRecordEditsFound(true);
+			InputAgent.setRecordEdits(true);
+			return;
+		}
+
+		// Otherwise assume it is a Keyword record
+		InputAgent.processKeywordRecord(record, pc);
+	}
+
 	private static void processIncludeRecord(ParseContext pc, ArrayList<String> record) throws URISyntaxException {
 		if (record.size() != 2) {
 			InputAgent.logError("Bad Include record, should be: Include <File>");
@@ -561,6 +615,58 @@ public class InputAgent {
 		return ent;
 	}
 
+	/**
+	 * Creates a generated entity of the same class as the prototype and copies the prototype's
+	 * inputs to it. The input values are shared with the prototype until they are changed.
+	 * The entity's name is the prefix followed by the separator and the index, but is not built
+	 * until it is first requested.
+	 * @param proto - entity to be copied
+	 * @param prefix - first part of the name, normally the name of the generating object
+	 * @param sep - separator between the prefix and the index
+	 * @param index - number that makes the name unique
+	 * @return new entity
+	 */
+	public static <T extends Entity> T generateEntity(T proto, String prefix, String sep, long index) {
+		return generateEntity(proto, prefix, sep, index, false);
+	}
+
+	/**
+	 * Creates a generated entity in the same way as generateEntity(proto, prefix, sep, index).
+	 * If recycling is selected, an entity that was recycled after being generated from the same
+	 * prototype is re-used when one is available, and the new entity will be kept for re-use
+	 * when it is recycled.
+	 * @param recycle - true if recycled entities are to be used
+	 * @return new or re-used entity
+	 */
+	public static <T extends Entity> T generateEntity(T proto, String prefix, String sep, long index, boolean recycle) {
+		if (recycle) {
+			T ent = proto.getJaamSimModel().reuseEntity(proto);
+			if (ent != null) {
+				ent.setGeneratedName(prefix, sep, index);
+				return ent;
+			}
+		}
+
+		if (!isValidName(prefix) || !isValidName(sep)) {
+			InputAgent.logError("Entity names cannot contain spaces, tabs, { or }: %s%s", prefix, sep);
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		Class<T> klass = (Class<T>) proto.getClass();
+		T ent = createInstance(klass);
+		if (ent == null) {
+			InputAgent.logError("Could not create new Entity: %s%s%s", prefix, sep, index);
+			return null;
+		}
+		ent.setFlag(Entity.FLAG_GENERATED);
+		ent.setGeneratedName(prefix, sep, index);
+		Entity.fastCopyInputs(proto, ent);
+		if (recycle)
+			ent.getJaamSimModel().setEntityPool(ent, proto);
+		return ent;
+	}
+
 	public static String getUniqueName(String name, String sep) {
 
 		// Is the provided name unused?
@@ -717,47 +823,105 @@ public class InputAgent {
 
 	// Load the run file
 	public static void loadConfigurationFile( File file) throws URISyntaxException {
+		InputAgentState st = state();
 
 		String inputTraceFileName = InputAgent.getRunName() + ".log";
 		// Initializing the tracing for the model
 		URI logURI = null;
-		try {
-			LogBox.logLine( "Creating trace file" );
+		// The input trace for a parallel run is written by the parent process, not its workers
+		if (ParallelRunner.getWorkerOutputFile() == null) {
+			try {
+				Log.logLine( "Creating trace file" );
 
-			URI confURI = file.toURI();
-			logURI = confURI.resolve(new URI(null, inputTraceFileName, null)); // The new URI here effectively escapes the file name
+				URI confURI = file.toURI();
+				logURI = confURI.resolve(new URI(null, inputTraceFileName, null)); // The new URI here effectively escapes the file name
 
-			// Set and open the input trace file name
-			logFile = new FileEntity( logURI.getPath());
-		}
-		catch( Exception e ) {
-			InputAgent.logWarning("Could not create trace file");
+				// Set and open the input trace file name
+				st.logFile = new FileEntity( logURI.getPath());
+			}
+			catch( Exception e ) {
+				InputAgent.logWarning("Could not create trace file");
+			}
 		}
 
 		URI dirURI = file.getParentFile().toURI();
-		InputAgent.readStream("", dirURI, file.getName());
+		if (compiledConfig)
+			InputAgent.readCompiledStream(dirURI, file);
+		else
+			InputAgent.readStream("", dirURI, file.getName());
 
 		// The session is not considered to be edited after loading a configuration file
 		setSessionEdited(false);
 
 		// Save and close the input trace file
-		if (logFile != null) {
-			if (InputAgent.numWarnings == 0 && InputAgent.numErrors == 0) {
-				logFile.close();
-				logFile.delete();
+		if (st.logFile != null) {
+			if (st.numWarnings == 0 && st.numErrors == 0) {
+				st.logFile.close();
+				st.logFile.delete();
 				if (logURI != null)
-					logFile = new FileEntity( logURI.getPath() );
+					st.logFile = new FileEntity( logURI.getPath() );
 			}
 		}
 
 		//  Check for found errors
-		if( InputAgent.numErrors > 0 )
-			throw new InputErrorException("%d input errors and %d warnings found", InputAgent.numErrors, InputAgent.numWarnings);
+		if( st.numErrors > 0 )
+			throw new InputErrorException("%d input errors and %d warnings found", st.numErrors, st.numWarnings);
 
 		if (Simulation.getPrintInputReport())
 			InputAgent.printInputFileKeywords();
 	}
 
+	/**
+	 * Returns the compiled form of the given configuration file.
+	 */
+	private static File getCompiledFile(File file) {
+		return new File(file.getParentFile(), InputAgent.getRunName() + ".jsc");
+	}
+
+	/**
+	 * Loads the configuration file from its compiled form, if the compiled file exists and is
+	 * up to date. Otherwise, the configuration file is read and the compiled file is written.
+	 */
+	private static void readCompiledStream(URI dirURI, File file) throws URISyntaxException {
+		InputAgentState st = state();
+		File compiledFile = getCompiledFile(file);
+		CompiledConfig cc = CompiledConfig.read(compiledFile);
+		if (cc != null && file.toURI().equals(cc.getConfigURI()) && cc.isCurrent()) {
+			st.loadDepth++;
+			try {
+				for (int i = 0; i < cc.records.size(); i++) {
+					ParseContext pc = cc.sources.get(cc.recordSources.get(i));
+					InputAgent.processRecord(pc, cc.records.get(i));
+				}
+			}
+			finally {
+				st.loadDepth--;
+			}
+			InputAgent.updateUI();
+			return;
+		}
+
+		st.compiler = new CompiledConfig();
+		try {
+			InputAgent.readStream("", dirURI, file.getName());
+		}
+		finally {
+			cc = st.compiler;
+			st.compiler = null;
+		}
+
+		if (st.numErrors > 0)
+			return;
+
+		try {
+			cc.write(compiledFile);
+		}
+		catch (IOException e) {
+			InputAgent.logWarning("Could not write the compiled configuration file %s - %s",
+					compiledFile.getName(), e.getMessage());
+		}
+	}
+
 	/**
 	 * Prepares the keyword and input value for processing.
 	 *
@@ -778,7 +942,7 @@ public class InputAgent {
 		}
 
 		InputAgent.apply(ent, in, kw);
-		GUIFrame.updateUI();
+		InputAgent.updateUI();
 	}
 
 	public static final void apply(Entity ent, Input<?> in, KeywordIndex kw) {
@@ -800,13 +964,37 @@ public class InputAgent {
 		}
 
 		ent.updateForInput(in);
+		state().inputTracker.changed();
+
+		// Entities kept for re-use as copies of this one, or of its prototype, no longer match
+		ent.getJaamSimModel().entityInputChanged(ent);
+	}
+
+	/**
+	 * Refreshes the values shown by the user interface, if there is one. The refresh is skipped
+	 * while a file is being read.
+	 */
+	private static void updateUI() {
+		if (state().loadDepth > 0)
+			return;
+		GUIListener gui = JaamSimModel.getJaamSimModel().getGUIListener();
+		if (gui != null)
+			gui.updateAll();
+	}
+
+	/**
+	 * Returns the ChangeTracker that counts the changes to the inputs for all entities.
+	 * A tracked Conditional that reads an input must report it as a dependency.
+	 */
+	public static ChangeTracker getInputTracker() {
+		return state().inputTracker;
 	}
 
 	public static void processKeyword(Entity entity, KeywordIndex key) {
 		Input<?> input = entity.getInput( key.keyword );
 		if (input != null) {
 			InputAgent.apply(entity, input, key);
-			GUIFrame.updateUI();
+			InputAgent.updateUI();
 			return;
 		}
 
@@ -839,6 +1027,7 @@ public class InputAgent {
 
 		FileEntity inputReportFile = new FileEntity( inputReportFileName);
 		inputReportFile.flush();
+		long preDefinedEntityCount = state().preDefinedEntityCount;
 
 		ArrayList<ObjectType> objectTypes = new ArrayList<>();
 		for (ObjectType type : ObjectType.getAll())
@@ -1045,16 +1234,17 @@ public class InputAgent {
 	}
 
 	public static void closeLogFile() {
-		if (logFile == null)
+		InputAgentState st = state();
+		if (st.logFile == null)
 			return;
 
-		logFile.flush();
-		logFile.close();
+		st.logFile.flush();
+		st.logFile.close();
 
-		if (numErrors ==0 && numWarnings == 0) {
-			logFile.delete();
+		if (st.numErrors ==0 && st.numWarnings == 0) {
+			st.logFile.delete();
 		}
-		logFile = null;
+		st.logFile = null;
 	}
 
 	private static final String errPrefix = "*** ERROR *** %s%n";
@@ -1062,30 +1252,31 @@ public class InputAgent {
 	private static final String wrnPrefix = "***WARNING*** %s%n";
 
 	public static int numErrors() {
-		return numErrors;
+		return state().numErrors;
 	}
 
 	public static int numWarnings() {
-		return numWarnings;
+		return state().numWarnings;
 	}
 
 	private static void echoInputRecord(ArrayList<String> tokens) {
-		if (logFile == null)
+		InputAgentState st = state();
+		if (st.logFile == null)
 			return;
 
-		boolean beginLine = true;
+		if (tokens.isEmpty())
+			return;
+
+		StringBuilder sb = new StringBuilder();
 		for (int i = 0; i < tokens.size(); i++) {
-			if (!beginLine)
-				logFile.write(Input.SEPARATOR);
-			String tok = tokens.get(i);
-			logFile.write(tok);
-			beginLine = false;
+			if (i > 0)
+				sb.append(Input.SEPARATOR);
+			sb.append(tokens.get(i));
 		}
-		// If there were any leftover string written out, make sure the line gets terminated
-		if (!beginLine)
-			logFile.newLine();
 
-		logFile.flush();
+		// The log file is flushed when the next message is written
+		st.logFile.write(sb.toString());
+		st.logFile.newLine();
 	}
 
 	private static void logBadInput(ArrayList<String> tokens, String msg) {
@@ -1099,16 +1290,17 @@ public class InputAgent {
 	 * @param args - objects to be printed in the message
 	 */
 	public static void logMessage(String fmt, Object... args) {
+		InputAgentState st = state();
 		String msg = String.format(fmt, args);
-		LogBox.logLine(msg);
+		Log.logLine(msg);
 		System.err.println(msg);
 
-		if (logFile == null)
+		if (st.logFile == null)
 			return;
 
-		logFile.write(msg);
-		logFile.newLine();
-		logFile.flush();
+		st.logFile.write(msg);
+		st.logFile.newLine();
+		st.logFile.flush();
 	}
 
 	/**
@@ -1123,11 +1315,12 @@ public class InputAgent {
 
 	public static final void trace(int indent, Entity ent, String fmt, Object... args) {
 		// Print a TIME header every time time has advanced
+		InputAgentState st = state();
 		long traceTick = EventManager.simTicks();
-		if (lastTickForTrace != traceTick) {
+		if (st.lastTickForTrace != traceTick) {
 			double unitFactor = Unit.getDisplayedUnitFactor(TimeUnit.class);
 			System.out.format(" \nTIME = %.6f\n", EventManager.current().ticksToSeconds(traceTick) / unitFactor);
-			lastTickForTrace = traceTick;
+			st.lastTickForTrace = traceTick;
 		}
 
 		// Create an indent string to space the lines
@@ -1150,7 +1343,7 @@ public class InputAgent {
 	 * @param args - objects used by the format string
 	 */
 	public static void logWarning(String fmt, Object... args) {
-		numWarnings++;
+		state().numWarnings++;
 		String msg = String.format(fmt, args);
 		InputAgent.logMessage(wrnPrefix, msg);
 	}
@@ -1161,7 +1354,7 @@ public class InputAgent {
 	 * @param args - objects used by the format string
 	 */
 	public static void logError(String fmt, Object... args) {
-		numErrors++;
+		state().numErrors++;
 		String msg = String.format(fmt, args);
 		InputAgent.logMessage(errPrefix, msg);
 	}
@@ -1172,7 +1365,7 @@ public class InputAgent {
 	 * @param args - objects used by the format string
 	 */
 	public static void logInpError(String fmt, Object... args) {
-		numErrors++;
+		state().numErrors++;
 		String msg = String.format(fmt, args);
 		InputAgent.logMessage(inpErrPrefix, msg);
 	}
@@ -1342,55 +1535,11 @@ public class InputAgent {
 	 * @param simTime - simulation time at which the outputs are printed.
 	 */
 	public static void printRunOutputs(double simTime) {
+		InputAgentState st = state();
 
 		// Set up the custom outputs
-		if (outStream == null) {
-
-			// Select either standard out or a file for the outputs
-			outStream = System.out;
-			if (!InputAgent.isScriptMode()) {
-				StringBuilder sb = new StringBuilder();
-				sb.append(InputAgent.getReportFileName(InputAgent.getRunName()));
-				sb.append(".dat");
-				try {
-					outStream = new PrintStream(sb.toString());
-				}
-				catch (FileNotFoundException e) {
-					throw new InputErrorException(
-							"FileNotFoundException thrown trying to open PrintStream: " + e );
-				}
-				catch (SecurityException e) {
-					throw new InputErrorException(
-							"SecurityException thrown trying to open PrintStream: " + e );
-				}
-			}
-
-			// Write the header line for the expressions
-			StringBuilder sb = new StringBuilder();
-			ArrayList<String> toks = new ArrayList<>();
-			Simulation.getRunOutputList().getValueTokens(toks);
-			boolean first = true;
-			for (String str : toks) {
-				if (str.equals("{") || str.equals("}"))
-					continue;
-				if (first)
-					first = false;
-				else
-					sb.append("\t");
-				sb.append(str);
-			}
-			outStream.println(sb.toString());
-
-			// Write the header line for the units
-			sb = new StringBuilder();
-			for (int i=0; i<Simulation.getRunOutputList().getListSize(); i++) {
-				Class<? extends Unit> ut = Simulation.getRunOutputList().getUnitType(i);
-				String unit = Unit.getDisplayedUnit(ut);
-				if (i > 0)
-					sb.append("\t");
-				sb.append(unit);
-			}
-			outStream.println(sb.toString());
+		if (st.outStream == null) {
+			st.outStream = InputAgent.openRunOutputStream();
 		}
 
 		// Write the selected outputs
@@ -1409,13 +1558,92 @@ public class InputAgent {
 				sb.append("\t");
 			sb.append(str);
 		}
-		outStream.println(sb.toString());
+		st.outStream.println(sb.toString());
 
 		// Terminate the outputs
 		if (Simulation.isLastRun()) {
-			outStream.close();
-			outStream = null;
+			st.outStream.close();
+			st.outStream = null;
+		}
+	}
+
+	/**
+	 * Opens the stream for the selected run outputs and writes its two header lines.
+	 * @return the worker's output file for a worker process of a parallel run, standard out in
+	 * script mode, otherwise the <configuration file name>.dat file.
+	 */
+	private static PrintStream openRunOutputStream() {
+
+		// Select either standard out or a file for the outputs
+		PrintStream ret = System.out;
+		File workerOutput = ParallelRunner.getWorkerOutputFile();
+		if (workerOutput != null) {
+			try {
+				ret = new PrintStream(workerOutput);
+			}
+			catch (FileNotFoundException e) {
+				throw new InputErrorException(
+						"FileNotFoundException thrown trying to open PrintStream: " + e );
+			}
+		}
+		else if (!InputAgent.isScriptMode()) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(InputAgent.getReportFileName(InputAgent.getRunName()));
+			sb.append(".dat");
+			try {
+				ret = new PrintStream(sb.toString());
+			}
+			catch (FileNotFoundException e) {
+				throw new InputErrorException(
+						"FileNotFoundException thrown trying to open PrintStream: " + e );
+			}
+			catch (SecurityException e) {
+				throw new InputErrorException(
+						"SecurityException thrown trying to open PrintStream: " + e );
+			}
+		}
+
+		// Write the header line for the expressions
+		StringBuilder sb = new StringBuilder();
+		ArrayList<String> toks = new ArrayList<>();
+		Simulation.getRunOutputList().getValueTokens(toks);
+		boolean first = true;
+		for (String str : toks) {
+			if (str.equals("{") || str.equals("}"))
+				continue;
+			if (first)
+				first = false;
+			else
+				sb.append("\t");
+			sb.append(str);
+		}
+		ret.println(sb.toString());
+
+		// Write the header line for the units
+		sb = new StringBuilder();
+		for (int i=0; i<Simulation.getRunOutputList().getListSize(); i++) {
+			Class<? extends Unit> ut = Simulation.getRunOutputList().getUnitType(i);
+			String unit = Unit.getDisplayedUnit(ut);
+			if (i > 0)
+				sb.append("\t");
+			sb.append(unit);
+		}
+		ret.println(sb.toString());
+		return ret;
+	}
+
+	/**
+	 * Prints the selected outputs that were calculated by a different process, for example
+	 * the worker processes used for parallel runs.
+	 * @param rows - one line of tab separated outputs for each run, in run number order.
+	 */
+	public static void printRunOutputs(ArrayList<String> rows) {
+		PrintStream out = InputAgent.openRunOutputStream();
+		for (String row : rows) {
+			out.println(row);
 		}
+		if (out != System.out)
+			out.close();
 	}
 
 	/**
@@ -1423,18 +1651,19 @@ public class InputAgent {
 	 * @param simTime - simulation time at which the report is printed.
 	 */
 	public static void printReport(double simTime) {
+		InputAgentState st = state();
 
 		// Create the report file
-		if (reportFile == null) {
+		if (st.reportFile == null) {
 			StringBuilder tmp = new StringBuilder("");
 			tmp.append(InputAgent.getReportFileName(InputAgent.getRunName()));
 			tmp.append(".rep");
-			reportFile = new FileEntity(tmp.toString());
+			st.reportFile = new FileEntity(tmp.toString());
 		}
 
 		// Print run number header when multiple runs are to be performed
 		if (Simulation.isMultipleRuns())
-			reportFile.format("%s%n%n", Simulation.getRunHeader());
+			st.reportFile.format("%s%n%n", Simulation.getRunHeader());
 
 		// Identify the classes that were used in the model
 		ArrayList<Class<? extends Entity>> newClasses = new ArrayList<>();
@@ -1471,19 +1700,19 @@ public class InputAgent {
 
 			// Print a header for this class
 			if (newClass != Simulation.class)
-				reportFile.format("*** %s ***%n%n", ObjectType.getObjectTypeForClass(newClass));
+				st.reportFile.format("*** %s ***%n%n", ObjectType.getObjectTypeForClass(newClass));
 
 			// Print each entity to the output report
 			for (Entity ent : entList) {
-				ent.printReport(reportFile, simTime);
-				reportFile.format("%n");
+				ent.printReport(st.reportFile, simTime);
+				st.reportFile.format("%n");
 			}
 		}
 
 		// Close the report file
 		if (Simulation.isLastRun()) {
-			reportFile.close();
-			reportFile = null;
+			st.reportFile.close();
+			st.reportFile = null;
 		}
 	}
 
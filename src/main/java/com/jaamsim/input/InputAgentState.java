@@ -0,0 +1,56 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+import com.jaamsim.Commands.Command;
+import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.events.ChangeTracker;
+
+/**
+ * Holds the InputAgent state for a single model: its configuration file, error counts,
+ * RecordEdits state, report files, and undo history. Each JaamSimModel has its own instance,
+ * which is used by the static InputAgent methods through JaamSimModel.getInputAgentState.
+ */
+public final class InputAgentState {
+	int numErrors = 0;
+	int numWarnings = 0;
+	FileEntity logFile;
+
+	long lastTickForTrace = -1L;
+
+	File configFile;           // present configuration file
+	CompiledConfig compiler;   // receives the records while a configuration file is read
+	boolean sessionEdited;     // TRUE if any inputs have been changed after loading a configuration file
+	boolean recordEditsFound;  // TRUE if the "RecordEdits" marker is found in the configuration file
+	boolean recordEdits;       // TRUE if input changes are to be marked as edited.
+	int loadDepth;             // number of nested files that are being read
+
+	File reportDir;
+	FileEntity reportFile;     // file to which the output report will be written
+	PrintStream outStream;     // location where the selected outputs will be written
+
+	long preDefinedEntityCount; // Number of Entities after loading autoload.cfg
+
+	final ArrayList<Command> undoList = new ArrayList<>();
+	final ArrayList<Command> redoList = new ArrayList<>();
+
+	final ChangeTracker inputTracker = new ChangeTracker(); // counts the input changes
+}
@@ -0,0 +1,108 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the lines of a stream into a character buffer without creating a String for each line.
+ * After each call to nextLine(), the line is found in buf from index start up to index end.
+ * Lines are terminated in the same way as for BufferedReader.readLine().
+ */
+class LineReader {
+	private final Reader in;
+	char[] buf = new char[8192];
+	int start; // index of the first character of the present line
+	int end;   // index following the last character of the present line
+
+	private int pos;   // index of the first character that has not been returned
+	private int limit; // index following the last character read from the stream
+	private boolean skipLF; // true if the last line ended with a carriage return
+
+	LineReader(Reader in) {
+		this.in = in;
+	}
+
+	/**
+	 * Advances to the next line of the stream.
+	 * @return false if the end of the stream has been reached
+	 * @throws IOException
+	 */
+	boolean nextLine() throws IOException {
+		// A line feed following a carriage return is part of the previous terminator
+		if (skipLF) {
+			if (pos == limit && !fill())
+				return false;
+			if (buf[pos] == '\n')
+				pos++;
+			skipLF = false;
+		}
+
+		int scan = pos;
+		while (true) {
+			for (; scan < limit; scan++) {
+				char c = buf[scan];
+				if (c == '\n' || c == '\r') {
+					start = pos;
+					end = scan;
+					pos = scan + 1;
+					skipLF = (c == '\r');
+					return true;
+				}
+			}
+
+			int shift = pos;
+			if (!fill()) {
+				// The last line is not required to have a terminator
+				if (pos == limit)
+					return false;
+				start = pos;
+				end = limit;
+				pos = limit;
+				return true;
+			}
+			scan -= shift;
+		}
+	}
+
+	/**
+	 * Moves the unread characters to the start of the buffer and reads more characters from
+	 * the stream, enlarging the buffer if it is full.
+	 * @return false if no more characters could be read
+	 */
+	private boolean fill() throws IOException {
+		if (pos > 0) {
+			System.arraycopy(buf, pos, buf, 0, limit - pos);
+			limit -= pos;
+			pos = 0;
+		}
+
+		if (limit == buf.length) {
+			char[] tmp = new char[buf.length * 2];
+			System.arraycopy(buf, 0, tmp, 0, limit);
+			buf = tmp;
+		}
+
+		int n = in.read(buf, limit, buf.length - limit);
+		if (n <= 0)
+			return false;
+
+		limit += n;
+		return true;
+	}
+}
@@ -16,7 +16,9 @@
  */
 package com.jaamsim.input;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -25,7 +27,9 @@ import java.util.HashMap;
 
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
+import com.jaamsim.events.EventManager;
 import com.jaamsim.units.Unit;
+import com.jaamsim.units.UserSpecifiedUnit;
 
 /**
  * OutputHandle is a class that represents all the useful runtime information for an output,
@@ -60,6 +64,8 @@ public class OutputHandle {
 	 */
 	private static final class OutputStaticInfo {
 		public Method method;
+		public final MethodHandle handle;       // (Entity, double)Object, boxes a primitive return
+		public final MethodHandle doubleHandle; // (Entity, double)double, null unless primitive
 		public final String name;
 		public final String desc;
 		public final boolean reportable;
@@ -73,9 +79,58 @@ public class OutputHandle {
 			name = a.name().intern();
 			unitType = a.unitType();
 			sequence = a.sequence();
+
+			MethodHandle mh = getMethodHandle(m);
+			handle = mh.asType(MethodType.methodType(Object.class, Entity.class, double.class));
+			doubleHandle = getDoubleHandle(mh);
+		}
+	}
+
+	private static MethodHandle getMethodHandle(Method m) {
+		try {
+			return MethodHandles.publicLookup().unreflect(m);
+		}
+		catch (IllegalAccessException e) {}
+
+		// The output is declared by a class that is not public
+		try {
+			m.setAccessible(true);
+			return MethodHandles.lookup().unreflect(m);
+		}
+		catch (IllegalAccessException | SecurityException e) {
+			throw new ErrorException(e);
 		}
 	}
 
+	private static final MethodHandle booleanToDouble;
+	static {
+		try {
+			booleanToDouble = MethodHandles.lookup().findStatic(OutputHandle.class, "booleanToDouble",
+					MethodType.methodType(double.class, boolean.class));
+		}
+		catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ErrorException(e);
+		}
+	}
+
+	private static double booleanToDouble(boolean val) {
+		return val ? 1.0d : 0.0d;
+	}
+
+	/**
+	 * Returns a handle that converts a primitive output value to a double without boxing it,
+	 * or null if the output does not return a primitive number or boolean.
+	 */
+	private static MethodHandle getDoubleHandle(MethodHandle mh) {
+		Class<?> retType = mh.type().returnType();
+		if (retType == boolean.class)
+			mh = MethodHandles.filterReturnValue(mh, booleanToDouble);
+		else if (!isNumericType(retType) || !retType.isPrimitive())
+			return null;
+
+		return mh.asType(MethodType.methodType(double.class, Entity.class, double.class));
+	}
+
 	// Note: this method will not include attributes in the list. For a complete list use
 	// Entity.hasOutput()
 	public static boolean hasOutput(Class<? extends Entity> klass, String outputName) {
@@ -203,12 +258,10 @@ public class OutputHandle {
 			if (!klass.isAssignableFrom(outputInfo.method.getReturnType()))
 				return null;
 
-			ret = (T)outputInfo.method.invoke(ent, simTime);
-		}
-		catch (InvocationTargetException ex) {
-			throw new ErrorException(ex.getTargetException());
+			Object val = outputInfo.handle.invokeExact(ent, simTime);
+			ret = (T)val;
 		}
-		catch (IllegalAccessException | ClassCastException ex) {
+		catch (Throwable ex) {
 			throw new ErrorException(ex);
 		}
 		return ret;
@@ -218,6 +271,15 @@ public class OutputHandle {
 		return true;
 	}
 
+	/**
+	 * Reports the model state read by this output to the Conditional that is being evaluated,
+	 * if any. By default, an output is assumed to depend on untracked state such as the
+	 * simulation time.
+	 */
+	public void trackDependency() {
+		EventManager.trackDependency(null);
+	}
+
 	public boolean isNumericValue() {
 		return isNumericType(this.getReturnType());
 	}
@@ -282,6 +344,16 @@ public class OutputHandle {
 	 * @return
 	 */
 	public double getValueAsDouble(double simTime, double def) {
+		// Primitive outputs are converted to double without boxing
+		if (outputInfo != null && outputInfo.doubleHandle != null) {
+			try {
+				return (double)outputInfo.doubleHandle.invokeExact(ent, simTime);
+			}
+			catch (Throwable ex) {
+				throw new ErrorException(ex);
+			}
+		}
+
 		Class<?> retType = this.getReturnType();
 
 		if (retType == double.class)
@@ -358,7 +430,13 @@ public class OutputHandle {
 		unitType = ut;
 	}
 
+	/**
+	 * Returns the unit type for the output. An output whose unit type is specified by the user
+	 * returns the entity's present choice, so that the handle remains valid if it is changed.
+	 */
 	public Class<? extends Unit> getUnitType() {
+		if (unitType == UserSpecifiedUnit.class)
+			return ent.getUserUnitType();
 		return unitType;
 	}
 
@@ -30,25 +30,40 @@ public class Parser {
  * @param stripComments if true, do not append any commented tokens
  */
 public static final void tokenize(ArrayList<String> tokens, String rec, boolean stripComments) {
+	tokenize(tokens, rec.toCharArray(), 0, rec.length(), stripComments);
+}
+
+/**
+ * Tokenize the characters from start to end of the given buffer and append to the given list
+ * of tokens. The characters are treated as a single record in the same way as
+ * tokenize(tokens, rec, stripComments), but without first copying them to a String.
+ *
+ * @param tokens list of String tokens to append to
+ * @param buf characters to be tokenized
+ * @param start index of the first character of the record
+ * @param end index following the last character of the record
+ * @param stripComments if true, do not append any commented tokens
+ */
+public static final void tokenize(ArrayList<String> tokens, char[] buf, int start, int end, boolean stripComments) {
 	// Records can be divided into two pieces, the contents portion and possibly
 	// a commented portion, the division point is the first " character, if no
 	// quoting in a record, the entire line is contents for tokenizing
 	int tokStart = -1;
 	int quoteStart = -1;
 	int cIndex = -1;
-	int endOfRec = rec.length();
-	for (int i = 0; i < rec.length(); i++) {
-		char c = rec.charAt(i);
+	int endOfRec = end;
+	for (int i = start; i < end; i++) {
+		char c = buf[i];
 		if (c == '\'') {
 			// end the current token
 			if (tokStart != -1) {
-				if (i - tokStart > 0) tokens.add(rec.substring(tokStart, i));
+				if (i - tokStart > 0) tokens.add(new String(buf, tokStart, i - tokStart));
 				tokStart = -1;
 			}
 
 			// Set the quoting state
 			if (quoteStart != -1) {
-				tokens.add(rec.substring(quoteStart + 1, i));
+				tokens.add(new String(buf, quoteStart + 1, i - quoteStart - 1));
 				quoteStart = -1;
 			}
 			else {
@@ -64,7 +79,7 @@ public static final void tokenize(ArrayList<String> tokens, String rec, boolean
 		// handle delimiter chars
 		if (c == '{' || c == '}' || c == ' ' || c == '\t') {
 			if (tokStart != -1 && i - tokStart > 0) {
-				tokens.add(rec.substring(tokStart, i));
+				tokens.add(new String(buf, tokStart, i - tokStart));
 				tokStart = -1;
 			}
 
@@ -88,14 +103,14 @@ public static final void tokenize(ArrayList<String> tokens, String rec, boolean
 
 	// clean up the final trailing token
 	if (tokStart != -1)
-		tokens.add(rec.substring(tokStart, endOfRec));
+		tokens.add(new String(buf, tokStart, endOfRec - tokStart));
 
 	if (quoteStart != -1)
-		tokens.add(rec.substring(quoteStart + 1, endOfRec));
+		tokens.add(new String(buf, quoteStart + 1, endOfRec - quoteStart - 1));
 
 	// add comments if they exist including the leading " to denote it as commented
 	if (!stripComments && cIndex > -1)
-		tokens.add(rec.substring(cIndex, rec.length()));
+		tokens.add(new String(buf, cIndex, end - cIndex));
 }
 
 public static final boolean needsQuoting(CharSequence s) {
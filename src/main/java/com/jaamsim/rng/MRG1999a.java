@@ -92,6 +92,15 @@ public class MRG1999a {
 		setSeed(s0, s1, s2, s3, s4, s5);
 	}
 
+	/**
+	 * Constructs a random generator whose state is a copy of the given generator. The two
+	 * generators then return the same sequence of values.
+	 * @param rng - generator whose state is to be copied
+	 */
+	public MRG1999a(MRG1999a rng) {
+		copyFrom(rng);
+	}
+
 	/**
 	 * Return an integer as a long, treating the int as unsigned
 	 * @param i
@@ -143,6 +152,25 @@ public class MRG1999a {
 		this.s3 = (int)s3; this.s4 = (int)s4; this.s5 = (int)s5;
 	}
 
+	/**
+	 * Returns the present state of the generator. Passing the six values to setSeed() resumes
+	 * the sequence from this point.
+	 * @return the six seed values for the present state
+	 */
+	public long[] getSeed() {
+		long[] ret = { uint(s0), uint(s1), uint(s2), uint(s3), uint(s4), uint(s5) };
+		return ret;
+	}
+
+	/**
+	 * Sets the state of the generator to that of the given generator.
+	 * @param rng - generator whose state is to be copied
+	 */
+	public void copyFrom(MRG1999a rng) {
+		s0 = rng.s0; s1 = rng.s1; s2 = rng.s2;
+		s3 = rng.s3; s4 = rng.s4; s5 = rng.s5;
+	}
+
 	/**
 	 * Get the next uniformly distributed double value U(0,1)
 	 * @return
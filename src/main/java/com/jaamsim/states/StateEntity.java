@@ -77,6 +77,13 @@ public class StateEntity extends DisplayEntity {
 		stateListeners = new ArrayList<>();
 	}
 
+	/**
+	 * Returns true if the changes of state are written to a trace file.
+	 */
+	public boolean isTraceState() {
+		return traceState.getValue();
+	}
+
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
@@ -18,18 +18,22 @@ package com.jaamsim.ui;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
 import java.util.ArrayList;
 
 import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JFileChooser;
 import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
 import javax.swing.JRadioButtonMenuItem;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 import com.jaamsim.Commands.DefineCommand;
 import com.jaamsim.Commands.CoordinateCommand;
 import com.jaamsim.Commands.DeleteCommand;
 import com.jaamsim.Commands.KeywordCommand;
+import com.jaamsim.DisplayModels.ColladaModel;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Graphics.EntityLabel;
 import com.jaamsim.basicsim.Entity;
@@ -51,6 +55,68 @@ public class ContextMenu {
 		}
 	}
 
+	static {
+		addCustomMenuHandler(new ExportColladaModelHandler());
+	}
+
+	private static class ExportColladaModelHandler implements ContextMenuItem {
+		@Override
+		public String getMenuText() {
+			return "Export 3D Binary File (*.jsb)";
+		}
+
+		@Override
+		public boolean supportsEntity(Entity ent) {
+			if (ent instanceof ColladaModel)
+				return true;
+			return false;
+		}
+
+		@Override
+		public void performAction(Entity ent, int x, int y) {
+			ColladaModel model = (ColladaModel)ent;
+			// Create a file chooser
+			File colFile = new File(model.getColladaFile());
+			final JFileChooser chooser = new JFileChooser(colFile);
+
+			// Set the file extension filters
+			chooser.setAcceptAllFileFilterUsed(true);
+			FileNameExtensionFilter jsbFilter = new FileNameExtensionFilter("JaamSim 3D Binary Files (*.jsb)", "JSB");
+			chooser.addChoosableFileFilter(jsbFilter);
+			chooser.setFileFilter(jsbFilter);
+
+			// Set the default name for the binary file
+			String defName = colFile.getName().concat(".jsb");
+			chooser.setSelectedFile(new File(defName));
+
+			// Show the file chooser and wait for selection
+			int returnVal = chooser.showDialog(null, "Export");
+
+			// Create the selected graphics files
+			if (returnVal == JFileChooser.APPROVE_OPTION) {
+	            File file = chooser.getSelectedFile();
+				String filePath = file.getPath();
+
+				// Add the file extension ".jsb" if needed
+				filePath = filePath.trim();
+				if (filePath.indexOf('.') == -1)
+					filePath = filePath.concat(".jsb");
+
+				// Confirm overwrite if file already exists
+				File temp = new File(filePath);
+				if (temp.exists()) {
+					boolean confirmed = GUIFrame.showSaveAsDialog(file.getName());
+					if (!confirmed) {
+						return;
+					}
+				}
+
+				// Export the JSB file
+	            model.exportBinaryMesh(temp.getPath());
+			}
+		}
+	}
+
 	private static class UIMenuItem extends JMenuItem implements ActionListener {
 		final ContextMenuItem i;
 		final Entity ent;
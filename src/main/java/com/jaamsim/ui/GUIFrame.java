@@ -81,6 +81,8 @@ import com.jaamsim.Commands.KeywordCommand;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
+import com.jaamsim.basicsim.GUIListener;
+import com.jaamsim.basicsim.JaamSimModel;
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.controllers.RateLimiter;
 import com.jaamsim.controllers.RenderManager;
@@ -102,7 +104,7 @@ import com.jaamsim.units.Unit;
  * The main window for a Graphical Simulation.  It provides the controls for managing then
  * EventManager (run, pause, ...) and the graphics (zoom, pan, ...)
  */
-public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErrorListener {
+public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErrorListener, GUIListener {
 	private static GUIFrame instance;
 
 	// global shutdown flag
@@ -289,7 +291,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 			}
 
 			// Re-open the tools
-			Simulation.showActiveTools();
+			GUIFrame.showActiveTools();
 			FrameBox.reSelectEntity();
 		}
 
@@ -297,7 +299,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		public void windowIconified(WindowEvent e) {
 
 			// Close all the tools
-			Simulation.closeAllTools();
+			GUIFrame.closeAllTools();
 
 			// Save whether each window is open or closed
 			for (View v : View.getAll()) {
@@ -319,7 +321,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 			}
 
 			// Re-open the tools
-			Simulation.showActiveTools();
+			GUIFrame.showActiveTools();
 			FrameBox.reSelectEntity();
 		}
 	}
@@ -365,7 +367,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		InputAgent.clear();
 		InputAgent.setRecordEdits(false);
 		InputAgent.readResource("<res>/inputs/autoload.cfg");
-		InputAgent.setPreDefinedEntityCount( Entity.getAll().get( Entity.getAll().size() - 1 ).getEntityNumber());
+		InputAgent.setPreDefinedEntityCount(JaamSimModel.getJaamSimModel().getLastEntityNumber());
 
 		updateForUndo();
 	}
@@ -1547,7 +1549,8 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 	 *
 	 * @param state - an index that designates the state of the simulation run.
 	 */
-	void updateForSimulationState(int state) {
+	@Override
+	public void updateForSimulationState(int state) {
 		simState = state;
 
 		switch( getSimState() ) {
@@ -1735,6 +1738,103 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		snapToGrid.setSelected(Simulation.isSnapToGrid());
 	}
 
+	@Override
+	public void updateAll() {
+		GUIFrame.updateUI();
+	}
+
+	@Override
+	public void updateControls() {
+		updateForRT(Simulation.isRealTime(), Simulation.getRealTimeFactor());
+		updateForPT(Simulation.getInstance().getInput("PauseTime").getValueString());
+		updateForSnapToGrid();
+		updateSB();
+		updateForUndo();
+	}
+
+	@Override
+	public void setToolVisible(String keyword, boolean visible) {
+		switch (keyword) {
+		case "ShowModelBuilder":
+			setWindowVisible(EntityPallet.getInstance(), visible);
+			return;
+		case "ShowObjectSelector":
+			setWindowVisible(ObjectSelector.getInstance(), visible);
+			return;
+		case "ShowInputEditor":
+			setWindowVisible(EditBox.getInstance(), visible);
+			break;
+		case "ShowOutputViewer":
+			setWindowVisible(OutputBox.getInstance(), visible);
+			break;
+		case "ShowPropertyViewer":
+			setWindowVisible(PropertyBox.getInstance(), visible);
+			break;
+		case "ShowLogViewer":
+			setWindowVisible(LogBox.getInstance(), visible);
+			break;
+		case "ShowEventViewer":
+			if (visible)
+				setWindowVisible(EventViewer.getInstance(), true);
+			else if (EventViewer.hasInstance())
+				EventViewer.getInstance().dispose();
+			return;
+		default:
+			return;
+		}
+		FrameBox.reSelectEntity();
+	}
+
+	@Override
+	public void showErrorMessage(String title, String pre, String message, String post) {
+		GUIFrame.showErrorDialog(title, pre, message, post);
+	}
+
+	@Override
+	public void exit(int errorCode) {
+		GUIFrame.shutdown(errorCode);
+	}
+
+	public static void setWindowVisible(JFrame f, boolean visible) {
+		f.setVisible(visible);
+		if (visible)
+			f.toFront();
+	}
+
+	private static boolean isToolShown(String keyword) {
+		return (Boolean) Simulation.getInstance().getInput(keyword).getValue();
+	}
+
+	/**
+	 * Re-open any Tools windows that have been closed temporarily.
+	 */
+	public static void showActiveTools() {
+		setWindowVisible(EntityPallet.getInstance(), isToolShown("ShowModelBuilder"));
+		setWindowVisible(ObjectSelector.getInstance(), isToolShown("ShowObjectSelector"));
+		setWindowVisible(EditBox.getInstance(), isToolShown("ShowInputEditor"));
+		setWindowVisible(OutputBox.getInstance(), isToolShown("ShowOutputViewer"));
+		setWindowVisible(PropertyBox.getInstance(), isToolShown("ShowPropertyViewer"));
+		setWindowVisible(LogBox.getInstance(), isToolShown("ShowLogViewer"));
+		if (EventViewer.hasInstance())
+			setWindowVisible(EventViewer.getInstance(), isToolShown("ShowEventViewer"));
+	}
+
+	/**
+	 * Closes all the Tools windows temporarily.
+	 */
+	public static void closeAllTools() {
+		if (GUIFrame.getInstance() == null)
+			return;
+		setWindowVisible(EntityPallet.getInstance(), false);
+		setWindowVisible(ObjectSelector.getInstance(), false);
+		setWindowVisible(EditBox.getInstance(), false);
+		setWindowVisible(OutputBox.getInstance(), false);
+		setWindowVisible(PropertyBox.getInstance(), false);
+		setWindowVisible(LogBox.getInstance(), false);
+		if (EventViewer.hasInstance())
+			setWindowVisible(EventViewer.getInstance(), false);
+	}
+
 	public static Image getWindowIcon() {
 		return iconImage;
 	}
@@ -1845,6 +1945,8 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		boolean quiet = false;
 		boolean scriptMode = false;
 		boolean headless = false;
+		boolean parallel = false;
+		boolean compiled = false;
 
 		for (String each : args) {
 			// Batch mode
@@ -1884,6 +1986,18 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 				quiet = true;
 				continue;
 			}
+			// Execute multiple runs in parallel (batch mode only)
+			if (each.equalsIgnoreCase("-p") ||
+			    each.equalsIgnoreCase("-parallel")) {
+				parallel = true;
+				continue;
+			}
+			// Load the configuration file from its compiled form
+			if (each.equalsIgnoreCase("-c") ||
+			    each.equalsIgnoreCase("-compiled")) {
+				compiled = true;
+				continue;
+			}
 			if (each.equalsIgnoreCase("-sg") ||
 			    each.equalsIgnoreCase("-safe_graphics")) {
 				SAFE_GRAPHICS = true;
@@ -1894,6 +2008,8 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		}
 
 		InputAgent.setScriptMode(scriptMode);
+		InputAgent.setParallelRuns(parallel);
+		InputAgent.setCompiledConfig(compiled);
 
 		// If not running in batch mode, create the splash screen
 		JWindow splashScreen = null;
@@ -1919,7 +2035,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		// create a graphic simulation
 		LogBox.logLine("Loading Simulation Environment ... ");
 
-		EventManager evt = new EventManager("DefaultEventManager");
+		EventManager evt = JaamSimModel.getDefaultModel().getEventManager();
 		GUIFrame gui = null;
 		if (!headless) {
 			gui = GUIFrame.createInstance();
@@ -1927,6 +2043,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 			gui.updateForSimulationState(SIM_STATE_LOADED);
 			evt.setTimeListener(gui);
 			evt.setErrorListener(gui);
+			JaamSimModel.getDefaultModel().setGUIListener(gui);
 
 			if (minimize)
 				gui.setExtendedState(JFrame.ICONIFIED);
@@ -1945,7 +2062,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		// Load the autoload file
 		InputAgent.setRecordEdits(false);
 		InputAgent.readResource("<res>/inputs/autoload.cfg");
-		InputAgent.setPreDefinedEntityCount( Entity.getAll().get( Entity.getAll().size() - 1 ).getEntityNumber());
+		InputAgent.setPreDefinedEntityCount(JaamSimModel.getJaamSimModel().getLastEntityNumber());
 
 		// Show the Control Panel
 		if (gui != null) {
@@ -1999,7 +2116,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 
 		// If in batch or quiet mode, close the any tools that were opened
 		if (quiet || batch)
-			Simulation.closeAllTools();
+			GUIFrame.closeAllTools();
 
 		// Set RecordEdits mode (if it has not already been set in the configuration file)
 		InputAgent.setRecordEdits(true);
@@ -16,33 +16,45 @@
  */
 package com.jaamsim.ui;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
-
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.SwingUtilities;
 
+import com.jaamsim.basicsim.Log;
 import com.jaamsim.input.InputAgent;
 
 public class LogBox extends FrameBox {
 
 	private static LogBox myInstance;
 
-	private static Object logLock = new Object();
-	private static StringBuilder logBuilder = new StringBuilder();
-
 	private JTextArea logArea;
 
+	static {
+		// Append each new line to the existing log area if it exists
+		Log.setListener(new Log.LogListener() {
+			@Override
+			public void logLine(final String logLine) {
+				if (myInstance == null)
+					return;
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						LogBox inst = myInstance;
+						if (inst != null)
+							inst.logArea.append(logLine + "\n");
+					}
+				});
+			}
+		});
+	}
+
 	public LogBox() {
 		super( "Log Viewer" );
 		setDefaultCloseOperation(FrameBox.DISPOSE_ON_CLOSE);
 		addWindowListener(FrameBox.getCloseListener("ShowLogViewer"));
 
-		synchronized(logLock) {
-			logArea = new JTextArea(logBuilder.toString());
-			logArea.setEditable(false);
-		}
+		logArea = new JTextArea(Log.getText());
+		logArea.setEditable(false);
 
 		JScrollPane scrollPane = new JScrollPane(logArea);
 
@@ -82,19 +94,7 @@ public class LogBox extends FrameBox {
 	}
 
 	public static void logLine(final String logLine) {
-		synchronized(logLock) {
-			logBuilder.append(logLine + "\n");
-		}
-
-		// Append to the existing log area if it exists
-		if (myInstance != null) {
-			SwingUtilities.invokeLater(new Runnable() {
-				@Override
-				public void run() {
-					myInstance.logArea.append(logLine + "\n");
-				}
-			});
-		}
+		Log.logLine(logLine);
 	}
 
 	public static void formatRenderLog(String format, Object... args) {
@@ -110,16 +110,7 @@ public class LogBox extends FrameBox {
 	 * @param ex
 	 */
 	public static void logException(Throwable ex) {
-		// Below is some ugly java goofiness, but it works
-		StringWriter sw = new StringWriter();
-		PrintWriter pw = new PrintWriter( sw );
-		ex.printStackTrace( pw );
-		pw.flush();
-
-		String stackTrace = sw.toString();
-		logLine(stackTrace);
-
-		System.err.println(stackTrace);
+		Log.logException(ex);
 	}
 
 	public static void renderLogException(Throwable ex) {
@@ -24,6 +24,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
 	com.jaamsim.events.TestEventManager.class,
 	com.jaamsim.events.TestEventTree.class,
+	com.jaamsim.events.TestCalendarQueue.class,
+	com.jaamsim.basicsim.TestJaamSimModel.class,
 	com.jaamsim.math.TestAABB.class,
 	com.jaamsim.math.TestQuaternion.class,
 	com.jaamsim.math.TestTransform.class,
@@ -44,6 +46,7 @@ import org.junit.runners.Suite.SuiteClasses;
 	com.jaamsim.input.TestExpParser.class,
 	com.jaamsim.input.TestParser.class,
 	com.jaamsim.input.TestOutput.class,
+	com.jaamsim.input.TestCompiledConfig.class,
 	com.jaamsim.probability.TestContinuousDistribution.class,
 	com.jaamsim.probability.TestDiscreteDistribution.class,
 	com.jaamsim.probability.TestErlangDistribution.class,
@@ -60,5 +63,7 @@ import org.junit.runners.Suite.SuiteClasses;
 	com.jaamsim.probability.TestBooleanSelector.class,
 	com.jaamsim.MeshFiles.TestVertexMap.class,
 	com.jaamsim.MeshFiles.TestDataBlocks.class,
+	com.jaamsim.datatypes.TestIndexedTreeSet.class,
+	com.jaamsim.datatypes.TestPersistentVector.class,
 })
 public class AllTests {}
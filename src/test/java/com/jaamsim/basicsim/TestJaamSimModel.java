@@ -0,0 +1,459 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.events.TestFrameworkHelpers;
+import com.jaamsim.input.ExpError;
+import com.jaamsim.input.ExpResult;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.StringInput;
+import com.jaamsim.rng.MRG1999a;
+
+public class TestJaamSimModel {
+
+	@Test
+	public void testThreadModel() {
+		JaamSimModel model1 = new JaamSimModel("TestModel1");
+		JaamSimModel model2 = new JaamSimModel("TestModel2");
+		try {
+			JaamSimModel.setThreadModel(model1);
+			Entity ent1 = new Entity();
+			ent1.setName("TestEntity");
+			assertTrue(ent1.getJaamSimModel() == model1);
+
+			JaamSimModel.setThreadModel(model2);
+			Entity ent2 = new Entity();
+			ent2.setName("TestEntity");
+			assertTrue(ent2.getJaamSimModel() == model2);
+
+			// The same name can be used in each model
+			assertTrue(Entity.getNamedEntity("TestEntity") == ent2);
+			assertTrue(model1.getNamedEntity("TestEntity") == ent1);
+			assertTrue(model2.getEntities().size() == 1);
+
+			ent2.kill();
+			assertTrue(model2.getEntities().isEmpty());
+			assertTrue(model1.getEntities().size() == 1);
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+			model1.close();
+			model2.close();
+		}
+		assertTrue(JaamSimModel.getJaamSimModel() == JaamSimModel.getDefaultModel());
+	}
+
+	static class CreateEntityTarget extends ProcessTarget {
+		Entity ent;
+
+		@Override
+		public String getDescription() {
+			return "CreateEntity";
+		}
+
+		@Override
+		public void process() {
+			ent = new Entity();
+		}
+	}
+
+	@Test
+	public void testEventManagerModel() {
+		JaamSimModel model = new JaamSimModel("TestModel3");
+		try {
+			EventManager evt = model.getEventManager();
+			evt.clear();
+			CreateEntityTarget target = new CreateEntityTarget();
+			evt.scheduleProcessExternal(0, 0, false, target, null);
+			TestFrameworkHelpers.runEventsToTick(evt, Long.MAX_VALUE, 1000);
+
+			// Entities created by a model's events belong to that model
+			assertTrue(target.ent.getJaamSimModel() == model);
+			assertTrue(model.getEntities().size() == 1);
+			assertTrue(evt.getOwner() == model);
+		}
+		finally {
+			model.close();
+		}
+
+		// A closed model is no longer found from its EventManager
+		assertTrue(model.getEventManager().getOwner() == null);
+	}
+
+	@Test
+	public void testModelState() {
+		JaamSimModel model1 = new JaamSimModel("TestModel11");
+		JaamSimModel model2 = new JaamSimModel("TestModel12");
+		try {
+			// Each model has its own Simulation inputs
+			JaamSimModel.setThreadModel(model1);
+			assertTrue(Simulation.getInstance() == null);
+			assertTrue(!Simulation.getExitAtStop());
+			Simulation sim1 = InputAgent.defineEntityWithUniqueName(Simulation.class, "Simulation", "_", true);
+			assertTrue(model1.getSimulation() == sim1);
+			InputAgent.applyArgs(sim1, "ExitAtStop", "TRUE");
+			InputAgent.setRecordEdits(true);
+			assertTrue(Simulation.getExitAtStop());
+
+			JaamSimModel.setThreadModel(model2);
+			Simulation sim2 = InputAgent.defineEntityWithUniqueName(Simulation.class, "Simulation", "_", true);
+			assertTrue(Simulation.getInstance() == sim2);
+			assertTrue(!Simulation.getExitAtStop());
+			assertTrue(!InputAgent.recordEdits());
+
+			// The InputAgent state is held by each model
+			JaamSimModel.setThreadModel(model1);
+			assertTrue(Simulation.getExitAtStop());
+			assertTrue(InputAgent.recordEdits());
+			assertTrue(model1.getInputAgentState() != model2.getInputAgentState());
+
+			sim1.kill();
+			assertTrue(model1.getSimulation() == null);
+			assertTrue(!Simulation.getExitAtStop());
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+			model1.close();
+			model2.close();
+		}
+	}
+
+	@Test
+	public void testEntityRegistry() {
+		JaamSimModel model = new JaamSimModel("TestModel4");
+		try {
+			JaamSimModel.setThreadModel(model);
+			Entity[] ents = new Entity[1000];
+			for (int i = 0; i < ents.length; i++) {
+				ents[i] = new Entity();
+				ents[i].setName("Ent" + i);
+			}
+
+			// Remove most of the entities so that the empty slots are reclaimed
+			for (int i = 0; i < ents.length; i++) {
+				if (i % 10 != 0)
+					ents[i].kill();
+			}
+			assertTrue(model.getEntityCount() == 100);
+			assertTrue(model.getEntities().size() == 100);
+			assertTrue(Entity.idToEntity(ents[1].getEntityNumber()) == null);
+			assertTrue(Entity.idToEntity(ents[500].getEntityNumber()) == ents[500]);
+			assertTrue(model.getNamedEntity("Ent1") == null);
+			assertTrue(model.getNamedEntity("Ent990") == ents[990]);
+			assertTrue(model.getLastEntityNumber() == ents[990].getEntityNumber());
+
+			// An iterator continues from the right place when the entities are moved
+			int count = 0;
+			long lastNum = 0;
+			for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
+				assertTrue(each.getEntityNumber() > lastNum);
+				lastNum = each.getEntityNumber();
+				if (count == 10) {
+					for (int i = 0; i < 500; i += 10)
+						ents[i].kill();
+				}
+				count++;
+			}
+			assertTrue(count == 61);
+
+			// Restored entities return to their original position
+			ents[1].restore("Ent1");
+			ents[20].restore("Ent20");
+			ArrayList<? extends Entity> list = model.getEntities();
+			assertTrue(list.size() == 52);
+			assertTrue(list.get(0) == ents[1]);
+			assertTrue(list.get(1) == ents[20]);
+			assertTrue(list.get(2) == ents[500]);
+			assertTrue(Entity.idToEntity(ents[20].getEntityNumber()) == ents[20]);
+
+			// New entities are added at the end
+			Entity ent = new Entity();
+			list = model.getEntities();
+			assertTrue(list.get(list.size() - 1) == ent);
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+			model.close();
+		}
+	}
+
+	interface Marker {}
+	public static class EntA extends Entity {}
+	public static class EntB extends EntA implements Marker {}
+	public static class EntC extends Entity implements Marker {}
+
+	@Test
+	public void testClassIndex() {
+		JaamSimModel model = new JaamSimModel("TestModel5");
+		try {
+			JaamSimModel.setThreadModel(model);
+			ArrayList<Entity> ents = new ArrayList<>();
+			for (int i = 0; i < 300; i++) {
+				Entity ent;
+				if (i % 3 == 0)
+					ent = new EntA();
+				else if (i % 3 == 1)
+					ent = new EntB();
+				else
+					ent = new EntC();
+				ent.setName("Ent" + i);
+				ents.add(ent);
+			}
+
+			// Each iterator returns the matching entities in order of entity number
+			ArrayList<Entity> list = new ArrayList<>();
+			for (EntA each : Entity.getClonesOfIterator(EntA.class)) {
+				list.add(each);
+			}
+			assertTrue(list.size() == 200);
+			for (int i = 0; i < list.size(); i++) {
+				assertTrue(list.get(i) == ents.get(i / 2 * 3 + i % 2));
+			}
+
+			int count = 0;
+			for (EntA each : Entity.getInstanceIterator(EntA.class)) {
+				assertTrue(each.getClass() == EntA.class);
+				count++;
+			}
+			assertTrue(count == 100);
+
+			list.clear();
+			for (Entity each : Entity.getClonesOfIterator(Entity.class, Marker.class)) {
+				list.add(each);
+			}
+			assertTrue(list.size() == 200);
+			for (int i = 0; i < list.size(); i++) {
+				assertTrue(list.get(i) == ents.get(i / 2 * 3 + i % 2 + 1));
+			}
+
+			// Entities removed or created during the iteration are skipped or included
+			list.clear();
+			Entity added = null;
+			for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
+				list.add(each);
+				if (each == ents.get(10)) {
+					for (int i = 11; i < 290; i++) {
+						ents.get(i).kill();
+					}
+					added = new EntC();
+					added.setName("Added");
+				}
+			}
+			assertTrue(list.size() == 11 + 10 + 1);
+			assertTrue(list.get(11) == ents.get(290));
+			assertTrue(list.get(list.size() - 1) == added);
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+			model.close();
+		}
+	}
+
+	@Test
+	public void testGeneratedName() {
+		JaamSimModel model = new JaamSimModel("TestModel6");
+		try {
+			JaamSimModel.setThreadModel(model);
+			Entity proto = InputAgent.defineEntityWithUniqueName(Entity.class, "Proto", "_", true);
+			InputAgent.applyArgs(proto, "Description", "abc");
+
+			Entity ent = InputAgent.generateEntity(proto, "Gen", "_", 5);
+			assertTrue(ent.testFlag(Entity.FLAG_GENERATED));
+			assertTrue(ent.getName().equals("Gen_5"));
+			assertTrue(ent.toString().equals("Gen_5"));
+			assertTrue(ent.getInput("Description").getValue().equals("abc"));
+			assertTrue(Entity.getNamedEntity("Gen_5") == null);
+
+			Entity dup = InputAgent.generateEntity(ent, ent.getName(), "_Dup", 1);
+			assertTrue(dup.getName().equals("Gen_5_Dup1"));
+			dup.setName("Renamed");
+			assertTrue(dup.getName().equals("Renamed"));
+
+			// A removed entity has no name
+			Entity ent2 = InputAgent.generateEntity(proto, "Gen", "_", 6);
+			ent2.kill();
+			assertTrue(ent2.getName() == null);
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+			model.close();
+		}
+	}
+
+	public static class EntR extends Entity {
+		final MRG1999a rng1 = new MRG1999a(1, 0);
+	}
+	public static class EntS extends EntR {
+		final MRG1999a rng2 = new MRG1999a(2, 0);
+	}
+
+	@Test
+	public void testRandomState() {
+		JaamSimModel model1 = new JaamSimModel("TestModel9");
+		JaamSimModel model2 = new JaamSimModel("TestModel10");
+		try {
+			JaamSimModel.setThreadModel(model1);
+			EntS ent1 = InputAgent.defineEntityWithUniqueName(EntS.class, "Dist", "_", true);
+			for (int i = 0; i < 10; i++) {
+				ent1.rng1.nextUniform();
+				ent1.rng2.nextUniform();
+			}
+			RandomState state = RandomState.save(model1);
+			assertTrue(state.size() == 1);
+
+			// A second model continues each sequence from the saved point
+			JaamSimModel.setThreadModel(model2);
+			EntS ent2 = InputAgent.defineEntityWithUniqueName(EntS.class, "Dist", "_", true);
+			state.restore(model2);
+			double first = ent1.rng1.nextUniform();
+			assertTrue(ent2.rng1.nextUniform() == first);
+			for (int i = 0; i < 100; i++) {
+				assertTrue(ent1.rng1.nextUniform() == ent2.rng1.nextUniform());
+				assertTrue(ent1.rng2.nextUniform() == ent2.rng2.nextUniform());
+			}
+
+			// The saved state is not changed by the generators that were restored from it
+			state.restore(model2);
+			assertTrue(ent2.rng1.nextUniform() == first);
+
+			// A model with an entity whose state was not saved cannot be restored
+			InputAgent.defineEntityWithUniqueName(EntR.class, "Other", "_", true);
+			try {
+				state.restore(model2);
+				assertTrue(false);
+			}
+			catch (ErrorException e) {}
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+			model1.close();
+			model2.close();
+		}
+	}
+
+	public static class EntD extends Entity {
+		void addStringInput(String key) {
+			this.addInput(new StringInput(key, "Key Inputs", ""));
+		}
+	}
+
+	@Test
+	public void testKeywordIndex() {
+		JaamSimModel model = new JaamSimModel("TestModel8");
+		try {
+			JaamSimModel.setThreadModel(model);
+			EntD ent1 = new EntD();
+			EntD ent2 = new EntD();
+			assertTrue(ent1.getInput("Description") != null);
+			assertTrue(ent1.getInput("Extra") == null);
+
+			// An entity that adds an input of its own finds it without changing the other entity
+			ent2.addStringInput("Extra");
+			assertTrue(ent2.getInput("Extra") != null);
+			assertTrue(ent2.getInput("Description") != ent1.getInput("Description"));
+			assertTrue(ent2.getInput("Description").getKeyword().equals("Description"));
+			assertTrue(ent1.getInput("Extra") == null);
+			assertTrue(ent2.getInput("Extra") != null);
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+			model.close();
+		}
+	}
+
+	@Test
+	public void testEntityPool() {
+		JaamSimModel model = new JaamSimModel("TestModel7");
+		try {
+			JaamSimModel.setThreadModel(model);
+			Entity proto = InputAgent.defineEntityWithUniqueName(Entity.class, "Proto", "_", true);
+			InputAgent.applyArgs(proto, "Description", "abc");
+
+			// Entities generated without recycling are destroyed
+			Entity ent = InputAgent.generateEntity(proto, "Gen", "_", 1);
+			ent.recycle();
+			assertTrue(ent.testFlag(Entity.FLAG_DEAD));
+			assertTrue(!ent.testFlag(Entity.FLAG_POOLED));
+			assertTrue(model.reuseEntity(proto) == null);
+
+			// A recycled entity is re-used with a new number and name
+			ent = InputAgent.generateEntity(proto, "Gen", "_", 2, true);
+			long num = ent.getEntityNumber();
+			int gen = ent.getGeneration();
+			ExpResult ref = ExpResult.makeEntityResult(ent);
+			ent.recycle();
+			assertTrue(ent.testFlag(Entity.FLAG_POOLED));
+			assertTrue(model.idToEntity(num) == null);
+
+			Entity ent2 = InputAgent.generateEntity(proto, "Gen", "_", 3, true);
+			assertTrue(ent2 == ent);
+			assertTrue(ent2.getEntityNumber() > num);
+			assertTrue(model.idToEntity(num) == null);
+			assertTrue(model.idToEntity(ent2.getEntityNumber()) == ent2);
+			assertTrue(!ent2.testFlag(Entity.FLAG_DEAD));
+			assertTrue(!ent2.testFlag(Entity.FLAG_POOLED));
+			assertTrue(ent2.getName().equals("Gen_3"));
+			assertTrue(ent2.getInput("Description").getValue().equals("abc"));
+
+			// A reference recorded before the entity was re-used reports an error when it is used
+			assertTrue(ent2.getGeneration() == gen + 1);
+			try {
+				ent2.checkGeneration(gen);
+				assertTrue(false);
+			}
+			catch (ErrorException e) {}
+			try {
+				ref.checkEntityGeneration();
+				assertTrue(false);
+			}
+			catch (ExpError e) {}
+
+			// An entity cannot be recycled twice
+			ent2.recycle();
+			try {
+				ent2.recycle();
+				assertTrue(false);
+			}
+			catch (ErrorException e) {}
+
+			// Changing the prototype's inputs discards the recycled entities
+			InputAgent.applyArgs(proto, "Description", "def");
+			Entity ent3 = InputAgent.generateEntity(proto, "Gen", "_", 4, true);
+			assertTrue(ent3 != ent2);
+			assertTrue(ent3.getInput("Description").getValue().equals("def"));
+			assertTrue(!proto.hasPool);
+
+			// A generated entity whose inputs have been changed is not kept for re-use
+			InputAgent.applyArgs(ent3, "Description", "ghi");
+			ent3.recycle();
+			assertTrue(ent3.testFlag(Entity.FLAG_DEAD));
+			assertTrue(!ent3.testFlag(Entity.FLAG_POOLED));
+		}
+		finally {
+			JaamSimModel.setThreadModel(null);
+			model.close();
+		}
+	}
+}
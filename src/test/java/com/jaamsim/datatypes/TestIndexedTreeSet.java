@@ -0,0 +1,120 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.datatypes;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class TestIndexedTreeSet {
+
+	@Test
+	public void testAddRemove() {
+		IndexedTreeSet<Integer> set = new IndexedTreeSet<>();
+		TreeSet<Integer> ref = new TreeSet<>();
+		Random rand = new Random(1);
+
+		for (int i = 0; i < 20000; i++) {
+			Integer val = rand.nextInt(2000);
+			if (rand.nextInt(3) == 0)
+				assertTrue(set.remove(val) == ref.remove(val));
+			else
+				assertTrue(set.add(val) == ref.add(val));
+			assertTrue(set.size() == ref.size());
+		}
+		assertTrue(set.verify());
+
+		ArrayList<Integer> list = new ArrayList<>(ref);
+		assertTrue(set.toList().equals(list));
+		assertTrue(set.first().equals(ref.first()));
+		for (int i = 0; i < list.size(); i++) {
+			assertTrue(set.get(i).equals(list.get(i)));
+			assertTrue(set.indexOf(list.get(i)) == i);
+		}
+		for (int i = 0; i < 2000; i++) {
+			if (!ref.contains(i))
+				assertTrue(set.indexOf(i) == -1);
+		}
+
+		set.clear();
+		assertTrue(set.isEmpty());
+		assertTrue(set.size() == 0);
+	}
+
+	@Test
+	public void testOrderedInput() {
+		IndexedTreeSet<Integer> set = new IndexedTreeSet<>();
+		ArrayList<Integer> vals = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			vals.add(i);
+		}
+
+		// Adding and removing at the ends keeps the tree balanced
+		for (Integer val : vals) {
+			set.add(val);
+		}
+		assertTrue(set.verify());
+		for (int i = 0; i < 5000; i++) {
+			assertTrue(set.remove(set.first()));
+		}
+		assertTrue(set.verify());
+		assertTrue(set.first() == 5000);
+
+		Collections.reverse(vals);
+		for (Integer val : vals) {
+			set.add(val);
+		}
+		assertTrue(set.verify());
+		assertTrue(set.size() == 10000);
+		assertTrue(set.indexOf(9999) == 9999);
+	}
+
+	@Test
+	public void testExceptions() {
+		IndexedTreeSet<Integer> set = new IndexedTreeSet<>();
+		try {
+			set.first();
+			assertTrue(false);
+		}
+		catch (NoSuchElementException e) {}
+
+		set.add(1);
+		set.add(2);
+		try {
+			set.get(2);
+			assertTrue(false);
+		}
+		catch (IndexOutOfBoundsException e) {}
+
+		Iterator<Integer> itr = set.iterator();
+		itr.next();
+		set.add(3);
+		try {
+			itr.next();
+			assertTrue(false);
+		}
+		catch (ConcurrentModificationException e) {}
+	}
+}
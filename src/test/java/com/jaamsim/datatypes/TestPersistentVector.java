@@ -0,0 +1,99 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.datatypes;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestPersistentVector {
+
+	private static void assertSame(ArrayList<Integer> ref, PersistentVector<Integer> vec) {
+		assertTrue(vec.size() == ref.size());
+		for (int i = 0; i < ref.size(); i++) {
+			assertTrue(vec.get(i).equals(ref.get(i)));
+		}
+	}
+
+	@Test
+	public void testAdd() {
+		// Enough elements for a tree with three levels below the root
+		PersistentVector<Integer> vec = PersistentVector.empty();
+		ArrayList<Integer> ref = new ArrayList<>();
+		for (int i = 0; i < 40000; i++) {
+			vec = vec.add(i);
+			ref.add(i);
+		}
+		assertSame(ref, vec);
+		assertTrue(PersistentVector.empty().isEmpty());
+
+		for (int n : new int[] {0, 1, 32, 33, 1000}) {
+			assertSame(new ArrayList<>(ref.subList(0, n)), PersistentVector.from(ref.subList(0, n)));
+		}
+	}
+
+	@Test
+	public void testVersions() {
+		Random rand = new Random(1);
+		ArrayList<PersistentVector<Integer>> versions = new ArrayList<>();
+		ArrayList<ArrayList<Integer>> refs = new ArrayList<>();
+
+		PersistentVector<Integer> vec = PersistentVector.empty();
+		ArrayList<Integer> ref = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			if (ref.isEmpty() || rand.nextInt(3) == 0) {
+				vec = vec.add(i);
+				ref.add(i);
+			}
+			else {
+				int index = rand.nextInt(ref.size());
+				vec = vec.set(index, -i);
+				ref.set(index, -i);
+			}
+			if (i % 250 == 0) {
+				versions.add(vec);
+				refs.add(new ArrayList<>(ref));
+			}
+		}
+
+		// The earlier versions are not changed by later modifications
+		for (int i = 0; i < versions.size(); i++) {
+			assertSame(refs.get(i), versions.get(i));
+		}
+	}
+
+	@Test
+	public void testBounds() {
+		PersistentVector<Integer> vec = PersistentVector.empty();
+		vec = vec.add(1);
+		for (int index : new int[] {-1, 1}) {
+			try {
+				vec.get(index);
+				assertTrue(false);
+			}
+			catch (IndexOutOfBoundsException e) {}
+			try {
+				vec.set(index, 0);
+				assertTrue(false);
+			}
+			catch (IndexOutOfBoundsException e) {}
+		}
+	}
+}
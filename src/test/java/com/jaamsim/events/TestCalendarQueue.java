@@ -0,0 +1,98 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestCalendarQueue {
+
+	@Test
+	public void testInsertRemove() {
+		CalendarQueue cal = new CalendarQueue();
+
+		for (int i = 10000; i > 0; --i) {
+			cal.createOrFindNode(i, 0);
+			cal.createOrFindNode(-i, 1);
+			assertTrue(cal.verify() == (10001 - i) * 2);
+		}
+		assertTrue(cal.getNextNode().schedTick == -10000);
+
+		for (int i = 1; i <= 10000; ++i) {
+			assertTrue(cal.find(i, 0) != null);
+			assertTrue(cal.find(-i, 1) != null);
+			assertTrue(cal.find(i, 1) == null);
+		}
+
+		for (int i = 10000; i > 0; --i) {
+			assertTrue(cal.removeNode(-i, 1));
+			assertTrue(cal.removeNode(i, 0));
+			assertTrue(cal.verify() == (i - 1) * 2);
+		}
+		assertTrue(cal.getNextNode() == null);
+		assertTrue(!cal.removeNode(0, 0));
+	}
+
+	@Test
+	public void testHoldModel() {
+		// Compare the order in which the nodes are returned with the red-black tree
+		EventTree tree = new EventTree();
+		CalendarQueue cal = new CalendarQueue();
+		Random rand = new Random(42);
+
+		for (int i = 0; i < 1000; i++) {
+			long tick = rand.nextInt(100000);
+			int prio = rand.nextInt(5);
+			tree.createOrFindNode(tick, prio);
+			cal.createOrFindNode(tick, prio);
+		}
+
+		for (int i = 0; i < 100000; i++) {
+			EventNode next = tree.getNextNode();
+			long tick = next.schedTick;
+			int prio = next.priority;
+			assertTrue(cal.getNextNode().compare(tick, prio) == 0);
+			tree.removeNode(tick, prio);
+			cal.removeNode(tick, prio);
+
+			// Occasionally grow or shrink the list and schedule far into the future
+			int num = 1;
+			if (i % 1000 == 0)
+				num = rand.nextInt(3) * 500;
+			for (int j = 0; j < num; j++) {
+				long newTick = tick + (i % 97 == 0 ? 1000000000L : rand.nextInt(200));
+				int newPrio = rand.nextInt(5);
+				tree.createOrFindNode(newTick, newPrio);
+				cal.createOrFindNode(newTick, newPrio);
+			}
+
+			// Remove a node at random from the middle of the list
+			if (i % 10 == 0) {
+				long t = tick + rand.nextInt(200);
+				int p = rand.nextInt(5);
+				assertTrue(tree.removeNode(t, p) == cal.removeNode(t, p));
+			}
+
+			if (i % 5000 == 0)
+				assertTrue(cal.verify() == tree.verifyNodeCount());
+		}
+		assertTrue(cal.verify() == tree.verifyNodeCount());
+	}
+}
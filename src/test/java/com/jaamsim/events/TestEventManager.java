@@ -337,6 +337,131 @@ public class TestEventManager {
 		}
 	}
 
+	/**
+	 * Kill events at the head, tail and middle of the list of events at the same time and
+	 * test that the remaining events are executed in order.
+	 */
+	@Test
+	public void testKillEvent() {
+		EventManager evt = new EventManager("testKillEventEVT");
+		evt.clear();
+
+		final ArrayList<String> log = new ArrayList<>();
+		final EventHandle[] handles = new EventHandle[7];
+		for (int i = 0; i < handles.length; i++) {
+			handles[i] = new EventHandle();
+		}
+		for (int i = 0; i < 6; i++) {
+			evt.scheduleProcessExternal(5, 0, true, new LogTarget(i, log), handles[i]);
+		}
+		evt.scheduleProcessExternal(5, 0, false, new LogTarget(6, log), handles[6]);
+
+		evt.scheduleProcessExternal(1, 0, false, new ProcessTarget() {
+			@Override
+			public String getDescription() { return ""; }
+
+			@Override
+			public void process() {
+				EventManager.killEvent(handles[6]);
+				EventManager.killEvent(handles[5]);
+				EventManager.killEvent(handles[2]);
+				EventManager.scheduleTicks(4, 0, true, new LogTarget(7, log), null);
+				EventManager.scheduleTicks(4, 0, false, new LogTarget(8, log), null);
+			}
+		}, null);
+
+		TestFrameworkHelpers.runEventsToTick(evt, 100, 1000);
+
+		ArrayList<String> expected = new ArrayList<>();
+		expected.add("Target:8");
+		expected.add("Target:0");
+		expected.add("Target:1");
+		expected.add("Target:3");
+		expected.add("Target:4");
+		expected.add("Target:7");
+
+		assertTrue(expected.size() == log.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertTrue(expected.get(i).equals(log.get(i)));
+		}
+		for (int i = 0; i < handles.length; i++) {
+			assertTrue(!handles[i].isScheduled());
+		}
+	}
+
+	/**
+	 * Test that a tracked condition is only evaluated after its dependency has changed, while an
+	 * untracked condition is evaluated before every advance in simulation time.
+	 */
+	@Test
+	public void testTrackedConditional() {
+		EventManager evt = new EventManager("testTrackedConditionalEVT");
+		evt.clear();
+
+		final ArrayList<String> log = new ArrayList<>();
+		final ChangeTracker tracker = new ChangeTracker();
+		final int[] value = new int[1];
+
+		final Conditional tracked = new Conditional() {
+			@Override
+			public boolean evaluate() {
+				EventManager.trackDependency(tracker);
+				return value[0] >= 3;
+			}
+
+			@Override
+			public boolean isTracked() {
+				return true;
+			}
+		};
+		final Conditional untracked = new Conditional() {
+			@Override
+			public boolean evaluate() {
+				return EventManager.simTicks() >= 8;
+			}
+		};
+
+		evt.scheduleProcessExternal(0, 0, false, new ProcessTarget() {
+			@Override
+			public String getDescription() { return ""; }
+
+			@Override
+			public void process() {
+				EventManager.scheduleUntil(new LogTarget(0, log), tracked, null);
+				EventManager.scheduleUntil(new LogTarget(1, log), untracked, null);
+				for (int i = 1; i <= 10; i++) {
+					EventManager.waitTicks(1, 0, false, null);
+					value[0]++;
+					if (i % 2 == 0) {
+						tracker.changed();
+						log.add("Changed:" + value[0]);
+					}
+				}
+			}
+		}, null);
+
+		TestFrameworkHelpers.runEventsToTick(evt, 100, 1000);
+
+		ArrayList<String> expected = new ArrayList<>();
+		expected.add("Changed:2");
+		expected.add("Changed:4");
+		expected.add("Target:0");
+		expected.add("Changed:6");
+		expected.add("Changed:8");
+		expected.add("Target:1");
+		expected.add("Changed:10");
+
+		assertTrue(expected.size() == log.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertTrue(expected.get(i).equals(log.get(i)));
+		}
+
+		// The tracked condition is evaluated at ticks 0, 2 and 4 and skipped at 1 and 3, while
+		// the untracked condition is evaluated at ticks 0 to 8 and a second time at tick 4
+		assertTrue(evt.getSkippedConditionEvaluations() == 2);
+		assertTrue(evt.getConditionEvaluations() == 3 + 10);
+	}
+
 	private static class LogTarget extends ProcessTarget {
 		final ArrayList<String> log;
 		final int num;
@@ -0,0 +1,80 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+public class TestCompiledConfig {
+
+	private static void writeFile(File file, String text) throws IOException {
+		try (FileWriter out = new FileWriter(file)) {
+			out.write(text);
+		}
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		File cfg = File.createTempFile("TestCompiledConfig", ".cfg");
+		File inc = File.createTempFile("TestCompiledConfig", ".inc");
+		File compiled = File.createTempFile("TestCompiledConfig", ".jsc");
+		try {
+			writeFile(cfg, "Define DisplayEntity { A }\n");
+			writeFile(inc, "A Description { 'a b' }\n");
+			ParseContext cfgContext = new ParseContext(cfg.toURI(), "");
+			ParseContext incContext = new ParseContext(inc.toURI(), null);
+
+			CompiledConfig cc = new CompiledConfig();
+			ArrayList<String> tok = new ArrayList<>();
+			Parser.tokenize(tok, "Define DisplayEntity { A }", true);
+			cc.addRecord(cfgContext, tok);
+			tok.clear();
+			Parser.tokenize(tok, "A Description { 'a b' }", true);
+			cc.addRecord(incContext, tok);
+			cc.write(compiled);
+
+			CompiledConfig read = CompiledConfig.read(compiled);
+			assertTrue(read != null);
+			assertTrue(read.isCurrent());
+			assertTrue(cfg.toURI().equals(read.getConfigURI()));
+			assertTrue(read.records.size() == 2);
+			assertTrue(read.records.get(1).equals(tok));
+			assertTrue(read.records.get(1).get(2) == "{");
+			assertTrue(read.recordSources.get(1) == 1);
+			assertTrue(read.sources.get(0).jail.equals(""));
+			assertTrue(read.sources.get(1).jail == null);
+
+			// A change to any of the source files makes the compiled file out of date
+			writeFile(inc, "A Description { 'a c' }\n");
+			assertTrue(!CompiledConfig.read(compiled).isCurrent());
+
+			// A file that is not a compiled configuration is not read
+			assertTrue(CompiledConfig.read(cfg) == null);
+		}
+		finally {
+			cfg.delete();
+			inc.delete();
+			compiled.delete();
+		}
+	}
+}
@@ -984,7 +984,7 @@ public class TestExpParser {
 
 		ArrayList<ExpResult> initialRes = new ArrayList<>();
 		initialRes.add(ExpResult.makeNumResult(42, DimensionlessUnit.class));
-		cont.col = ExpCollections.makeExpressionCollection(initialRes, false).colVal;
+		cont.col = ExpCollections.makeExpressionCollection(initialRes).colVal;
 		AssignPC apc = new AssignPC(cont);
 
 		ExpParser.Assignment assign = ExpParser.parseAssignment(apc, "[foo].arg = 40 + 2");
@@ -1002,4 +1002,50 @@ public class TestExpParser {
 		assert(contained.value == 45.0);
 		assert(cont.lastAttribName.equals("blarg"));
 	}
+
+	@Test
+	public void testCollectionSharing() throws ExpError {
+		ExpResult col = ExpParser.parseExpression(pc, "{1, 2, 3}").evaluate(ec);
+		assertTrue(col.getCopy() == col);
+
+		// Assignment and append return new collections without changing the original
+		ExpResult one = ExpResult.makeNumResult(1, DimensionlessUnit.class);
+		ExpResult.Collection assigned = col.colVal.assign(one, ExpResult.makeNumResult(5, DimensionlessUnit.class));
+		ExpResult.Collection extended = col.colVal.assign(ExpResult.makeNumResult(5, DimensionlessUnit.class), one);
+		ExpResult appended = ExpCollections.appendToCollection(col.colVal, one);
+		assertColSame(new double[] {1, 2, 3}, col.colVal);
+		assertColSame(new double[] {5, 2, 3}, assigned);
+		assertColSame(new double[] {1, 2, 3, 0, 1}, extended);
+		assertColSame(new double[] {1, 2, 3, 1}, appended.colVal);
+	}
+
+	@Test
+	public void testCompiledNumbers() throws ExpError {
+		String[] exps = {
+			"2*5 + 3*5*(3-1)+2",
+			"1 + 2^2*4 + 2*[foo].foo",
+			"50/2/5 - 7%3",
+			"2---+-2",
+			"!42 + !0",
+			"([foo].foo > 3) && ([bar].bar <= 3) || (1 == 2)",
+			"0 && (1/0 > 0)",
+			"[foo].foo != 4 ? -1 : max(1, [foo].foo, 3) + min([bar].bar, 2)",
+			"abs(-[bar].bar) + floor(2.5) + ceil(2.5) + signum(-3)",
+			"sqrt([foo].foo) + cbrt(27) + exp(0) + ln(1) + log(100)",
+			"sin(1) + cos(1) + tan([bar].bar)",
+			"asin(0.5) + acos(0.5) + atan(1) + atan2(1, [foo].foo)",
+			"size({1, 2, [foo].foo}) + 1",
+		};
+
+		for (String str : exps) {
+			ExpParser.setCompileNumbers(false);
+			ExpResult interpreted = ExpParser.parseExpression(pc, str).evaluate(ec);
+			ExpParser.setCompileNumbers(true);
+			ExpResult compiled = ExpParser.parseExpression(pc, str).evaluate(ec);
+
+			assertTrue(str, compiled.type == ExpResType.NUMBER);
+			assertTrue(str, compiled.value == interpreted.value);
+			assertTrue(str, compiled.unitType == interpreted.unitType);
+		}
+	}
 }
@@ -23,7 +23,11 @@ import java.lang.reflect.Method;
 import org.junit.Test;
 
 import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.ProbabilityDistributions.ExponentialDistribution;
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.units.DistanceUnit;
+import com.jaamsim.units.TimeUnit;
 
 public class TestOutput {
 
@@ -63,4 +67,67 @@ public class TestOutput {
 		}
 	}
 
+	@Test
+	public void testOutputHandleCache() {
+		ExponentialDistribution dist = InputAgent.defineEntityWithUniqueName(ExponentialDistribution.class, "Dist", "-", true);
+
+		// The same handle is returned for each lookup
+		OutputHandle name = dist.getOutputHandle("Name");
+		assertTrue(name != null);
+		assertTrue(dist.getOutputHandle("Name") == name);
+		assertTrue(dist.getOutputHandleInterned("Name") == name);
+		assertTrue(dist.getOutputHandle("Att") == null);
+
+		// Redefining the attributes replaces their handles
+		InputAgent.applyArgs(dist, "AttributeDefinitionList", "{", "Att", "1", "}");
+		OutputHandle att = dist.getOutputHandle("Att");
+		assertTrue(att instanceof AttributeHandle);
+		assertTrue(dist.getOutputHandleInterned("Att") == att);
+
+		InputAgent.applyArgs(dist, "AttributeDefinitionList", "{", "Att2", "2", "}");
+		assertTrue(dist.getOutputHandle("Att") == null);
+		assertTrue(((AttributeHandle) att).getInitialValue() == null);
+		assertTrue(dist.getOutputHandle("Att2") instanceof AttributeHandle);
+
+		// A cached handle follows the unit type chosen by the user
+		ObjectType time = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TimeType", "-", true);
+		InputAgent.applyArgs(time, "JavaClass", TimeUnit.class.getName());
+		ObjectType distance = InputAgent.defineEntityWithUniqueName(ObjectType.class, "DistanceType", "-", true);
+		InputAgent.applyArgs(distance, "JavaClass", DistanceUnit.class.getName());
+
+		InputAgent.applyArgs(dist, "UnitType", time.getName());
+		OutputHandle value = dist.getOutputHandle("Value");
+		assertTrue(value.getUnitType() == TimeUnit.class);
+
+		InputAgent.applyArgs(dist, "UnitType", distance.getName());
+		assertTrue(dist.getOutputHandle("Value") == value);
+		assertTrue(value.getUnitType() == DistanceUnit.class);
+	}
+
+	@Test
+	public void testAttributeLayout() throws ExpError {
+		DisplayEntity proto = InputAgent.defineEntityWithUniqueName(DisplayEntity.class, "Proto", "-", true);
+		InputAgent.applyArgs(proto, "AttributeDefinitionList", "{", "Count", "1", "}", "{", "Label", "\"abc\"", "}");
+		DisplayEntity gen = InputAgent.generateEntity(proto, "Gen", "-", 1);
+
+		// A generated entity shares the layout of its prototype
+		AttributeLayout layout = proto.getAttributeLayout();
+		assertTrue(gen.getAttributeLayout() == layout);
+		assertTrue(layout.getSlot("Label") == 1);
+		assertTrue(layout.getSlot("Width") == -1);
+		assertTrue(layout.getName(1).equals("Label"));
+
+		// Each entity has its own values
+		String src = "this.Count = this.Count + 1";
+		ExpParser.Assignment assign = ExpParser.parseAssignment(ExpEvaluator.getParseContext(gen, src), src);
+		ExpEvaluator.evaluateExpression(assign, 0.0d);
+		assertTrue(gen.getAttribute("Count").value == 2.0d);
+		assertTrue(proto.getAttribute("Count").value == 1.0d);
+		assertTrue(gen.getOutputHandle("Count").getValueAsDouble(0.0d, 0.0d) == 2.0d);
+		assertTrue(gen.getOutputHandle("Label").getValue(0.0d, String.class).equals("abc"));
+
+		// The initial values are restored at the start of a run
+		gen.earlyInit();
+		assertTrue(gen.getAttribute("Count").value == 1.0d);
+	}
 }
@@ -19,6 +19,9 @@ package com.jaamsim.input;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 
 import org.junit.Test;
@@ -107,4 +110,34 @@ public void testQuoted() {
 	assertFalse(Parser.isQuoted("'"));
 	assertFalse(Parser.isQuoted("'' "));
 }
+
+@Test
+public void testLineReader() throws IOException {
+	// Compare with BufferedReader for each form of line terminator, including a line that is
+	// longer than the initial buffer
+	StringBuilder sb = new StringBuilder();
+	for (int i = 0; i < 2000; i++)
+		sb.append("Ent").append(i).append(' ');
+	String[] texts = { "", "\n", "a", "a\n", "a\r\nb\rc\n\nd", "a\r\r\nb\r", sb.toString() + "\r\n" + sb.toString() };
+
+	for (String text : texts) {
+		BufferedReader expected = new BufferedReader(new StringReader(text));
+		LineReader lines = new LineReader(new StringReader(text));
+		while (true) {
+			String line = expected.readLine();
+			if (line == null) {
+				assertFalse(lines.nextLine());
+				break;
+			}
+			assertTrue(lines.nextLine());
+			assertTrue(line.equals(new String(lines.buf, lines.start, lines.end - lines.start)));
+		}
+	}
+
+	// Tokenizing part of a buffer gives the same tokens as tokenizing the same characters
+	ArrayList<String> tok = new ArrayList<>();
+	char[] buf = "xxOBJECT KEYWORD{ 'ARG  '}\"FOOxx".toCharArray();
+	Parser.tokenize(tok, buf, 2, buf.length - 2, false);
+	tokenMatch(tok, "OBJECT", "KEYWORD", "{", "ARG  ", "}", "\"FOO");
+}
 }
@@ -198,4 +198,30 @@ public class TestMRG1999a {
 
 		assertTrue(test1.toString().equals(test2.toString()));
 	}
+
+	@Test
+	public void testSaveState() {
+		MRG1999a rng = new MRG1999a(7, 3);
+		for (int i = 0; i < 1000; i++)
+			rng.nextUniform();
+
+		long[] seeds = rng.getSeed();
+		MRG1999a copy = new MRG1999a(rng);
+		MRG1999a restored = new MRG1999a(seeds[0], seeds[1], seeds[2], seeds[3], seeds[4], seeds[5]);
+		assertTrue(restored.toString().equals(rng.toString()));
+
+		double[] expected = new double[100];
+		for (int i = 0; i < expected.length; i++)
+			expected[i] = rng.nextUniform();
+
+		for (int i = 0; i < expected.length; i++) {
+			assertTrue(copy.nextUniform() == expected[i]);
+			assertTrue(restored.nextUniform() == expected[i]);
+		}
+
+		// Rewinding the original generator repeats the sequence
+		rng.setSeed(seeds[0], seeds[1], seeds[2], seeds[3], seeds[4], seeds[5]);
+		for (int i = 0; i < expected.length; i++)
+			assertTrue(rng.nextUniform() == expected[i]);
+	}
 }